@@ -2,6 +2,7 @@ package com.arcbank.MicroCliente.controller;
 
 import com.arcbank.MicroCliente.dto.ClienteRequestDTO;
 import com.arcbank.MicroCliente.dto.ClienteResponseDTO;
+import com.arcbank.MicroCliente.dto.ClienteResumenDTO;
 import com.arcbank.MicroCliente.dto.LoginRequestDTO;
 import com.arcbank.MicroCliente.service.ClienteService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -10,12 +11,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/clientes")
 @RequiredArgsConstructor
 @Tag(name = "Clientes", description = "Gestión de clientes")
 public class ClienteController {
 
+    private static final int MAX_RESUMEN = 5000;
+
     private final ClienteService clienteService;
 
     @Operation(summary = "Crear cliente")
@@ -24,6 +29,14 @@ public class ClienteController {
         return clienteService.crearCliente(request);
     }
 
+    @Operation(summary = "Resumen de clientes por páginas (keyset por ID) para sincronización de índices")
+    @GetMapping("/resumen")
+    public List<ClienteResumenDTO> resumen(
+            @RequestParam(defaultValue = "0") Integer desdeId,
+            @RequestParam(defaultValue = "1000") int limite) {
+        return clienteService.listarResumen(desdeId, Math.max(1, Math.min(limite, MAX_RESUMEN)));
+    }
+
     @Operation(summary = "Buscar cliente por ID")
     @GetMapping("/{id}")
     public ClienteResponseDTO buscarPorId(@PathVariable Integer id) {
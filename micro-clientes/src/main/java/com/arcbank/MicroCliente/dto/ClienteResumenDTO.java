@@ -0,0 +1,15 @@
+package com.arcbank.MicroCliente.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Datos mínimos para índices de lectura en otros servicios (sin credenciales)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteResumenDTO {
+    private Integer idCliente;
+    private String nombreCompleto;
+    private String estado;
+}
@@ -1,9 +1,14 @@
 package com.arcbank.MicroCliente.repository;
 
+import com.arcbank.MicroCliente.dto.ClienteResumenDTO;
 import com.arcbank.MicroCliente.model.Cliente;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +16,8 @@ public interface ClienteRepository extends JpaRepository<Cliente, Integer> {
 
     boolean existsByIdentificacion(String identificacion);
     Optional<Cliente> findByIdentificacion(String identificacion);
+
+    @Query("SELECT new com.arcbank.MicroCliente.dto.ClienteResumenDTO(c.idCliente, c.nombreCompleto, c.estado) "
+            + "FROM Cliente c WHERE c.idCliente > :desdeId ORDER BY c.idCliente")
+    List<ClienteResumenDTO> findResumenDesde(@Param("desdeId") Integer desdeId, Pageable pageable);
 }
@@ -2,6 +2,9 @@ package com.arcbank.MicroCliente.service;
 
 import com.arcbank.MicroCliente.dto.ClienteRequestDTO;
 import com.arcbank.MicroCliente.dto.ClienteResponseDTO;
+import com.arcbank.MicroCliente.dto.ClienteResumenDTO;
+
+import java.util.List;
 
 public interface ClienteService {
 
@@ -14,4 +17,6 @@ public interface ClienteService {
     ClienteResponseDTO actualizarEstado(Integer idCliente, String estado);
 
     ClienteResponseDTO login(String identificacion, String clave);
+
+    List<ClienteResumenDTO> listarResumen(Integer desdeId, int limite);
 }
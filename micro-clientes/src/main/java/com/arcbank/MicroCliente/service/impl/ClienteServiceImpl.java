@@ -2,13 +2,17 @@ package com.arcbank.MicroCliente.service.impl;
 
 import com.arcbank.MicroCliente.dto.ClienteRequestDTO;
 import com.arcbank.MicroCliente.dto.ClienteResponseDTO;
+import com.arcbank.MicroCliente.dto.ClienteResumenDTO;
 import com.arcbank.MicroCliente.model.Cliente;
 import com.arcbank.MicroCliente.repository.ClienteRepository;
 import com.arcbank.MicroCliente.service.ClienteService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -73,6 +77,12 @@ public class ClienteServiceImpl implements ClienteService {
         return toDTO(cliente);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClienteResumenDTO> listarResumen(Integer desdeId, int limite) {
+        return clienteRepository.findResumenDesde(desdeId, PageRequest.of(0, limite));
+    }
+
     private ClienteResponseDTO toDTO(Cliente entity) {
         ClienteResponseDTO dto = new ClienteResponseDTO();
         dto.setIdCliente(entity.getIdCliente());
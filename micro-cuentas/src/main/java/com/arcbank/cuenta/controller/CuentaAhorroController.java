@@ -2,8 +2,11 @@ package com.arcbank.cuenta.controller;
 
 import com.arcbank.cuenta.dto.CuentaAhorroDTO;
 import com.arcbank.cuenta.dto.CuentaAhorroRequest;
+import com.arcbank.cuenta.dto.CuentaResumenDTO;
+import com.arcbank.cuenta.dto.MovimientoDTO;
 import com.arcbank.cuenta.dto.SaldoDTO;
 import com.arcbank.cuenta.service.CuentaAhorroService;
+import com.arcbank.cuenta.service.MovimientoAplicadoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -15,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/cuentas/ahorros")
@@ -23,7 +27,12 @@ import java.util.List;
 @Tag(name = "Cuentas de Ahorro", description = "Gestión de cuentas de ahorro")
 public class CuentaAhorroController {
 
+    private static final int MAX_NUMEROS_LOTE = 5000;
+    private static final int MAX_RESUMEN = 5000;
+    private static final int MAX_MOVIMIENTOS_LOTE = 5000;
+
     private final CuentaAhorroService service;
+    private final MovimientoAplicadoService movimientoService;
 
     @Operation(summary = "Crear cuenta de ahorro")
     @PostMapping
@@ -44,19 +53,57 @@ public class CuentaAhorroController {
         return ResponseEntity.ok(service.findAll());
     }
 
+    @Operation(summary = "Resumen de cuentas por páginas (keyset por ID) para sincronización de índices")
+    @GetMapping("/resumen")
+    public ResponseEntity<List<CuentaResumenDTO>> resumen(
+            @RequestParam(defaultValue = "0") Integer desdeId,
+            @RequestParam(defaultValue = "1000") int limite) {
+        return ResponseEntity.ok(service.findResumen(desdeId, Math.max(1, Math.min(limite, MAX_RESUMEN))));
+    }
+
     @Operation(summary = "Consultar saldo")
     @GetMapping("/{id}/saldo")
     public ResponseEntity<BigDecimal> saldo(@PathVariable Integer id) {
         return ResponseEntity.ok(service.getSaldo(id));
     }
 
-    @Operation(summary = "Actualizar saldo (Interno)")
+    @Operation(summary = "Actualizar saldo (Interno). 409 ante escritura concurrente; con 'version', también si cambió")
     @PutMapping("/{id}/saldo")
-    public ResponseEntity<Void> actualizarSaldo(
+    public ResponseEntity<SaldoDTO> actualizarSaldo(
             @PathVariable Integer id,
             @RequestBody SaldoDTO saldoDTO) {
-        service.actualizarSaldo(id, saldoDTO.getSaldo());
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(service.actualizarSaldo(id, saldoDTO.getSaldo(), saldoDTO.getVersion()));
+    }
+
+    @Operation(summary = "Aplicar movimiento de saldo (Interno, atómico). Con 'referencia' se aplica una sola vez")
+    @PostMapping("/{id}/movimientos")
+    public ResponseEntity<SaldoDTO> aplicarMovimiento(
+            @PathVariable Integer id,
+            @Valid @RequestBody MovimientoDTO movimiento) {
+        if (movimiento.getReferencia() != null && !movimiento.getReferencia().isBlank()) {
+            return ResponseEntity.ok(new SaldoDTO(
+                    movimientoService.aplicar(id, List.of(movimiento)).get(0).getSaldoResultante()));
+        }
+        return ResponseEntity.ok(new SaldoDTO(service.aplicarMovimiento(id, movimiento.getMonto())));
+    }
+
+    @Operation(summary = "Aplicar un lote de movimientos con referencia (Interno). Las referencias ya aplicadas no mueven el saldo")
+    @PostMapping("/{id}/movimientos/lote")
+    public ResponseEntity<?> aplicarMovimientos(
+            @PathVariable Integer id,
+            @RequestBody List<MovimientoDTO> movimientos) {
+        if (movimientos.isEmpty() || movimientos.size() > MAX_MOVIMIENTOS_LOTE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "El lote debe tener entre 1 y " + MAX_MOVIMIENTOS_LOTE + " movimientos"));
+        }
+        for (MovimientoDTO m : movimientos) {
+            if (m.getMonto() == null || m.getReferencia() == null || m.getReferencia().isBlank()
+                    || m.getReferencia().length() > 64) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Cada movimiento del lote requiere monto y referencia (máx. 64)"));
+            }
+        }
+        return ResponseEntity.ok(movimientoService.aplicar(id, movimientos));
     }
 
     @Operation(summary = "Buscar cuenta por número de cuenta")
@@ -65,4 +112,15 @@ public class CuentaAhorroController {
         log.info("Buscando cuenta por numero: {}", numeroCuenta);
         return ResponseEntity.ok(service.findByNumeroCuenta(numeroCuenta));
     }
+
+    @Operation(summary = "Buscar cuentas por lote de números (solo retorna las encontradas)")
+    @PostMapping("/buscar/lote")
+    public ResponseEntity<?> findByNumerosCuenta(@RequestBody List<String> numerosCuenta) {
+        if (numerosCuenta.size() > MAX_NUMEROS_LOTE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "El lote no puede superar " + MAX_NUMEROS_LOTE + " números de cuenta"));
+        }
+        log.info("Buscando {} cuentas por numero", numerosCuenta.size());
+        return ResponseEntity.ok(service.findByNumerosCuenta(numerosCuenta));
+    }
 }
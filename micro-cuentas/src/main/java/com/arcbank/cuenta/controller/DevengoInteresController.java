@@ -0,0 +1,41 @@
+package com.arcbank.cuenta.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.arcbank.cuenta.service.DevengoInteresService;
+import com.arcbank.cuenta.service.DevengoInteresService.ResumenDevengo;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/cuentas/interes")
+@RequiredArgsConstructor
+@Tag(name = "Intereses", description = "Devengo diario de intereses (Interno)")
+public class DevengoInteresController {
+
+    private final DevengoInteresService service;
+
+    @Operation(summary = "Devengar intereses de una fecha pasada (por defecto, ayer). Idempotente por cuenta y "
+            + "fecha; solo afecta a cuentas cuyo último devengo es anterior a la fecha")
+    @PostMapping("/devengo")
+    public ResponseEntity<?> devengar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        LocalDate dia = fecha != null ? fecha : LocalDate.now().minusDays(1);
+        // Un día no cerrado adelantaría FechaUltimoDevengo y bloquearía las fechas anteriores
+        if (!dia.isBefore(LocalDate.now())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Solo se pueden devengar días ya cerrados"));
+        }
+        ResumenDevengo resumen = service.devengar(dia);
+        return ResponseEntity.ok(resumen);
+    }
+}
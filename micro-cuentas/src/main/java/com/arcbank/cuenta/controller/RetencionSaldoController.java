@@ -0,0 +1,67 @@
+package com.arcbank.cuenta.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.arcbank.cuenta.dto.RetencionActivaDTO;
+import com.arcbank.cuenta.dto.RetencionDTO;
+import com.arcbank.cuenta.dto.RetencionRequest;
+import com.arcbank.cuenta.service.RetencionSaldoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/cuentas/ahorros")
+@RequiredArgsConstructor
+@Tag(name = "Retenciones de Saldo", description = "Retención, captura y liberación de saldo disponible (Interno)")
+public class RetencionSaldoController {
+
+    private static final int MAX_ACTIVAS = 1000;
+
+    private final RetencionSaldoService service;
+
+    @Operation(summary = "Retener saldo disponible para una operación en curso (idempotente por referencia)")
+    @PostMapping("/{id}/retenciones")
+    public ResponseEntity<RetencionDTO> retener(@PathVariable Integer id,
+            @Valid @RequestBody RetencionRequest request) {
+        return new ResponseEntity<>(service.retener(id, request.getReferencia(), request.getMonto()),
+                HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Capturar retención: aplica el monto al saldo contable")
+    @PostMapping("/retenciones/{referencia}/captura")
+    public ResponseEntity<RetencionDTO> capturar(@PathVariable String referencia) {
+        return ResponseEntity.ok(service.capturar(referencia));
+    }
+
+    @Operation(summary = "Liberar retención: devuelve el monto al saldo disponible")
+    @PostMapping("/retenciones/{referencia}/liberacion")
+    public ResponseEntity<RetencionDTO> liberar(@PathVariable String referencia) {
+        return ResponseEntity.ok(service.liberar(referencia));
+    }
+
+    @Operation(summary = "Retenciones ACTIVAS creadas antes de una fecha, por páginas (keyset por fecha e ID)")
+    @GetMapping("/retenciones/activas")
+    public ResponseEntity<List<RetencionActivaDTO>> activas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime antesDe,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desdeFecha,
+            @RequestParam(defaultValue = "0") Integer desdeId,
+            @RequestParam(defaultValue = "200") int limite) {
+        return ResponseEntity.ok(service.findActivasAnteriores(antesDe, desdeFecha, desdeId,
+                Math.max(1, Math.min(limite, MAX_ACTIVAS))));
+    }
+}
@@ -1,7 +1,10 @@
 package com.arcbank.cuenta.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.arcbank.cuenta.dto.TasaInteresHistorialDTO;
@@ -36,6 +40,14 @@ public class TasaInteresController {
         return ResponseEntity.ok(service.create(request));
     }
 
+    @Operation(summary = "Tasa vigente de un tipo de cuenta en una fecha (por defecto, hoy)")
+    @GetMapping("/vigente")
+    public ResponseEntity<TasaInteresHistorialDTO> vigente(
+            @RequestParam Integer tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        return ResponseEntity.ok(service.findVigente(tipo, fecha != null ? fecha : LocalDate.now()));
+    }
+
     @Operation(summary = "Obtener tasa de interés por ID")
     @GetMapping("/{id}")
     public ResponseEntity<TasaInteresHistorialDTO> get(@PathVariable Integer id) {
@@ -28,4 +28,6 @@ public class CuentaAhorroDTO {
     private LocalDateTime fechaUltimaTransaccion;
 
     private String estado;
+
+    private Long version;
 }
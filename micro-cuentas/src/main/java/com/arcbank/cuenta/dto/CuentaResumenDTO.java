@@ -0,0 +1,16 @@
+package com.arcbank.cuenta.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Datos mínimos para índices de lectura en otros servicios (sin saldos)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CuentaResumenDTO {
+    private Integer idCuenta;
+    private String numeroCuenta;
+    private Integer idCliente;
+    private String estado;
+}
@@ -0,0 +1,21 @@
+package com.arcbank.cuenta.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoAplicadoDTO {
+    private String referencia;
+    private BigDecimal monto;
+
+    // Saldo disponible tras el movimiento (el registrado originalmente si es repetido)
+    private BigDecimal saldoResultante;
+
+    // true si la referencia ya estaba aplicada y el saldo no se movió en esta llamada
+    private boolean repetido;
+}
@@ -0,0 +1,27 @@
+package com.arcbank.cuenta.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoDTO {
+
+    // Positivo = crédito, negativo = débito
+    @NotNull(message = "El monto del movimiento es obligatorio")
+    private BigDecimal monto;
+
+    // Opcional: con referencia el movimiento se aplica una sola vez aunque se reintente
+    @Size(max = 64, message = "La referencia no puede superar 64 caracteres")
+    private String referencia;
+
+    public MovimientoDTO(BigDecimal monto) {
+        this.monto = monto;
+    }
+}
@@ -0,0 +1,20 @@
+package com.arcbank.cuenta.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Retención aún sin capturar ni liberar; la fecha e ID sirven de cursor para la página siguiente
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionActivaDTO {
+    private Integer idRetencion;
+    private Integer idCuenta;
+    private String referencia;
+    private BigDecimal monto;
+    private LocalDateTime fechaCreacion;
+}
@@ -0,0 +1,21 @@
+package com.arcbank.cuenta.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionDTO {
+    private Integer idRetencion;
+    private Integer idCuenta;
+    private String referencia;
+    private BigDecimal monto;
+    private String estado;
+
+    // Saldo disponible de la cuenta tras la operación
+    private BigDecimal saldo;
+}
@@ -0,0 +1,25 @@
+package com.arcbank.cuenta.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionRequest {
+
+    @NotBlank(message = "La referencia es obligatoria")
+    @Size(max = 64, message = "La referencia no puede superar 64 caracteres")
+    private String referencia;
+
+    @NotNull(message = "El monto es obligatorio")
+    @Positive(message = "El monto debe ser mayor a cero")
+    private BigDecimal monto;
+}
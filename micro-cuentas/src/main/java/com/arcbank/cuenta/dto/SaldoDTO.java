@@ -1,6 +1,9 @@
 package com.arcbank.cuenta.dto;
 
 import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -10,4 +13,12 @@ import lombok.AllArgsConstructor;
 @AllArgsConstructor
 public class SaldoDTO {
     private BigDecimal saldo;
+
+    // En PUT /saldo: versión esperada (opcional); en la respuesta: versión resultante
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    public SaldoDTO(BigDecimal saldo) {
+        this.saldo = saldo;
+    }
 }
@@ -0,0 +1,7 @@
+package com.arcbank.cuenta.exception;
+
+public class SaldoInsuficienteException extends RuntimeException {
+    public SaldoInsuficienteException(String message) {
+        super(message);
+    }
+}
@@ -46,6 +46,20 @@ public class CuentaAhorro {
     @Column(name = "Estado", length = 10, nullable = false)
     private String estado;
 
+    // Interés devengado aún no abonado; escala 8 para no perder fracciones diarias
+    @Column(name = "InteresAcumulado", precision = 19, scale = 8, nullable = false,
+            columnDefinition = "numeric(19,8) default 0")
+    private java.math.BigDecimal interesAcumulado = java.math.BigDecimal.ZERO;
+
+    // Último día devengado: el proceso diario solo toma cuentas con fecha anterior (reejecución idempotente)
+    @Column(name = "FechaUltimoDevengo")
+    private LocalDate fechaUltimoDevengo;
+
+    // Control optimista; el default permite agregar la columna a tablas con filas existentes
+    @Version
+    @Column(name = "Version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     public CuentaAhorro() { }
 
     public CuentaAhorro(Integer idCuenta) {
@@ -79,6 +93,7 @@ public class CuentaAhorro {
                 ", fechaApertura=" + fechaApertura +
                 ", fechaUltimaTransaccion=" + fechaUltimaTransaccion +
                 ", estado='" + estado + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
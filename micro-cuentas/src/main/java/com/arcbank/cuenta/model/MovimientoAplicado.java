@@ -0,0 +1,72 @@
+package com.arcbank.cuenta.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Movimiento aplicado con referencia del llamador. La Referencia única impide acreditar o debitar
+ * dos veces la misma operación cuando el llamador reintenta tras un timeout.
+ */
+@Entity
+@Table(name = "MovimientoAplicado", schema = "public")
+@Getter
+@Setter
+public class MovimientoAplicado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "IdMovimiento")
+    private Integer idMovimiento;
+
+    @Column(name = "IdCuenta", nullable = false)
+    private Integer idCuenta;
+
+    @Column(name = "Referencia", length = 64, nullable = false, unique = true)
+    private String referencia;
+
+    @Column(name = "Monto", precision = 15, scale = 2, nullable = false)
+    private BigDecimal monto;
+
+    // Saldo disponible inmediatamente después de este movimiento
+    @Column(name = "SaldoResultante", precision = 15, scale = 2, nullable = false)
+    private BigDecimal saldoResultante;
+
+    @Column(name = "FechaCreacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    public MovimientoAplicado() { }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        MovimientoAplicado that = (MovimientoAplicado) o;
+        return Objects.equals(idMovimiento, that.idMovimiento);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idMovimiento);
+    }
+
+    @Override
+    public String toString() {
+        return "MovimientoAplicado{" +
+                "idMovimiento=" + idMovimiento +
+                ", idCuenta=" + idCuenta +
+                ", referencia='" + referencia + '\'' +
+                ", monto=" + monto +
+                '}';
+    }
+}
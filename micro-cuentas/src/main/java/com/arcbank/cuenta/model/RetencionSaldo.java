@@ -0,0 +1,83 @@
+package com.arcbank.cuenta.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Retención de saldo disponible para una operación en curso (p. ej. transferencia interbancaria).
+ * ACTIVA reduce solo SaldoDisponible; CAPTURADA la aplica también a SaldoActual; LIBERADA la devuelve.
+ */
+@Entity
+@Table(name = "RetencionSaldo", schema = "public", indexes = {
+        @Index(name = "idx_retencion_cuenta_estado", columnList = "IdCuenta, Estado"),
+        @Index(name = "idx_retencion_estado_fecha", columnList = "Estado, FechaCreacion") })
+@Getter
+@Setter
+public class RetencionSaldo {
+
+    public static final String ACTIVA = "ACTIVA";
+    public static final String CAPTURADA = "CAPTURADA";
+    public static final String LIBERADA = "LIBERADA";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "IdRetencion")
+    private Integer idRetencion;
+
+    @Column(name = "IdCuenta", nullable = false)
+    private Integer idCuenta;
+
+    // Referencia de la operación que origina la retención (idempotencia)
+    @Column(name = "Referencia", length = 64, nullable = false, unique = true)
+    private String referencia;
+
+    @Column(name = "Monto", precision = 15, scale = 2, nullable = false)
+    private BigDecimal monto;
+
+    @Column(name = "Estado", length = 10, nullable = false)
+    private String estado;
+
+    @Column(name = "FechaCreacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "FechaResolucion")
+    private LocalDateTime fechaResolucion;
+
+    public RetencionSaldo() { }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        RetencionSaldo that = (RetencionSaldo) o;
+        return Objects.equals(idRetencion, that.idRetencion);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idRetencion);
+    }
+
+    @Override
+    public String toString() {
+        return "RetencionSaldo{" +
+                "idRetencion=" + idRetencion +
+                ", idCuenta=" + idCuenta +
+                ", referencia='" + referencia + '\'' +
+                ", monto=" + monto +
+                ", estado='" + estado + '\'' +
+                '}';
+    }
+}
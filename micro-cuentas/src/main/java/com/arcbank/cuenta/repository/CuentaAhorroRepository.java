@@ -1,16 +1,81 @@
 package com.arcbank.cuenta.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.arcbank.cuenta.dto.CuentaResumenDTO;
 import com.arcbank.cuenta.model.CuentaAhorro;
 
 public interface CuentaAhorroRepository extends JpaRepository<CuentaAhorro, Integer> {
+
+    // c.tipoCuenta.idTipoCuenta se resuelve con la FK de CuentaAhorro: una sola sentencia, sin JOIN
+    String SELECT_VISTA = "SELECT c.idCuenta AS idCuenta, c.numeroCuenta AS numeroCuenta, c.idCliente AS idCliente, "
+            + "c.idSucursalApertura AS idSucursalApertura, c.tipoCuenta.idTipoCuenta AS idTipoCuenta, "
+            + "c.saldoActual AS saldoActual, c.saldoDisponible AS saldoDisponible, "
+            + "c.fechaApertura AS fechaApertura, c.fechaUltimaTransaccion AS fechaUltimaTransaccion, "
+            + "c.estado AS estado, c.version AS version FROM CuentaAhorro c ";
     
     // Necesario para buscar cuentas por su número (String) y no solo por ID interno
     Optional<CuentaAhorro> findByNumeroCuenta(String numeroCuenta);
+
+    @Query(SELECT_VISTA + "WHERE c.idCuenta = :id")
+    Optional<CuentaAhorroVista> findVistaById(@Param("id") Integer id);
+
+    @Query(SELECT_VISTA + "WHERE c.numeroCuenta = :numero")
+    Optional<CuentaAhorroVista> findVistaByNumeroCuenta(@Param("numero") String numeroCuenta);
+
+    @Query(SELECT_VISTA + "WHERE c.numeroCuenta IN :numeros")
+    List<CuentaAhorroVista> findVistasByNumeroCuentaIn(@Param("numeros") Collection<String> numerosCuenta);
+
+    @Query(SELECT_VISTA + "ORDER BY c.idCuenta")
+    List<CuentaAhorroVista> findAllVistas();
     
     // Útil para validaciones antes de crear una cuenta nueva
     boolean existsByNumeroCuenta(String numeroCuenta);
+
+    // Aplica el movimiento en una sola sentencia; la condición evita sobregiros.
+    // Devuelve 0 si la cuenta no existe o si el saldo no alcanza. Incrementa la versión para que las
+    // escrituras optimistas concurrentes detecten el cambio.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CuentaAhorro c SET c.saldoActual = c.saldoActual + :monto, "
+            + "c.saldoDisponible = c.saldoDisponible + :monto, c.fechaUltimaTransaccion = :fecha, "
+            + "c.version = c.version + 1 "
+            + "WHERE c.idCuenta = :id AND c.saldoDisponible + :monto >= 0")
+    int aplicarMovimiento(@Param("id") Integer id, @Param("monto") BigDecimal monto,
+            @Param("fecha") LocalDateTime fecha);
+
+    // Retención: solo reduce el disponible; 0 si la cuenta no existe o el disponible no alcanza
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CuentaAhorro c SET c.saldoDisponible = c.saldoDisponible - :monto, c.version = c.version + 1 "
+            + "WHERE c.idCuenta = :id AND c.saldoDisponible >= :monto")
+    int retenerSaldo(@Param("id") Integer id, @Param("monto") BigDecimal monto);
+
+    // Captura: el disponible ya se redujo al retener, ahora se aplica al saldo contable
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CuentaAhorro c SET c.saldoActual = c.saldoActual - :monto, c.fechaUltimaTransaccion = :fecha, "
+            + "c.version = c.version + 1 WHERE c.idCuenta = :id")
+    int capturarRetencion(@Param("id") Integer id, @Param("monto") BigDecimal monto,
+            @Param("fecha") LocalDateTime fecha);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CuentaAhorro c SET c.saldoDisponible = c.saldoDisponible + :monto, c.version = c.version + 1 "
+            + "WHERE c.idCuenta = :id")
+    int liberarRetencion(@Param("id") Integer id, @Param("monto") BigDecimal monto);
+
+    // Recorrido por keyset sobre la PK para sincronizar índices externos
+    @Query("SELECT new com.arcbank.cuenta.dto.CuentaResumenDTO(c.idCuenta, c.numeroCuenta, c.idCliente, c.estado) "
+            + "FROM CuentaAhorro c WHERE c.idCuenta > :desdeId ORDER BY c.idCuenta")
+    List<CuentaResumenDTO> findResumenDesde(@Param("desdeId") Integer desdeId, Pageable pageable);
+
+    @Query("SELECT c.saldoDisponible FROM CuentaAhorro c WHERE c.idCuenta = :id")
+    Optional<BigDecimal> findSaldoDisponibleById(@Param("id") Integer id);
 }
@@ -0,0 +1,31 @@
+package com.arcbank.cuenta.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Proyección de lectura de CuentaAhorro: columnas planas, sin cargar la entidad ni el proxy de tipoCuenta
+public interface CuentaAhorroVista {
+
+    Integer getIdCuenta();
+
+    String getNumeroCuenta();
+
+    Integer getIdCliente();
+
+    Integer getIdSucursalApertura();
+
+    Integer getIdTipoCuenta();
+
+    BigDecimal getSaldoActual();
+
+    BigDecimal getSaldoDisponible();
+
+    LocalDate getFechaApertura();
+
+    LocalDateTime getFechaUltimaTransaccion();
+
+    String getEstado();
+
+    Long getVersion();
+}
@@ -0,0 +1,186 @@
+package com.arcbank.cuenta.repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.arcbank.cuenta.model.CuentaAhorro;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lectura por keyset y escritura con JDBC batch para el devengo diario de intereses.
+ * Los nombres de tabla y columnas se toman del mapeo de Hibernate para respetar la estrategia de nombres.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DevengoInteresRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private String sqlRango;
+    private String sqlPrimerPendiente;
+    private String sqlPendientes;
+    private String sqlDevengar;
+    private String sqlAbonar;
+    private String sqlOmitir;
+    private String sqlSembrar;
+
+    @PostConstruct
+    void prepararSentencias() {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(CuentaAhorro.class);
+
+        String tabla = persister.getTableName();
+        String id = columna(persister, "idCuenta");
+        String tipo = columna(persister, "tipoCuenta");
+        String saldoActual = columna(persister, "saldoActual");
+        String saldoDisponible = columna(persister, "saldoDisponible");
+        String interes = columna(persister, "interesAcumulado");
+        String ultimoDevengo = columna(persister, "fechaUltimoDevengo");
+        String ultimaTransaccion = columna(persister, "fechaUltimaTransaccion");
+        String estado = columna(persister, "estado");
+        String apertura = columna(persister, "fechaApertura");
+        String version = columna(persister, "version");
+        // El mismo día no se devenga dos veces aunque el proceso se reejecute
+        String pendiente = "(" + ultimoDevengo + " IS NULL OR " + ultimoDevengo + " < ?)";
+
+        sqlRango = "SELECT MIN(" + id + "), MAX(" + id + ") FROM " + tabla + " WHERE " + estado + " = 'ACTIVA'";
+        sqlPrimerPendiente = "SELECT MIN(" + ultimoDevengo + "), MIN(CASE WHEN " + ultimoDevengo + " IS NULL THEN "
+                + apertura + " END) FROM " + tabla + " WHERE " + estado + " = 'ACTIVA'";
+        // Una cuenta no devenga días anteriores a su apertura
+        sqlPendientes = "SELECT " + id + ", " + tipo + ", " + saldoActual + ", " + interes + " FROM " + tabla
+                + " WHERE " + id + " > ? AND " + id + " <= ? AND " + estado + " = 'ACTIVA' AND " + apertura
+                + " <= ? AND " + pendiente + " ORDER BY " + id + " LIMIT ?";
+        sqlDevengar = "UPDATE " + tabla + " SET " + interes + " = ?, " + ultimoDevengo + " = ?, "
+                + version + " = " + version + " + 1 WHERE " + id + " = ? AND " + pendiente;
+        sqlAbonar = "UPDATE " + tabla + " SET " + interes + " = ?, " + ultimoDevengo + " = ?, "
+                + saldoActual + " = " + saldoActual + " + ?, " + saldoDisponible + " = " + saldoDisponible + " + ?, "
+                + ultimaTransaccion + " = ?, " + version + " = " + version + " + 1 WHERE " + id + " = ? AND "
+                + pendiente;
+        sqlOmitir = "UPDATE " + tabla + " SET " + ultimoDevengo + " = ?, " + version + " = " + version + " + 1 WHERE "
+                + id + " = ? AND " + pendiente;
+        sqlSembrar = "UPDATE " + tabla + " SET " + ultimoDevengo + " = ?, " + version + " = " + version + " + 1 WHERE "
+                + ultimoDevengo + " IS NULL AND " + apertura + " <= ?";
+    }
+
+    /** [min, max] de idCuenta entre las cuentas activas; null si no hay ninguna. */
+    public long[] rangoCuentasActivas() {
+        return jdbcTemplate.query(sqlRango, rs -> {
+            if (!rs.next() || rs.getObject(1) == null) {
+                return null;
+            }
+            return new long[] { rs.getLong(1), rs.getLong(2) };
+        });
+    }
+
+    /**
+     * Primer día sin devengar entre las cuentas activas: el siguiente al último devengo más antiguo o, para
+     * cuentas que nunca devengaron, su apertura. null si no hay cuentas activas.
+     */
+    public LocalDate primerDiaPendiente() {
+        return jdbcTemplate.query(sqlPrimerPendiente, rs -> {
+            if (!rs.next()) {
+                return null;
+            }
+            Date ultimo = rs.getDate(1);
+            Date apertura = rs.getDate(2);
+            LocalDate siguiente = ultimo != null ? ultimo.toLocalDate().plusDays(1) : null;
+            LocalDate nunca = apertura != null ? apertura.toLocalDate() : null;
+            if (siguiente == null || nunca == null) {
+                return siguiente != null ? siguiente : nunca;
+            }
+            return siguiente.isBefore(nunca) ? siguiente : nunca;
+        });
+    }
+
+    /** Siguiente bloque de cuentas activas con idCuenta en (desdeId, hastaId] aún sin devengar en la fecha. */
+    public List<Pendiente> findPendientes(long desdeId, long hastaId, LocalDate fecha, int limite) {
+        return jdbcTemplate.query(sqlPendientes,
+                (rs, n) -> new Pendiente(rs.getInt(1), rs.getInt(2), rs.getBigDecimal(3),
+                        rs.getBigDecimal(4) != null ? rs.getBigDecimal(4) : BigDecimal.ZERO),
+                desdeId, hastaId, Date.valueOf(fecha), Date.valueOf(fecha), limite);
+    }
+
+    /** Devuelve cuántas filas se actualizaron (las ya devengadas por otra ejecución se omiten). */
+    public int registrar(List<Devengo> devengos, LocalDate fecha, LocalDateTime ahora) {
+        List<Object[]> soloDevengo = new ArrayList<>();
+        List<Object[]> conAbono = new ArrayList<>();
+        Date dia = Date.valueOf(fecha);
+        for (Devengo d : devengos) {
+            if (d.getAbono().signum() > 0) {
+                conAbono.add(new Object[] { d.getInteresAcumulado(), dia, d.getAbono(), d.getAbono(),
+                        Timestamp.valueOf(ahora), d.getIdCuenta(), dia });
+            } else {
+                soloDevengo.add(new Object[] { d.getInteresAcumulado(), dia, d.getIdCuenta(), dia });
+            }
+        }
+        return sumar(jdbcTemplate.batchUpdate(sqlDevengar, soloDevengo))
+                + sumar(jdbcTemplate.batchUpdate(sqlAbonar, conAbono));
+    }
+
+    /** Marca la fecha como procesada sin devengar (tipo sin tasa vigente) para que no vuelva a quedar pendiente. */
+    public int omitir(List<Integer> idsCuenta, LocalDate fecha) {
+        Date dia = Date.valueOf(fecha);
+        List<Object[]> filas = new ArrayList<>(idsCuenta.size());
+        for (Integer idCuenta : idsCuenta) {
+            filas.add(new Object[] { dia, idCuenta, dia });
+        }
+        return sumar(jdbcTemplate.batchUpdate(sqlOmitir, filas));
+    }
+
+    /**
+     * Cuentas abiertas hasta la fecha que nunca devengaron (filas anteriores al motor de intereses): se dan por
+     * devengadas hasta esa fecha en lugar de recuperar días pasados con el saldo de hoy.
+     */
+    public int sembrarUltimoDevengo(LocalDate fecha) {
+        return jdbcTemplate.update(sqlSembrar, Date.valueOf(fecha), Date.valueOf(fecha));
+    }
+
+    private static int sumar(int[] filas) {
+        int total = 0;
+        for (int f : filas) {
+            // Algunos drivers devuelven SUCCESS_NO_INFO (-2) en lugar del conteo
+            total += f < 0 ? 1 : f;
+        }
+        return total;
+    }
+
+    private static String columna(AbstractEntityPersister persister, String propiedad) {
+        return persister.getPropertyColumnNames(propiedad)[0];
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Pendiente {
+        private final Integer idCuenta;
+        private final Integer idTipoCuenta;
+        private final BigDecimal saldoActual;
+        private final BigDecimal interesAcumulado;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Devengo {
+        private final Integer idCuenta;
+        // Acumulado que queda en la cuenta tras devengar y, si corresponde, abonar
+        private final BigDecimal interesAcumulado;
+        private final BigDecimal abono;
+    }
+}
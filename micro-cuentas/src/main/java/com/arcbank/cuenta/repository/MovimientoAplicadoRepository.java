@@ -0,0 +1,13 @@
+package com.arcbank.cuenta.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.arcbank.cuenta.model.MovimientoAplicado;
+
+public interface MovimientoAplicadoRepository extends JpaRepository<MovimientoAplicado, Integer> {
+
+    List<MovimientoAplicado> findByReferenciaIn(Collection<String> referencias);
+}
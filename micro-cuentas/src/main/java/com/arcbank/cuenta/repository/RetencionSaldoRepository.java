@@ -0,0 +1,37 @@
+package com.arcbank.cuenta.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.arcbank.cuenta.dto.RetencionActivaDTO;
+import com.arcbank.cuenta.model.RetencionSaldo;
+
+public interface RetencionSaldoRepository extends JpaRepository<RetencionSaldo, Integer> {
+
+    Optional<RetencionSaldo> findByReferencia(String referencia);
+
+    // Keyset sobre (FechaCreacion, IdRetencion) apoyado en idx_retencion_estado_fecha
+    @Query("SELECT new com.arcbank.cuenta.dto.RetencionActivaDTO(r.idRetencion, r.idCuenta, r.referencia, r.monto, "
+            + "r.fechaCreacion) FROM RetencionSaldo r WHERE r.estado = 'ACTIVA' AND r.fechaCreacion < :limite "
+            + "AND (r.fechaCreacion > :cursorFecha "
+            + "OR (r.fechaCreacion = :cursorFecha AND r.idRetencion > :cursorId)) "
+            + "ORDER BY r.fechaCreacion, r.idRetencion")
+    List<RetencionActivaDTO> findActivasAnteriores(@Param("limite") LocalDateTime limite,
+            @Param("cursorFecha") LocalDateTime cursorFecha,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable);
+
+    // Transición condicional desde ACTIVA: solo una captura o liberación concurrente obtiene 1
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RetencionSaldo r SET r.estado = :estado, r.fechaResolucion = :fecha "
+            + "WHERE r.referencia = :referencia AND r.estado = 'ACTIVA'")
+    int resolver(@Param("referencia") String referencia, @Param("estado") String estado,
+            @Param("fecha") LocalDateTime fecha);
+}
@@ -3,11 +3,18 @@ package com.arcbank.cuenta.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import com.arcbank.cuenta.dto.TasaInteresHistorialDTO;
 import com.arcbank.cuenta.model.TasaInteresHistorial;
 
 public interface TasaInteresHistorialRepository extends JpaRepository<TasaInteresHistorial, Integer> {
     
     // Busca las tasas navegando por la relación: Entidad Tasa -> Atributo tipoCuenta -> Atributo idTipoCuenta
     List<TasaInteresHistorial> findByTipoCuenta_IdTipoCuenta(Integer idTipoCuenta);
+
+    // Historial completo en una sentencia, sin cargar TipoCuentaAhorro (carga del índice de tasas vigentes)
+    @Query("SELECT new com.arcbank.cuenta.dto.TasaInteresHistorialDTO(t.idTasaHistorial, t.tipoCuenta.idTipoCuenta, "
+            + "t.tasaInteresAnual, t.fechaInicio, t.fechaFin) FROM TasaInteresHistorial t")
+    List<TasaInteresHistorialDTO> findAllResumen();
 }
@@ -1,20 +1,48 @@
 package com.arcbank.cuenta.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.arcbank.cuenta.dto.CuentaAhorroDTO;
 import com.arcbank.cuenta.dto.CuentaAhorroRequest;
+import com.arcbank.cuenta.dto.CuentaResumenDTO;
+import com.arcbank.cuenta.dto.SaldoDTO;
+import com.arcbank.cuenta.exception.ConflictoConcurrenciaException;
+import com.arcbank.cuenta.exception.SaldoInsuficienteException;
 import com.arcbank.cuenta.model.CuentaAhorro;
 import com.arcbank.cuenta.model.TipoCuentaAhorro;
 import com.arcbank.cuenta.repository.CuentaAhorroRepository;
+import com.arcbank.cuenta.repository.CuentaAhorroVista;
 import com.arcbank.cuenta.repository.TipoCuentaAhorroRepository;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +54,39 @@ public class CuentaAhorroService {
 
     private final CuentaAhorroRepository cuentaRepo;
     private final TipoCuentaAhorroRepository tipoRepo;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.cuentas.lectura.ttl-ms:1000}")
+    private long lecturaTtlMs;
+
+    @Value("${app.cuentas.lectura.max-entradas:50000}")
+    private long lecturaMaxEntradas;
+
+    // Single-flight: lecturas concurrentes de la misma cuenta comparten una consulta; TTL corto
+    private AsyncLoadingCache<Integer, Optional<CuentaAhorroDTO>> lecturas;
+    private Counter lecturasBd;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter conflictosRechazados;
+
+    @PostConstruct
+    void inicializar() {
+        lecturasBd = meterRegistry.counter("cuentas.lectura.bd");
+        lecturas = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(lecturaTtlMs))
+                .maximumSize(lecturaMaxEntradas)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .recordStats()
+                .buildAsync(id -> {
+                    lecturasBd.increment();
+                    return cuentaRepo.findVistaById(id).map(this::toDTO);
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, lecturas, "cuentas.lectura");
+
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        conflictosRechazados = meterRegistry.counter("cuentas.saldo.conflictos", "resultado", "rechazo");
+    }
 
     @Transactional
     public CuentaAhorroDTO create(CuentaAhorroRequest request) {
@@ -42,6 +103,8 @@ public class CuentaAhorroService {
         c.setSaldoDisponible(request.getSaldoInicial());
         c.setEstado("ACTIVA");
         c.setFechaApertura(java.time.LocalDate.now());
+        // Devenga desde la apertura; NULL queda solo para filas anteriores al motor de intereses
+        c.setFechaUltimoDevengo(c.getFechaApertura().minusDays(1));
 
         CuentaAhorro saved = cuentaRepo.save(c);
         log.info("Cuenta creada: {}", saved.getNumeroCuenta());
@@ -49,47 +112,161 @@ public class CuentaAhorroService {
     }
 
     public CuentaAhorroDTO findById(Integer id) {
-        return cuentaRepo.findById(id)
-                .map(this::toDTO)
-                .orElseThrow(() -> new EntityNotFoundException("Cuenta no encontrada ID: " + id));
+        return leer(id).orElseThrow(() -> new EntityNotFoundException("Cuenta no encontrada ID: " + id));
     }
 
     public List<CuentaAhorroDTO> findAll() {
-        return cuentaRepo.findAll().stream()
+        return cuentaRepo.findAllVistas().stream()
                 .map(this::toDTO)
                 .collect(Collectors.toList());
     }
 
     public BigDecimal getSaldo(Integer id) {
-        return cuentaRepo.findById(id)
-                .map(CuentaAhorro::getSaldoDisponible)
+        return leer(id)
+                .map(CuentaAhorroDTO::getSaldoDisponible)
                 .orElseThrow(() -> new EntityNotFoundException("Cuenta no encontrada ID: " + id));
     }
 
     public CuentaAhorroDTO findByNumeroCuenta(String numeroCuenta) {
         String numLimpio = numeroCuenta.replaceFirst("^0+", "");
-        return cuentaRepo.findByNumeroCuenta(numLimpio)
+        return cuentaRepo.findVistaByNumeroCuenta(numLimpio)
                 .map(this::toDTO)
-                .orElseGet(() -> cuentaRepo.findByNumeroCuenta(numeroCuenta)
+                .orElseGet(() -> cuentaRepo.findVistaByNumeroCuenta(numeroCuenta)
                         .map(this::toDTO)
                         .orElseThrow(() -> new EntityNotFoundException("Cuenta no encontrada: " + numeroCuenta)));
     }
 
+    /**
+     * Búsqueda masiva por número. Aplica la misma regla que la búsqueda individual (primero sin ceros a
+     * la izquierda) y devuelve solo las cuentas encontradas, indexadas por el número solicitado.
+     */
+    public Map<String, CuentaAhorroDTO> findByNumerosCuenta(Collection<String> numerosCuenta) {
+        Set<String> candidatos = new HashSet<>();
+        for (String numero : numerosCuenta) {
+            candidatos.add(numero);
+            candidatos.add(numero.replaceFirst("^0+", ""));
+        }
+
+        Map<String, CuentaAhorroVista> encontradas = cuentaRepo.findVistasByNumeroCuentaIn(candidatos).stream()
+                .collect(Collectors.toMap(CuentaAhorroVista::getNumeroCuenta, c -> c, (a, b) -> a));
+
+        Map<String, CuentaAhorroDTO> resultado = new LinkedHashMap<>();
+        for (String numero : numerosCuenta) {
+            CuentaAhorroVista c = encontradas.get(numero.replaceFirst("^0+", ""));
+            if (c == null) {
+                c = encontradas.get(numero);
+            }
+            if (c != null) {
+                resultado.put(numero, toDTO(c));
+            }
+        }
+        return resultado;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CuentaResumenDTO> findResumen(Integer desdeId, int limite) {
+        return cuentaRepo.findResumenDesde(desdeId, PageRequest.of(0, limite));
+    }
+
+    /**
+     * Fija el saldo con control optimista. Con versionEsperada la escritura es condicional. Cualquier conflicto
+     * se devuelve al llamador (409) para que relea: el saldo absoluto se calculó sobre una lectura que ya no es
+     * vigente y reintentarlo aquí pisaría el movimiento concurrente. Para sumar o restar, usar /movimientos.
+     */
+    public SaldoDTO actualizarSaldo(Integer id, BigDecimal nuevoSaldo, Long versionEsperada) {
+        try {
+            CuentaAhorro c = transactionTemplate.execute(status -> {
+                CuentaAhorro cuenta = cuentaRepo.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException("Cuenta no encontrada ID: " + id));
+                if (versionEsperada != null && !versionEsperada.equals(cuenta.getVersion())) {
+                    throw new ConflictoConcurrenciaException("La cuenta ID " + id + " fue modificada (versión "
+                            + cuenta.getVersion() + ", esperada " + versionEsperada + ")");
+                }
+                // Las retenciones activas (SaldoActual - SaldoDisponible) se conservan
+                BigDecimal retenido = cuenta.getSaldoActual().subtract(cuenta.getSaldoDisponible());
+                cuenta.setSaldoActual(nuevoSaldo);
+                cuenta.setSaldoDisponible(nuevoSaldo.subtract(retenido));
+                cuenta.setFechaUltimaTransaccion(LocalDateTime.now());
+                return cuentaRepo.saveAndFlush(cuenta);
+            });
+            lecturas.synchronous().invalidate(id);
+            log.info("Saldo actualizado para cuenta ID {}: Nuevo Saldo {} | Version {}", id, nuevoSaldo,
+                    c.getVersion());
+            return new SaldoDTO(c.getSaldoDisponible(), c.getVersion());
+
+        } catch (ConcurrencyFailureException e) {
+            // Versión obsoleta al hacer flush, o bloqueo/serialización rechazados por la base de datos
+            conflictosRechazados.increment();
+            throw new ConflictoConcurrenciaException(
+                    "Escritura concurrente sobre la cuenta ID " + id + ", relea el saldo y reintente");
+        } catch (ConflictoConcurrenciaException e) {
+            conflictosRechazados.increment();
+            throw e;
+        }
+    }
+
     @Transactional
-    public void actualizarSaldo(Integer id, BigDecimal nuevoSaldo) {
-        CuentaAhorro c = cuentaRepo.findById(id)
+    public BigDecimal aplicarMovimiento(Integer id, BigDecimal monto) {
+        int filas = cuentaRepo.aplicarMovimiento(id, monto, LocalDateTime.now());
+        if (filas == 0) {
+            if (!cuentaRepo.existsById(id)) {
+                throw new EntityNotFoundException("Cuenta no encontrada ID: " + id);
+            }
+            throw new SaldoInsuficienteException("Fondos insuficientes en la cuenta ID: " + id);
+        }
+        invalidarTrasCommit(id);
+
+        // La fila queda bloqueada por el UPDATE hasta el commit, la lectura es consistente
+        BigDecimal nuevoSaldo = cuentaRepo.findSaldoDisponibleById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Cuenta no encontrada ID: " + id));
+        log.info("Movimiento aplicado en cuenta ID {}: Monto {} | Nuevo Saldo {}", id, monto, nuevoSaldo);
+        return nuevoSaldo;
+    }
+
+    private Optional<CuentaAhorroDTO> leer(Integer id) {
+        try {
+            return lecturas.get(id).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
 
-        c.setSaldoActual(nuevoSaldo);
-        c.setSaldoDisponible(nuevoSaldo);
-        c.setFechaUltimaTransaccion(LocalDateTime.now());
+    // Tras el commit para que una lectura concurrente no vuelva a cachear el saldo anterior
+    void invalidarTrasCommit(Integer id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lecturas.synchronous().invalidate(id);
+                }
+            });
+        } else {
+            lecturas.synchronous().invalidate(id);
+        }
+    }
 
-        cuentaRepo.save(c);
-        log.info("Saldo actualizado para cuenta ID {}: Nuevo Saldo {}", id, nuevoSaldo);
+    private CuentaAhorroDTO toDTO(CuentaAhorroVista v) {
+        CuentaAhorroDTO dto = new CuentaAhorroDTO();
+        dto.setVersion(v.getVersion());
+        dto.setIdCuenta(v.getIdCuenta());
+        dto.setNumeroCuenta(v.getNumeroCuenta());
+        dto.setIdCliente(v.getIdCliente());
+        dto.setIdSucursalApertura(v.getIdSucursalApertura());
+        dto.setIdTipoCuenta(v.getIdTipoCuenta());
+        dto.setSaldoActual(v.getSaldoActual());
+        dto.setSaldoDisponible(v.getSaldoDisponible());
+        dto.setFechaApertura(v.getFechaApertura());
+        dto.setFechaUltimaTransaccion(v.getFechaUltimaTransaccion());
+        dto.setEstado(v.getEstado());
+        return dto;
     }
 
     private CuentaAhorroDTO toDTO(CuentaAhorro c) {
         CuentaAhorroDTO dto = new CuentaAhorroDTO();
+        dto.setVersion(c.getVersion());
         dto.setIdCuenta(c.getIdCuenta());
         dto.setNumeroCuenta(c.getNumeroCuenta());
         dto.setIdCliente(c.getIdCliente());
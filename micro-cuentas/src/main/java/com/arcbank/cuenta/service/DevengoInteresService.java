@@ -0,0 +1,310 @@
+package com.arcbank.cuenta.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.arcbank.cuenta.exception.ConflictoConcurrenciaException;
+import com.arcbank.cuenta.model.TipoCuentaAhorro;
+import com.arcbank.cuenta.repository.DevengoInteresRepository;
+import com.arcbank.cuenta.repository.DevengoInteresRepository.Devengo;
+import com.arcbank.cuenta.repository.DevengoInteresRepository.Pendiente;
+import com.arcbank.cuenta.repository.TipoCuentaAhorroRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Devengo diario de intereses sobre SaldoActual con la tasa vigente del tipo de cuenta en la fecha.
+ * El rango de idCuenta se reparte en tramos que se procesan en paralelo por keyset; cada bloque se escribe
+ * con JDBC batch en su propia transacción. Al cierre del periodo de amortización del tipo se abona la parte
+ * entera en centavos y la fracción queda acumulada. Reejecutar una fecha no duplica el devengo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DevengoInteresService {
+
+    private static final BigDecimal CIEN = BigDecimal.valueOf(100);
+    private static final int ESCALA_INTERES = 8;
+
+    private final DevengoInteresRepository devengoRepo;
+    private final IndiceTasasVigentes indiceTasas;
+    private final TipoCuentaAhorroRepository tipoRepo;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    // Cada tramo ocupa una conexión del pool mientras escribe
+    @Value("${app.cuentas.interes.particiones:4}")
+    private int particiones;
+
+    @Value("${app.cuentas.interes.tamanio-bloque:2000}")
+    private int tamanioBloque;
+
+    // Días hacia atrás que recupera el proceso programado; los anteriores a la ventana no se devengan
+    @Value("${app.cuentas.interes.recuperacion-max-dias:31}")
+    private int recuperacionMaxDias;
+
+    private final ReentrantLock ejecucion = new ReentrantLock();
+    private final AtomicLong ultimoRitmo = new AtomicLong();
+
+    private TransactionTemplate transactionTemplate;
+    private Timer duracion;
+    private Counter devengadas;
+    private Counter abonadas;
+    private Counter sinTasa;
+
+    @PostConstruct
+    void inicializar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        duracion = Timer.builder("cuentas.interes.devengo.duracion").register(meterRegistry);
+        devengadas = meterRegistry.counter("cuentas.interes.devengo.cuentas", "resultado", "devengada");
+        abonadas = meterRegistry.counter("cuentas.interes.devengo.cuentas", "resultado", "abonada");
+        sinTasa = meterRegistry.counter("cuentas.interes.devengo.cuentas", "resultado", "sin_tasa");
+        Gauge.builder("cuentas.interes.devengo.cuentas.por.segundo", ultimoRitmo, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    // Idempotente entre réplicas: solo toca filas con FechaUltimoDevengo NULL
+    @EventListener(ApplicationReadyEvent.class)
+    public void sembrarCuentasExistentes() {
+        try {
+            int sembradas = devengoRepo.sembrarUltimoDevengo(LocalDate.now().minusDays(1));
+            if (sembradas > 0) {
+                log.info("interes.devengo cuentas sin devengo previo marcadas hasta ayer total={}", sembradas);
+            }
+        } catch (Exception e) {
+            log.warn("interes.devengo siembra de FechaUltimoDevengo fallida error={}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.cuentas.interes.cron:0 30 1 * * *}")
+    public void devengarDiaAnterior() {
+        try {
+            devengarPendientes(LocalDate.now().minusDays(1));
+        } catch (Exception e) {
+            log.error("interes.devengo fallido, se recupera en la próxima ejecución: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recupera las noches perdidas: devenga un día a la vez desde el primer día pendiente hasta la fecha dada.
+     * Se detiene en la primera fecha que falle para no devengar días posteriores antes que ella.
+     */
+    public List<ResumenDevengo> devengarPendientes(LocalDate hasta) {
+        LocalDate desde = devengoRepo.primerDiaPendiente();
+        if (desde == null || desde.isAfter(hasta)) {
+            return List.of();
+        }
+        LocalDate limite = hasta.minusDays(recuperacionMaxDias - 1L);
+        if (desde.isBefore(limite)) {
+            log.warn("interes.devengo pendiente desde {} supera {} días; se recupera desde {} y los días "
+                    + "anteriores quedan sin devengar", desde, recuperacionMaxDias, limite);
+            desde = limite;
+        }
+        List<ResumenDevengo> resumenes = new ArrayList<>();
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            resumenes.add(devengar(fecha));
+        }
+        return resumenes;
+    }
+
+    /** Las fechas deben procesarse en orden: una fecha anterior al último devengo de la cuenta se omite. */
+    public ResumenDevengo devengar(LocalDate fecha) {
+        if (!ejecucion.tryLock()) {
+            throw new ConflictoConcurrenciaException("Ya hay un devengo de intereses en curso");
+        }
+        try {
+            long inicio = System.nanoTime();
+            // El índice se recarga para no depender del refresco periódico si otra instancia cambió las tasas
+            indiceTasas.recargar();
+            Map<Integer, TasaDiaria> tasas = tasasVigentes(fecha);
+            long[] rango = devengoRepo.rangoCuentasActivas();
+
+            Totales totales = new Totales();
+            if (rango != null) {
+                List<long[]> tramos = particionar(rango[0] - 1, rango[1], particiones);
+                List<Future<Totales>> resultados = new ArrayList<>(tramos.size());
+                try (ExecutorService executor = Executors.newFixedThreadPool(tramos.size())) {
+                    for (long[] tramo : tramos) {
+                        resultados.add(executor.submit(() -> procesarTramo(tramo[0], tramo[1], fecha, tasas)));
+                    }
+                    for (Future<Totales> resultado : resultados) {
+                        totales.sumar(resultado.get());
+                    }
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Devengo del " + fecha + " incompleto: " + e.getCause().getMessage(),
+                            e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Devengo del " + fecha + " interrumpido", e);
+                }
+            }
+
+            long nanos = System.nanoTime() - inicio;
+            duracion.record(nanos, TimeUnit.NANOSECONDS);
+            devengadas.increment(totales.cuentas);
+            abonadas.increment(totales.abonadas);
+            sinTasa.increment(totales.sinTasa);
+            long ritmo = totales.cuentas * 1_000_000_000L / Math.max(nanos, 1);
+            ultimoRitmo.set(ritmo);
+
+            log.info("interes.devengo fecha={} cuentas={} abonadas={} sinTasa={} devengado={} abonado={} "
+                    + "duracionMs={} cuentasPorSegundo={}", fecha, totales.cuentas, totales.abonadas,
+                    totales.sinTasa, totales.devengado, totales.abonado, nanos / 1_000_000, ritmo);
+            return new ResumenDevengo(fecha, totales.cuentas, totales.abonadas, totales.sinTasa, totales.devengado,
+                    totales.abonado, nanos / 1_000_000, ritmo);
+        } finally {
+            ejecucion.unlock();
+        }
+    }
+
+    private Totales procesarTramo(long desdeId, long hastaId, LocalDate fecha, Map<Integer, TasaDiaria> tasas) {
+        Totales totales = new Totales();
+        long ultimoId = desdeId;
+        List<Pendiente> bloque;
+        do {
+            bloque = devengoRepo.findPendientes(ultimoId, hastaId, fecha, tamanioBloque);
+            if (bloque.isEmpty()) {
+                break;
+            }
+            List<Devengo> devengos = new ArrayList<>(bloque.size());
+            List<Integer> omitidas = new ArrayList<>();
+            for (Pendiente p : bloque) {
+                TasaDiaria tasa = tasas.get(p.getIdTipoCuenta());
+                if (tasa == null) {
+                    // Se marca la fecha igualmente: si no, la cuenta fijaría el primer día pendiente para siempre
+                    omitidas.add(p.getIdCuenta());
+                    continue;
+                }
+                BigDecimal interesDia = p.getSaldoActual().max(BigDecimal.ZERO).multiply(tasa.getFactorDiario())
+                        .setScale(ESCALA_INTERES, RoundingMode.HALF_EVEN);
+                BigDecimal acumulado = p.getInteresAcumulado().add(interesDia);
+                // Solo centavos completos; la fracción sigue acumulando para el próximo periodo
+                BigDecimal abono = tasa.isAbonar() ? acumulado.setScale(2, RoundingMode.DOWN) : BigDecimal.ZERO;
+                devengos.add(new Devengo(p.getIdCuenta(), acumulado.subtract(abono), abono));
+
+                totales.devengado = totales.devengado.add(interesDia);
+                if (abono.signum() > 0) {
+                    totales.abonadas++;
+                    totales.abonado = totales.abonado.add(abono);
+                }
+            }
+            if (!devengos.isEmpty()) {
+                Integer filas = transactionTemplate
+                        .execute(status -> devengoRepo.registrar(devengos, fecha, LocalDateTime.now()));
+                totales.cuentas += filas != null ? filas : 0;
+            }
+            if (!omitidas.isEmpty()) {
+                Integer filas = transactionTemplate.execute(status -> devengoRepo.omitir(omitidas, fecha));
+                totales.sinTasa += filas != null ? filas : 0;
+            }
+            ultimoId = bloque.get(bloque.size() - 1).getIdCuenta();
+        } while (bloque.size() == tamanioBloque);
+        return totales;
+    }
+
+    private Map<Integer, TasaDiaria> tasasVigentes(LocalDate fecha) {
+        Map<Integer, TasaDiaria> tasas = new HashMap<>();
+        for (TipoCuentaAhorro tipo : tipoRepo.findAll()) {
+            indiceTasas.buscar(tipo.getIdTipoCuenta(), fecha).ifPresent(vigente -> tasas.put(tipo.getIdTipoCuenta(),
+                    new TasaDiaria(factorDiario(vigente.getTasaInteresAnual(), fecha),
+                            esCierreDePeriodo(tipo.getAmortizacion(), fecha))));
+        }
+        return tasas;
+    }
+
+    // Base actual/actual: tasa anual en porcentaje / 100 / días del año
+    static BigDecimal factorDiario(BigDecimal tasaAnual, LocalDate fecha) {
+        return tasaAnual.divide(CIEN.multiply(BigDecimal.valueOf(fecha.lengthOfYear())), MathContext.DECIMAL128);
+    }
+
+    static boolean esCierreDePeriodo(String amortizacion, LocalDate fecha) {
+        boolean finDeMes = fecha.getDayOfMonth() == fecha.lengthOfMonth();
+        String periodo = amortizacion != null ? amortizacion.trim().toUpperCase(Locale.ROOT) : "";
+        return switch (periodo) {
+            case "DIARIA" -> true;
+            case "TRIMESTRAL" -> finDeMes && fecha.getMonthValue() % 3 == 0;
+            case "SEMESTRAL" -> finDeMes && fecha.getMonthValue() % 6 == 0;
+            case "ANUAL" -> finDeMes && fecha.getMonthValue() == 12;
+            // MENSUAL y valores no reconocidos
+            default -> finDeMes;
+        };
+    }
+
+    /** Divide (desdeId, hastaId] en n tramos contiguos. */
+    static List<long[]> particionar(long desdeId, long hastaId, int n) {
+        long tamanio = Math.max(1, (hastaId - desdeId + Math.max(1, n) - 1) / Math.max(1, n));
+        List<long[]> tramos = new ArrayList<>();
+        for (long desde = desdeId; desde < hastaId; desde += tamanio) {
+            tramos.add(new long[] { desde, Math.min(desde + tamanio, hastaId) });
+        }
+        return tramos;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class TasaDiaria {
+        private final BigDecimal factorDiario;
+        // La fecha cierra el periodo de amortización del tipo
+        private final boolean abonar;
+    }
+
+    private static class Totales {
+        private long cuentas;
+        private long abonadas;
+        private long sinTasa;
+        private BigDecimal devengado = BigDecimal.ZERO;
+        private BigDecimal abonado = BigDecimal.ZERO;
+
+        void sumar(Totales otro) {
+            cuentas += otro.cuentas;
+            abonadas += otro.abonadas;
+            sinTasa += otro.sinTasa;
+            devengado = devengado.add(otro.devengado);
+            abonado = abonado.add(otro.abonado);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ResumenDevengo {
+        private final LocalDate fecha;
+        private final long cuentas;
+        private final long abonadas;
+        private final long sinTasa;
+        private final BigDecimal interesDevengado;
+        private final BigDecimal interesAbonado;
+        private final long duracionMs;
+        private final long cuentasPorSegundo;
+    }
+}
@@ -0,0 +1,122 @@
+package com.arcbank.cuenta.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.arcbank.cuenta.dto.TasaInteresHistorialDTO;
+import com.arcbank.cuenta.repository.TasaInteresHistorialRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tasa vigente por tipo de cuenta y fecha, en memoria. Por tipo se guardan tramos sin solapamiento
+ * (inicio del tramo → tasa, o null en los huecos) en un TreeMap, así la consulta es un floorEntry.
+ * Si dos periodos se solapan prevalece el que empezó más tarde.
+ * Se recarga tras crear o eliminar tasas en esta instancia y periódicamente para las demás.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceTasasVigentes {
+
+    private final TasaInteresHistorialRepository tasaRepo;
+
+    // null hasta la primera carga
+    private volatile Map<Integer, NavigableMap<LocalDate, TasaInteresHistorialDTO>> tramosPorTipo;
+
+    public Optional<TasaInteresHistorialDTO> buscar(Integer idTipoCuenta, LocalDate fecha) {
+        Map<Integer, NavigableMap<LocalDate, TasaInteresHistorialDTO>> actual = tramosPorTipo;
+        if (actual == null) {
+            actual = cargar();
+        }
+        NavigableMap<LocalDate, TasaInteresHistorialDTO> tramos = actual.get(idTipoCuenta);
+        if (tramos == null) {
+            return Optional.empty();
+        }
+        Map.Entry<LocalDate, TasaInteresHistorialDTO> tramo = tramos.floorEntry(fecha);
+        return tramo != null ? Optional.ofNullable(tramo.getValue()) : Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cuentas.tasas.refresco-ms:300000}")
+    public void recargar() {
+        cargar();
+    }
+
+    private synchronized Map<Integer, NavigableMap<LocalDate, TasaInteresHistorialDTO>> cargar() {
+        Map<Integer, List<TasaInteresHistorialDTO>> porTipo = new HashMap<>();
+        for (TasaInteresHistorialDTO t : tasaRepo.findAllResumen()) {
+            porTipo.computeIfAbsent(t.getIdTipoCuenta(), k -> new ArrayList<>()).add(t);
+        }
+        Map<Integer, NavigableMap<LocalDate, TasaInteresHistorialDTO>> nuevo = new HashMap<>();
+        porTipo.forEach((idTipo, tasas) -> nuevo.put(idTipo, construirTramos(tasas)));
+        tramosPorTipo = nuevo;
+        log.debug("tasas.indice recargado tipos={}", nuevo.size());
+        return nuevo;
+    }
+
+    /** Recarga tras el commit de la transacción en curso para no indexar cambios que luego se revierten. */
+    public void recargarTrasCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recargar();
+                }
+            });
+        } else {
+            recargar();
+        }
+    }
+
+    // Un tramo empieza en cada inicio y en el día siguiente a cada fin; n es pequeño por tipo
+    static NavigableMap<LocalDate, TasaInteresHistorialDTO> construirTramos(List<TasaInteresHistorialDTO> tasas) {
+        TreeSet<LocalDate> limites = new TreeSet<>();
+        for (TasaInteresHistorialDTO t : tasas) {
+            limites.add(t.getFechaInicio());
+            if (t.getFechaFin() != null) {
+                limites.add(t.getFechaFin().plusDays(1));
+            }
+        }
+        NavigableMap<LocalDate, TasaInteresHistorialDTO> tramos = new TreeMap<>();
+        TasaInteresHistorialDTO previa = null;
+        for (LocalDate limite : limites) {
+            TasaInteresHistorialDTO vigente = null;
+            for (TasaInteresHistorialDTO t : tasas) {
+                boolean cubre = !t.getFechaInicio().isAfter(limite)
+                        && (t.getFechaFin() == null || !t.getFechaFin().isBefore(limite));
+                if (cubre && (vigente == null || t.getFechaInicio().isAfter(vigente.getFechaInicio()))) {
+                    vigente = t;
+                }
+            }
+            // Solo se fusionan tramos contiguos del mismo registro: la consulta devuelve el registro que cubre
+            // la fecha, con su propio id y periodo, aunque el anterior tenga la misma tasa
+            if (tramos.isEmpty() || !mismoRegistro(vigente, previa)) {
+                tramos.put(limite, vigente);
+                previa = vigente;
+            }
+        }
+        return tramos;
+    }
+
+    // Sin tasa (hueco) solo equivale a otro hueco
+    private static boolean mismoRegistro(TasaInteresHistorialDTO a, TasaInteresHistorialDTO b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return Objects.equals(a.getIdTasaHistorial(), b.getIdTasaHistorial());
+    }
+}
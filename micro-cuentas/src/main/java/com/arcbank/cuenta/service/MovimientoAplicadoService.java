@@ -0,0 +1,124 @@
+package com.arcbank.cuenta.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.arcbank.cuenta.dto.MovimientoAplicadoDTO;
+import com.arcbank.cuenta.dto.MovimientoDTO;
+import com.arcbank.cuenta.exception.ConflictoConcurrenciaException;
+import com.arcbank.cuenta.exception.SaldoInsuficienteException;
+import com.arcbank.cuenta.model.MovimientoAplicado;
+import com.arcbank.cuenta.repository.CuentaAhorroRepository;
+import com.arcbank.cuenta.repository.MovimientoAplicadoRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Movimientos con referencia: cada referencia mueve el saldo una sola vez. Un reintento del llamador
+ * devuelve el saldo registrado originalmente, de modo que un timeout tras el commit no produce doble abono.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MovimientoAplicadoService {
+
+    private final MovimientoAplicadoRepository movimientoRepo;
+    private final CuentaAhorroRepository cuentaRepo;
+    private final CuentaAhorroService cuentaService;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Aplica en una sola actualización los movimientos aún no registrados y devuelve, en el orden recibido,
+     * el saldo resultante de cada referencia.
+     */
+    @Transactional
+    public List<MovimientoAplicadoDTO> aplicar(Integer idCuenta, List<MovimientoDTO> movimientos) {
+        Map<String, MovimientoAplicado> registrados = new HashMap<>();
+        movimientoRepo.findByReferenciaIn(movimientos.stream().map(MovimientoDTO::getReferencia).toList())
+                .forEach(m -> registrados.put(m.getReferencia(), m));
+
+        Set<String> previas = new HashSet<>(registrados.keySet());
+        List<MovimientoDTO> nuevos = new ArrayList<>();
+        Map<String, BigDecimal> montoPorReferencia = new HashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (MovimientoDTO m : movimientos) {
+            MovimientoAplicado previo = registrados.get(m.getReferencia());
+            BigDecimal monto = previo != null ? previo.getMonto() : montoPorReferencia.get(m.getReferencia());
+            if (previo != null && !previo.getIdCuenta().equals(idCuenta)
+                    || monto != null && monto.compareTo(m.getMonto()) != 0) {
+                throw new ConflictoConcurrenciaException(
+                        "La referencia " + m.getReferencia() + " ya se aplicó con otra cuenta o monto");
+            }
+            if (monto == null) {
+                montoPorReferencia.put(m.getReferencia(), m.getMonto());
+                nuevos.add(m);
+                total = total.add(m.getMonto());
+            }
+        }
+
+        if (!nuevos.isEmpty()) {
+            LocalDateTime ahora = LocalDateTime.now();
+            if (cuentaRepo.aplicarMovimiento(idCuenta, total, ahora) == 0) {
+                if (!cuentaRepo.existsById(idCuenta)) {
+                    throw new EntityNotFoundException("Cuenta no encontrada ID: " + idCuenta);
+                }
+                throw new SaldoInsuficienteException("Fondos insuficientes en la cuenta ID: " + idCuenta);
+            }
+            cuentaService.invalidarTrasCommit(idCuenta);
+
+            // La fila queda bloqueada por el UPDATE hasta el commit: se reconstruye el saldo tras cada movimiento
+            BigDecimal saldo = cuentaRepo.findSaldoDisponibleById(idCuenta)
+                    .orElseThrow(() -> new EntityNotFoundException("Cuenta no encontrada ID: " + idCuenta))
+                    .subtract(total);
+            List<MovimientoAplicado> filas = new ArrayList<>(nuevos.size());
+            for (MovimientoDTO m : nuevos) {
+                saldo = saldo.add(m.getMonto());
+                MovimientoAplicado fila = new MovimientoAplicado();
+                fila.setIdCuenta(idCuenta);
+                fila.setReferencia(m.getReferencia());
+                fila.setMonto(m.getMonto());
+                fila.setSaldoResultante(saldo);
+                fila.setFechaCreacion(ahora);
+                filas.add(fila);
+                registrados.put(m.getReferencia(), fila);
+            }
+            try {
+                // Una llamada concurrente con la misma referencia ya movió el saldo: esta se deshace completa
+                movimientoRepo.saveAllAndFlush(filas);
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictoConcurrenciaException("Movimiento en curso con alguna de las referencias del lote");
+            }
+            meterRegistry.counter("cuentas.movimientos.referenciados", "resultado", "aplicado").increment(nuevos.size());
+        }
+
+        int repetidos = movimientos.size() - nuevos.size();
+        if (repetidos > 0) {
+            meterRegistry.counter("cuentas.movimientos.referenciados", "resultado", "repetido").increment(repetidos);
+        }
+        log.info("Movimientos referenciados cuenta={} aplicados={} repetidos={} total={}",
+                idCuenta, nuevos.size(), repetidos, total);
+
+        List<MovimientoAplicadoDTO> respuesta = new ArrayList<>(movimientos.size());
+        Set<String> emitidas = new HashSet<>();
+        for (MovimientoDTO m : movimientos) {
+            MovimientoAplicado fila = registrados.get(m.getReferencia());
+            boolean repetido = previas.contains(m.getReferencia()) || !emitidas.add(m.getReferencia());
+            respuesta.add(new MovimientoAplicadoDTO(fila.getReferencia(), fila.getMonto(),
+                    fila.getSaldoResultante(), repetido));
+        }
+        return respuesta;
+    }
+}
@@ -0,0 +1,126 @@
+package com.arcbank.cuenta.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.arcbank.cuenta.dto.RetencionActivaDTO;
+import com.arcbank.cuenta.dto.RetencionDTO;
+import com.arcbank.cuenta.exception.ConflictoConcurrenciaException;
+import com.arcbank.cuenta.exception.SaldoInsuficienteException;
+import com.arcbank.cuenta.model.RetencionSaldo;
+import com.arcbank.cuenta.repository.CuentaAhorroRepository;
+import com.arcbank.cuenta.repository.RetencionSaldoRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retenciones de saldo por referencia: retener reduce el disponible, capturar lo aplica al saldo contable
+ * y liberar lo devuelve. Las tres operaciones son idempotentes para que el llamador pueda reintentar.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetencionSaldoService {
+
+    private final RetencionSaldoRepository retencionRepo;
+    private final CuentaAhorroRepository cuentaRepo;
+    private final CuentaAhorroService cuentaService;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional
+    public RetencionDTO retener(Integer idCuenta, String referencia, BigDecimal monto) {
+        RetencionSaldo existente = retencionRepo.findByReferencia(referencia).orElse(null);
+        if (existente != null) {
+            if (!existente.getIdCuenta().equals(idCuenta) || existente.getMonto().compareTo(monto) != 0) {
+                throw new ConflictoConcurrenciaException(
+                        "La referencia " + referencia + " ya tiene una retención con otra cuenta o monto");
+            }
+            return toDTO(existente);
+        }
+
+        RetencionSaldo r = new RetencionSaldo();
+        r.setIdCuenta(idCuenta);
+        r.setReferencia(referencia);
+        r.setMonto(monto);
+        r.setEstado(RetencionSaldo.ACTIVA);
+        r.setFechaCreacion(LocalDateTime.now());
+        try {
+            // Primero la fila: una retención concurrente con la misma referencia falla antes de tocar el saldo
+            r = retencionRepo.saveAndFlush(r);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictoConcurrenciaException("Retención en curso para la referencia " + referencia);
+        }
+
+        if (cuentaRepo.retenerSaldo(idCuenta, monto) == 0) {
+            if (!cuentaRepo.existsById(idCuenta)) {
+                throw new EntityNotFoundException("Cuenta no encontrada ID: " + idCuenta);
+            }
+            throw new SaldoInsuficienteException("Fondos insuficientes en la cuenta ID: " + idCuenta);
+        }
+        cuentaService.invalidarTrasCommit(idCuenta);
+        meterRegistry.counter("cuentas.retenciones", "operacion", "retener").increment();
+        log.info("Retención creada ref={} cuenta={} monto={}", referencia, idCuenta, monto);
+        return toDTO(r);
+    }
+
+    @Transactional
+    public RetencionDTO capturar(String referencia) {
+        return resolver(referencia, RetencionSaldo.CAPTURADA);
+    }
+
+    @Transactional
+    public RetencionDTO liberar(String referencia) {
+        return resolver(referencia, RetencionSaldo.LIBERADA);
+    }
+
+    // Sin cursor se empieza por la retención más antigua
+    public List<RetencionActivaDTO> findActivasAnteriores(LocalDateTime limite, LocalDateTime desdeFecha,
+            Integer desdeId, int tamanio) {
+        return retencionRepo.findActivasAnteriores(limite,
+                desdeFecha != null ? desdeFecha : LocalDateTime.of(1970, 1, 1, 0, 0),
+                desdeId != null ? desdeId : 0, PageRequest.of(0, tamanio));
+    }
+
+    private RetencionDTO resolver(String referencia, String destino) {
+        RetencionSaldo r = retencionRepo.findByReferencia(referencia)
+                .orElseThrow(() -> new EntityNotFoundException("Retención no encontrada: " + referencia));
+
+        if (retencionRepo.resolver(referencia, destino, LocalDateTime.now()) == 0) {
+            // Ya resuelta (reintento del llamador o resolución concurrente)
+            RetencionSaldo actual = retencionRepo.findByReferencia(referencia).orElse(r);
+            if (!destino.equals(actual.getEstado())) {
+                throw new ConflictoConcurrenciaException(
+                        "La retención " + referencia + " ya está en estado " + actual.getEstado());
+            }
+            return toDTO(actual);
+        }
+
+        if (RetencionSaldo.CAPTURADA.equals(destino)) {
+            cuentaRepo.capturarRetencion(r.getIdCuenta(), r.getMonto(), LocalDateTime.now());
+        } else {
+            cuentaRepo.liberarRetencion(r.getIdCuenta(), r.getMonto());
+        }
+        cuentaService.invalidarTrasCommit(r.getIdCuenta());
+        meterRegistry.counter("cuentas.retenciones", "operacion",
+                RetencionSaldo.CAPTURADA.equals(destino) ? "capturar" : "liberar").increment();
+        log.info("Retención {} ref={} cuenta={} monto={}", destino, referencia, r.getIdCuenta(), r.getMonto());
+
+        r.setEstado(destino);
+        return toDTO(r);
+    }
+
+    private RetencionDTO toDTO(RetencionSaldo r) {
+        BigDecimal disponible = cuentaRepo.findSaldoDisponibleById(r.getIdCuenta()).orElse(null);
+        return new RetencionDTO(r.getIdRetencion(), r.getIdCuenta(), r.getReferencia(), r.getMonto(),
+                r.getEstado(), disponible);
+    }
+}
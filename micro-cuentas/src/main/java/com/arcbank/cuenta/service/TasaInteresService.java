@@ -1,5 +1,6 @@
 package com.arcbank.cuenta.service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +25,7 @@ public class TasaInteresService {
 
     private final TasaInteresHistorialRepository tasaRepo;
     private final TipoCuentaAhorroRepository tipoRepo;
+    private final IndiceTasasVigentes indiceTasas;
 
     @Transactional
     public TasaInteresHistorialDTO create(TasaInteresHistorialRequest request) {
@@ -36,8 +38,10 @@ public class TasaInteresService {
         t.setFechaInicio(request.getFechaInicio());
         t.setFechaFin(request.getFechaFin());
 
+        TasaInteresHistorialDTO creada = toDTO(tasaRepo.save(t));
+        indiceTasas.recargarTrasCommit();
         log.info("Tasa de interés creada para tipo: {}", tipo.getNombre());
-        return toDTO(tasaRepo.save(t));
+        return creada;
     }
 
     public TasaInteresHistorialDTO findById(Integer id) {
@@ -52,12 +56,19 @@ public class TasaInteresService {
                 .collect(Collectors.toList());
     }
 
+    public TasaInteresHistorialDTO findVigente(Integer idTipoCuenta, LocalDate fecha) {
+        return indiceTasas.buscar(idTipoCuenta, fecha)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "No hay tasa vigente para el tipo " + idTipoCuenta + " en la fecha " + fecha));
+    }
+
     @Transactional
     public void delete(Integer id) {
         if (!tasaRepo.existsById(id)) {
             throw new EntityNotFoundException("Tasa de interés no encontrada: " + id);
         }
         tasaRepo.deleteById(id);
+        indiceTasas.recargarTrasCommit();
         log.info("Tasa de interés eliminada: {}", id);
     }
 
@@ -0,0 +1,98 @@
+package com.arcbank.cuenta.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.arcbank.cuenta.model.CuentaAhorro;
+import com.arcbank.cuenta.model.TipoCuentaAhorro;
+import com.arcbank.cuenta.support.DatosPrueba;
+
+/**
+ * Las consultas de lectura deben resolverse con una única sentencia SQL, sin N+1 sobre tipoCuenta.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CuentaAhorroRepositoryTest {
+
+    private static final int CUENTAS = 5;
+
+    @Autowired
+    private CuentaAhorroRepository cuentaRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Statistics estadisticas;
+    private Integer primerId;
+
+    @BeforeEach
+    void setUp() {
+        TipoCuentaAhorro tipo = em.persist(DatosPrueba.tipoAhorro());
+
+        for (int i = 0; i < CUENTAS; i++) {
+            CuentaAhorro c = DatosPrueba.cuentaActiva("10000000000" + i, tipo, new BigDecimal("250.00"));
+            c.setIdCliente(100 + i);
+            em.persist(c);
+            if (primerId == null) {
+                primerId = c.getIdCuenta();
+            }
+        }
+        em.flush();
+        em.clear();
+
+        estadisticas = em.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void vistaPorIdUsaUnaSentencia() {
+        CuentaAhorroVista vista = cuentaRepo.findVistaById(primerId).orElseThrow();
+
+        assertEquals(new BigDecimal("250.00"), vista.getSaldoDisponible());
+        assertTrue(vista.getIdTipoCuenta() != null);
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void listadoCompletoUsaUnaSentencia() {
+        List<CuentaAhorroVista> vistas = cuentaRepo.findAllVistas();
+
+        assertEquals(CUENTAS, vistas.size());
+        vistas.forEach(v -> assertTrue(v.getIdTipoCuenta() != null));
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void busquedaPorNumerosUsaUnaSentencia() {
+        List<CuentaAhorroVista> vistas = cuentaRepo.findVistasByNumeroCuentaIn(
+                List.of("100000000000", "100000000003", "999"));
+
+        assertEquals(2, vistas.size());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void saldoYResumenUsanUnaSentenciaCadaUno() {
+        assertEquals(new BigDecimal("250.00"), cuentaRepo.findSaldoDisponibleById(primerId).orElseThrow());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+
+        assertEquals(CUENTAS, cuentaRepo.findResumenDesde(0, PageRequest.of(0, 100)).size());
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,163 @@
+package com.arcbank.cuenta.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.arcbank.cuenta.dto.CuentaAhorroDTO;
+import com.arcbank.cuenta.dto.SaldoDTO;
+import com.arcbank.cuenta.exception.ConflictoConcurrenciaException;
+import com.arcbank.cuenta.model.CuentaAhorro;
+import com.arcbank.cuenta.model.TipoCuentaAhorro;
+import com.arcbank.cuenta.repository.CuentaAhorroRepository;
+import com.arcbank.cuenta.repository.TipoCuentaAhorroRepository;
+import com.arcbank.cuenta.support.DatosPrueba;
+import com.arcbank.cuenta.support.MetricasPrueba;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Escritores concurrentes sobre una sola cuenta: ninguna actualización se pierde y la versión
+ * avanza una vez por escritura confirmada.
+ */
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "app.cuentas.lectura.ttl-ms=5"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ CuentaAhorroService.class, MetricasPrueba.class })
+class CuentaAhorroConcurrenciaTest {
+
+    private static final int HILOS = 8;
+    private static final int OPERACIONES_POR_HILO = 25;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000.00");
+
+    @Autowired
+    private CuentaAhorroService service;
+
+    @Autowired
+    private CuentaAhorroRepository cuentaRepo;
+
+    @Autowired
+    private TipoCuentaAhorroRepository tipoRepo;
+
+    private Integer idCuenta;
+    private long versionInicial;
+
+    @BeforeEach
+    void setUp() {
+        TipoCuentaAhorro tipo = tipoRepo.save(DatosPrueba.tipoAhorro());
+        CuentaAhorro c = cuentaRepo.save(DatosPrueba.cuentaActiva("100000000777", tipo, SALDO_INICIAL));
+        idCuenta = c.getIdCuenta();
+        versionInicial = c.getVersion();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cuentaRepo.deleteAll();
+        tipoRepo.deleteAll();
+    }
+
+    @Test
+    void escriturasCondicionalesYMovimientosNoPierdenActualizaciones() throws Exception {
+        AtomicInteger conflictos = new AtomicInteger();
+
+        long nanos = ejecutarConcurrente(hilo -> {
+            if (hilo % 2 == 0) {
+                service.aplicarMovimiento(idCuenta, BigDecimal.ONE);
+                return;
+            }
+            // Leer-modificar-escribir: ante 409 se relee y se vuelve a intentar
+            while (true) {
+                CuentaAhorroDTO actual = service.findById(idCuenta);
+                try {
+                    service.actualizarSaldo(idCuenta, actual.getSaldoDisponible().add(BigDecimal.ONE),
+                            actual.getVersion());
+                    return;
+                } catch (ConflictoConcurrenciaException e) {
+                    conflictos.incrementAndGet();
+                }
+            }
+        });
+
+        int total = HILOS * OPERACIONES_POR_HILO;
+        CuentaAhorro finalizada = cuentaRepo.findById(idCuenta).orElseThrow();
+        assertEquals(0, SALDO_INICIAL.add(BigDecimal.valueOf(total)).compareTo(finalizada.getSaldoDisponible()));
+        assertEquals(versionInicial + total, finalizada.getVersion());
+        log.info("saldo.estres condicional ops={} conflictos={} opsPorSegundo={}", total, conflictos.get(),
+                total * 1_000_000_000L / Math.max(nanos, 1));
+    }
+
+    @Test
+    void escriturasSinVersionEnConflictoSeRechazanSinPisarLaUltima() throws Exception {
+        Map<Long, BigDecimal> confirmadas = new ConcurrentHashMap<>();
+        AtomicInteger rechazadas = new AtomicInteger();
+
+        long nanos = ejecutarConcurrente(hilo -> {
+            try {
+                SaldoDTO escrito = service.actualizarSaldo(idCuenta, new BigDecimal(hilo), null);
+                confirmadas.put(escrito.getVersion(), escrito.getSaldo());
+            } catch (ConflictoConcurrenciaException e) {
+                rechazadas.incrementAndGet();
+            }
+        });
+
+        // Un conflicto no se reintenta con el saldo absoluto obsoleto: el saldo final es el de la última
+        // escritura confirmada y cada confirmada avanzó la versión exactamente una vez
+        int total = HILOS * OPERACIONES_POR_HILO;
+        CuentaAhorro finalizada = cuentaRepo.findById(idCuenta).orElseThrow();
+        assertEquals(total, confirmadas.size() + rechazadas.get());
+        assertEquals(versionInicial + confirmadas.size(), finalizada.getVersion());
+        assertEquals(0, confirmadas.get(finalizada.getVersion()).compareTo(finalizada.getSaldoDisponible()));
+        log.info("saldo.estres incondicional ops={} rechazadas={} opsPorSegundo={}", total, rechazadas.get(),
+                total * 1_000_000_000L / Math.max(nanos, 1));
+    }
+
+    private long ejecutarConcurrente(Operacion operacion) throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+        long inicio;
+        try (ExecutorService executor = Executors.newFixedThreadPool(HILOS)) {
+            for (int i = 0; i < HILOS; i++) {
+                int hilo = i;
+                resultados.add(executor.submit(() -> {
+                    salida.await();
+                    for (int n = 0; n < OPERACIONES_POR_HILO; n++) {
+                        operacion.ejecutar(hilo);
+                    }
+                    return null;
+                }));
+            }
+            inicio = System.nanoTime();
+            salida.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        }
+        return System.nanoTime() - inicio;
+    }
+
+    @FunctionalInterface
+    private interface Operacion {
+        void ejecutar(int hilo) throws Exception;
+    }
+}
@@ -0,0 +1,104 @@
+package com.arcbank.cuenta.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.arcbank.cuenta.repository.CuentaAhorroRepository;
+import com.arcbank.cuenta.repository.CuentaAhorroVista;
+import com.arcbank.cuenta.repository.TipoCuentaAhorroRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CuentaAhorroServiceTest {
+
+    private static final int ID = 7;
+
+    private CuentaAhorroRepository cuentaRepo;
+    private SimpleMeterRegistry meterRegistry;
+    private CuentaAhorroService service;
+
+    @BeforeEach
+    void setUp() {
+        cuentaRepo = mock(CuentaAhorroRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CuentaAhorroService(cuentaRepo, mock(TipoCuentaAhorroRepository.class), meterRegistry,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "lecturaTtlMs", 60_000L);
+        ReflectionTestUtils.setField(service, "lecturaMaxEntradas", 1_000L);
+        service.inicializar();
+
+        // Consulta lenta para que las lecturas concurrentes se solapen
+        CuentaAhorroVista vista = vista(new BigDecimal("150.00"));
+        when(cuentaRepo.findVistaById(ID)).thenAnswer(inv -> {
+            Thread.sleep(200);
+            return Optional.of(vista);
+        });
+    }
+
+    @Test
+    void lecturasConcurrentesCompartenUnaConsulta() throws Exception {
+        int lectores = 200;
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<BigDecimal>> resultados = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < lectores; i++) {
+                boolean porSaldo = i % 2 == 0;
+                resultados.add(executor.submit(() -> {
+                    salida.await();
+                    return porSaldo ? service.getSaldo(ID) : service.findById(ID).getSaldoDisponible();
+                }));
+            }
+            salida.countDown();
+            for (Future<BigDecimal> resultado : resultados) {
+                assertEquals(new BigDecimal("150.00"), resultado.get());
+            }
+        }
+
+        verify(cuentaRepo, times(1)).findVistaById(ID);
+        assertEquals(1.0, meterRegistry.counter("cuentas.lectura.bd").count());
+    }
+
+    @Test
+    void aplicarMovimientoInvalidaLaLectura() {
+        when(cuentaRepo.aplicarMovimiento(eq(ID), any(), any())).thenReturn(1);
+        when(cuentaRepo.findSaldoDisponibleById(ID)).thenReturn(Optional.of(new BigDecimal("200.00")));
+
+        service.getSaldo(ID);
+        service.aplicarMovimiento(ID, new BigDecimal("50.00"));
+        service.getSaldo(ID);
+
+        verify(cuentaRepo, times(2)).findVistaById(ID);
+        assertEquals(2.0, meterRegistry.counter("cuentas.lectura.bd").count());
+    }
+
+    private static CuentaAhorroVista vista(BigDecimal saldo) {
+        CuentaAhorroVista v = mock(CuentaAhorroVista.class);
+        when(v.getIdCuenta()).thenReturn(ID);
+        when(v.getNumeroCuenta()).thenReturn("100000000123");
+        when(v.getIdTipoCuenta()).thenReturn(1);
+        when(v.getSaldoActual()).thenReturn(saldo);
+        when(v.getSaldoDisponible()).thenReturn(saldo);
+        when(v.getEstado()).thenReturn("ACTIVA");
+        return v;
+    }
+}
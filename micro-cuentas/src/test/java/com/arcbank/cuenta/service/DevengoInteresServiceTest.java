@@ -0,0 +1,172 @@
+package com.arcbank.cuenta.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.arcbank.cuenta.model.CuentaAhorro;
+import com.arcbank.cuenta.model.TasaInteresHistorial;
+import com.arcbank.cuenta.model.TipoCuentaAhorro;
+import com.arcbank.cuenta.repository.CuentaAhorroRepository;
+import com.arcbank.cuenta.repository.DevengoInteresRepository;
+import com.arcbank.cuenta.repository.TasaInteresHistorialRepository;
+import com.arcbank.cuenta.repository.TipoCuentaAhorroRepository;
+import com.arcbank.cuenta.service.DevengoInteresService.ResumenDevengo;
+import com.arcbank.cuenta.support.DatosPrueba;
+import com.arcbank.cuenta.support.MetricasPrueba;
+
+/**
+ * 1000.00 al 3.65% anual (año de 365 días) devenga 0.10 diarios; el tipo MENSUAL abona al cierre de mes.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "app.cuentas.interes.particiones=3",
+        "app.cuentas.interes.tamanio-bloque=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ DevengoInteresService.class, DevengoInteresRepository.class, IndiceTasasVigentes.class,
+        MetricasPrueba.class })
+class DevengoInteresServiceTest {
+
+    private static final BigDecimal SALDO = new BigDecimal("1000.00");
+    private static final int CUENTAS = 5;
+
+    @Autowired
+    private DevengoInteresService service;
+
+    @Autowired
+    private CuentaAhorroRepository cuentaRepo;
+
+    @Autowired
+    private TipoCuentaAhorroRepository tipoRepo;
+
+    @Autowired
+    private TasaInteresHistorialRepository tasaRepo;
+
+    private Integer idInactiva;
+
+    @BeforeEach
+    void setUp() {
+        TipoCuentaAhorro tipo = tipoRepo.save(DatosPrueba.tipoAhorro());
+
+        TasaInteresHistorial anterior = new TasaInteresHistorial();
+        anterior.setTipoCuenta(tipo);
+        anterior.setTasaInteresAnual(new BigDecimal("1.00"));
+        anterior.setFechaInicio(LocalDate.of(2024, 1, 1));
+        anterior.setFechaFin(LocalDate.of(2024, 12, 31));
+        tasaRepo.save(anterior);
+
+        TasaInteresHistorial vigente = new TasaInteresHistorial();
+        vigente.setTipoCuenta(tipo);
+        vigente.setTasaInteresAnual(new BigDecimal("3.65"));
+        vigente.setFechaInicio(LocalDate.of(2025, 1, 1));
+        tasaRepo.save(vigente);
+
+        for (int i = 0; i <= CUENTAS; i++) {
+            CuentaAhorro c = DatosPrueba.cuentaActiva("10000000099" + i, tipo, SALDO);
+            c.setFechaApertura(LocalDate.of(2024, 6, 1));
+            c.setEstado(i < CUENTAS ? "ACTIVA" : "INACTIVA");
+            Integer id = cuentaRepo.save(c).getIdCuenta();
+            if (i == CUENTAS) {
+                idInactiva = id;
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        cuentaRepo.deleteAll();
+        tasaRepo.deleteAll();
+        tipoRepo.deleteAll();
+    }
+
+    @Test
+    void devengaDiarioYAbonaAlCierreDelPeriodo() {
+        ResumenDevengo dia30 = service.devengar(LocalDate.of(2025, 1, 30));
+        assertEquals(CUENTAS, dia30.getCuentas());
+        assertEquals(0, dia30.getAbonadas());
+        assertCuentas(SALDO, new BigDecimal("0.10"));
+
+        // Reejecutar la misma fecha no vuelve a devengar
+        assertEquals(0, service.devengar(LocalDate.of(2025, 1, 30)).getCuentas());
+        assertCuentas(SALDO, new BigDecimal("0.10"));
+
+        ResumenDevengo dia31 = service.devengar(LocalDate.of(2025, 1, 31));
+        assertEquals(CUENTAS, dia31.getAbonadas());
+        assertEquals(0, new BigDecimal("1.00").compareTo(dia31.getInteresAbonado()));
+        assertCuentas(new BigDecimal("1000.20"), BigDecimal.ZERO);
+
+        CuentaAhorro inactiva = cuentaRepo.findById(idInactiva).orElseThrow();
+        assertEquals(0, SALDO.compareTo(inactiva.getSaldoActual()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(inactiva.getInteresAcumulado()));
+    }
+
+    @Test
+    void recuperaLasNochesPerdidasDesdeElUltimoDevengoSinAntesDeLaApertura() {
+        service.devengar(LocalDate.of(2025, 1, 27));
+
+        CuentaAhorro nueva = DatosPrueba.cuentaActiva("100000000980", tipoRepo.findAll().get(0), SALDO);
+        nueva.setFechaApertura(LocalDate.of(2025, 1, 29));
+        Integer idNueva = cuentaRepo.save(nueva).getIdCuenta();
+
+        // El cron no corrió el 28 ni el 29: la ejecución del 31 recupera 28, 29 y 30 en orden
+        List<ResumenDevengo> resumenes = service.devengarPendientes(LocalDate.of(2025, 1, 30));
+
+        assertEquals(List.of(LocalDate.of(2025, 1, 28), LocalDate.of(2025, 1, 29), LocalDate.of(2025, 1, 30)),
+                resumenes.stream().map(ResumenDevengo::getFecha).toList());
+        cuentaRepo.findAll().stream()
+                .filter(c -> !c.getIdCuenta().equals(idInactiva) && !c.getIdCuenta().equals(idNueva))
+                .forEach(c -> assertEquals(0, new BigDecimal("0.40").compareTo(c.getInteresAcumulado())));
+        // Abierta el 29: devenga el 29 y el 30, no los días anteriores
+        CuentaAhorro abierta = cuentaRepo.findById(idNueva).orElseThrow();
+        assertEquals(0, new BigDecimal("0.20").compareTo(abierta.getInteresAcumulado()));
+        assertEquals(LocalDate.of(2025, 1, 30), abierta.getFechaUltimoDevengo());
+
+        assertEquals(List.of(), service.devengarPendientes(LocalDate.of(2025, 1, 30)));
+    }
+
+    @Test
+    void tipoSinTasaAvanzaSuFechaYNoRetrasaElPrimerDiaPendiente() {
+        TipoCuentaAhorro sinTasa = DatosPrueba.tipoAhorro();
+        sinTasa.setNombre("SIN_TASA_TEST");
+        CuentaAhorro cuenta = DatosPrueba.cuentaActiva("100000000970", tipoRepo.save(sinTasa), SALDO);
+        cuenta.setFechaApertura(LocalDate.of(2024, 6, 1));
+        Integer idSinTasa = cuentaRepo.save(cuenta).getIdCuenta();
+
+        ResumenDevengo resumen = service.devengar(LocalDate.of(2025, 1, 30));
+
+        assertEquals(1, resumen.getSinTasa());
+        assertEquals(LocalDate.of(2025, 1, 30), cuentaRepo.findById(idSinTasa).orElseThrow().getFechaUltimoDevengo());
+        assertEquals(List.of(), service.devengarPendientes(LocalDate.of(2025, 1, 30)));
+    }
+
+    @Test
+    void cuentasSinDevengoPrevioSeSiembranSinRecuperarDiasPasados() {
+        LocalDate ayer = LocalDate.now().minusDays(1);
+
+        service.sembrarCuentasExistentes();
+
+        cuentaRepo.findAll().forEach(c -> assertEquals(ayer, c.getFechaUltimoDevengo()));
+        assertEquals(List.of(), service.devengarPendientes(ayer));
+        assertCuentas(SALDO, BigDecimal.ZERO);
+    }
+
+    private void assertCuentas(BigDecimal saldo, BigDecimal acumulado) {
+        cuentaRepo.findAll().stream().filter(c -> !c.getIdCuenta().equals(idInactiva)).forEach(c -> {
+            assertEquals(0, saldo.compareTo(c.getSaldoActual()));
+            assertEquals(0, saldo.compareTo(c.getSaldoDisponible()));
+            assertEquals(0, acumulado.compareTo(c.getInteresAcumulado()));
+        });
+    }
+}
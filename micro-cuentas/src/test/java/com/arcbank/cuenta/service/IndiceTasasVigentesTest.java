@@ -0,0 +1,67 @@
+package com.arcbank.cuenta.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.arcbank.cuenta.dto.TasaInteresHistorialDTO;
+
+class IndiceTasasVigentesTest {
+
+    @Test
+    void prevaleceElPeriodoMasRecienteYLosHuecosNoTienenTasa() {
+        TasaInteresHistorialDTO base = tasa(1, "2.00", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+        TasaInteresHistorialDTO promo = tasa(2, "4.00", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30));
+        TasaInteresHistorialDTO nueva = tasa(3, "3.00", LocalDate.of(2025, 3, 1), null);
+
+        NavigableMap<LocalDate, TasaInteresHistorialDTO> tramos = IndiceTasasVigentes
+                .construirTramos(List.of(nueva, promo, base));
+
+        assertNull(tramos.floorEntry(LocalDate.of(2023, 12, 31)));
+        assertEquals(base, tramos.floorEntry(LocalDate.of(2024, 5, 31)).getValue());
+        assertEquals(promo, tramos.floorEntry(LocalDate.of(2024, 6, 15)).getValue());
+        assertEquals(base, tramos.floorEntry(LocalDate.of(2024, 7, 1)).getValue());
+        assertNull(tramos.floorEntry(LocalDate.of(2025, 1, 15)).getValue());
+        assertEquals(nueva, tramos.floorEntry(LocalDate.of(2030, 1, 1)).getValue());
+    }
+
+    @Test
+    void cadaTramoDevuelveElRegistroQueLoCubreAunqueRepitaLaTasa() {
+        TasaInteresHistorialDTO primera = tasa(1, "2.5", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31));
+        TasaInteresHistorialDTO renovada = tasa(2, "2.50", LocalDate.of(2024, 4, 1), LocalDate.of(2024, 6, 30));
+        TasaInteresHistorialDTO subida = tasa(3, "3.00", LocalDate.of(2024, 7, 1), null);
+
+        NavigableMap<LocalDate, TasaInteresHistorialDTO> tramos = IndiceTasasVigentes
+                .construirTramos(List.of(primera, renovada, subida));
+
+        TasaInteresHistorialDTO mayo = tramos.floorEntry(LocalDate.of(2024, 5, 15)).getValue();
+        assertEquals(2, mayo.getIdTasaHistorial());
+        assertEquals(LocalDate.of(2024, 4, 1), mayo.getFechaInicio());
+        assertEquals(LocalDate.of(2024, 6, 30), mayo.getFechaFin());
+        assertEquals(primera, tramos.floorEntry(LocalDate.of(2024, 3, 31)).getValue());
+        assertEquals(subida, tramos.floorEntry(LocalDate.of(2024, 7, 1)).getValue());
+    }
+
+    @Test
+    void limitesInternosDeUnMismoRegistroNoPartenSuTramo() {
+        TasaInteresHistorialDTO base = tasa(1, "2.00", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+        TasaInteresHistorialDTO nueva = tasa(2, "3.00", LocalDate.of(2024, 3, 1), null);
+
+        NavigableMap<LocalDate, TasaInteresHistorialDTO> tramos = IndiceTasasVigentes
+                .construirTramos(List.of(base, nueva));
+
+        // El fin de base (2025-01-01) cae dentro de nueva y no abre otro tramo
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1)), List.copyOf(tramos.keySet()));
+        assertEquals(nueva, tramos.floorEntry(LocalDate.of(2025, 6, 1)).getValue());
+    }
+
+    private static TasaInteresHistorialDTO tasa(int id, String anual, LocalDate inicio, LocalDate fin) {
+        return new TasaInteresHistorialDTO(id, 1, new BigDecimal(anual), inicio, fin);
+    }
+}
@@ -0,0 +1,93 @@
+package com.arcbank.cuenta.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.arcbank.cuenta.dto.MovimientoAplicadoDTO;
+import com.arcbank.cuenta.dto.MovimientoDTO;
+import com.arcbank.cuenta.exception.ConflictoConcurrenciaException;
+import com.arcbank.cuenta.model.CuentaAhorro;
+import com.arcbank.cuenta.model.TipoCuentaAhorro;
+import com.arcbank.cuenta.repository.CuentaAhorroRepository;
+import com.arcbank.cuenta.repository.TipoCuentaAhorroRepository;
+import com.arcbank.cuenta.support.DatosPrueba;
+import com.arcbank.cuenta.support.MetricasPrueba;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({ CuentaAhorroService.class, MovimientoAplicadoService.class, MetricasPrueba.class })
+class MovimientoAplicadoServiceTest {
+
+    private static final BigDecimal SALDO = new BigDecimal("500.00");
+
+    @Autowired
+    private MovimientoAplicadoService service;
+
+    @Autowired
+    private CuentaAhorroRepository cuentaRepo;
+
+    @Autowired
+    private TipoCuentaAhorroRepository tipoRepo;
+
+    private Integer idCuenta;
+
+    @BeforeEach
+    void setUp() {
+        TipoCuentaAhorro tipo = tipoRepo.save(DatosPrueba.tipoAhorro());
+        idCuenta = cuentaRepo.saveAndFlush(DatosPrueba.cuentaActiva("100000000777", tipo, SALDO)).getIdCuenta();
+    }
+
+    @Test
+    void loteDevuelveElSaldoTrasCadaMovimiento() {
+        List<MovimientoAplicadoDTO> aplicados = service.aplicar(idCuenta,
+                List.of(abono("ref-1", "10.00"), abono("ref-2", "20.00")));
+
+        assertEquals(0, new BigDecimal("510.00").compareTo(aplicados.get(0).getSaldoResultante()));
+        assertEquals(0, new BigDecimal("530.00").compareTo(aplicados.get(1).getSaldoResultante()));
+        assertFalse(aplicados.get(0).isRepetido());
+        assertSaldo("530.00");
+    }
+
+    @Test
+    void reintentoDelLoteNoAcreditaDosVeces() {
+        service.aplicar(idCuenta, List.of(abono("ref-1", "10.00")));
+
+        // Reintento tras un timeout del llamador, con una referencia nueva añadida
+        List<MovimientoAplicadoDTO> reintento = service.aplicar(idCuenta,
+                List.of(abono("ref-1", "10.00"), abono("ref-3", "5.00")));
+
+        assertTrue(reintento.get(0).isRepetido());
+        assertEquals(0, new BigDecimal("510.00").compareTo(reintento.get(0).getSaldoResultante()));
+        assertFalse(reintento.get(1).isRepetido());
+        assertEquals(0, new BigDecimal("515.00").compareTo(reintento.get(1).getSaldoResultante()));
+        assertSaldo("515.00");
+    }
+
+    @Test
+    void referenciaRepetidaConOtroMontoSeRechaza() {
+        service.aplicar(idCuenta, List.of(abono("ref-1", "10.00")));
+
+        assertThrows(ConflictoConcurrenciaException.class,
+                () -> service.aplicar(idCuenta, List.of(abono("ref-1", "99.00"))));
+        assertSaldo("510.00");
+    }
+
+    private static MovimientoDTO abono(String referencia, String monto) {
+        return new MovimientoDTO(new BigDecimal(monto), referencia);
+    }
+
+    private void assertSaldo(String esperado) {
+        CuentaAhorro c = cuentaRepo.findById(idCuenta).orElseThrow();
+        assertEquals(0, new BigDecimal(esperado).compareTo(c.getSaldoDisponible()));
+    }
+}
@@ -0,0 +1,117 @@
+package com.arcbank.cuenta.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.arcbank.cuenta.dto.RetencionActivaDTO;
+import com.arcbank.cuenta.exception.ConflictoConcurrenciaException;
+import com.arcbank.cuenta.exception.SaldoInsuficienteException;
+import com.arcbank.cuenta.model.CuentaAhorro;
+import com.arcbank.cuenta.model.RetencionSaldo;
+import com.arcbank.cuenta.model.TipoCuentaAhorro;
+import com.arcbank.cuenta.repository.CuentaAhorroRepository;
+import com.arcbank.cuenta.repository.RetencionSaldoRepository;
+import com.arcbank.cuenta.repository.TipoCuentaAhorroRepository;
+import com.arcbank.cuenta.support.DatosPrueba;
+import com.arcbank.cuenta.support.MetricasPrueba;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({ CuentaAhorroService.class, RetencionSaldoService.class, MetricasPrueba.class })
+class RetencionSaldoServiceTest {
+
+    private static final BigDecimal SALDO = new BigDecimal("500.00");
+    private static final BigDecimal MONTO = new BigDecimal("120.00");
+
+    @Autowired
+    private RetencionSaldoService service;
+
+    @Autowired
+    private CuentaAhorroRepository cuentaRepo;
+
+    @Autowired
+    private TipoCuentaAhorroRepository tipoRepo;
+
+    @Autowired
+    private RetencionSaldoRepository retencionRepo;
+
+    private Integer idCuenta;
+
+    @BeforeEach
+    void setUp() {
+        TipoCuentaAhorro tipo = tipoRepo.save(DatosPrueba.tipoAhorro());
+        idCuenta = cuentaRepo.saveAndFlush(DatosPrueba.cuentaActiva("100000000888", tipo, SALDO)).getIdCuenta();
+    }
+
+    @Test
+    void retenerYCapturarAjustaPrimeroDisponibleYLuegoContable() {
+        assertEquals(0, SALDO.subtract(MONTO).compareTo(service.retener(idCuenta, "ref-1", MONTO).getSaldo()));
+        assertSaldos(SALDO, SALDO.subtract(MONTO));
+
+        service.capturar("ref-1");
+        assertSaldos(SALDO.subtract(MONTO), SALDO.subtract(MONTO));
+    }
+
+    @Test
+    void liberarDevuelveElDisponibleYEsIdempotente() {
+        service.retener(idCuenta, "ref-2", MONTO);
+        // Reintento del llamador con la misma referencia: no retiene dos veces
+        service.retener(idCuenta, "ref-2", MONTO);
+        assertSaldos(SALDO, SALDO.subtract(MONTO));
+
+        service.liberar("ref-2");
+        service.liberar("ref-2");
+        assertSaldos(SALDO, SALDO);
+
+        assertThrows(ConflictoConcurrenciaException.class, () -> service.capturar("ref-2"));
+    }
+
+    @Test
+    void retenerSinDisponibleSuficienteFalla() {
+        service.retener(idCuenta, "ref-3", new BigDecimal("450.00"));
+
+        assertThrows(SaldoInsuficienteException.class, () -> service.retener(idCuenta, "ref-4", MONTO));
+    }
+
+    @Test
+    void activasAnterioresSeRecorrenPorKeysetSinRepetirNiIncluirResueltasORecientes() {
+        for (String ref : List.of("vieja-1", "vieja-2", "vieja-3", "capturada", "reciente")) {
+            service.retener(idCuenta, ref, new BigDecimal("10.00"));
+        }
+        service.capturar("capturada");
+        envejecer("vieja-1");
+        envejecer("vieja-2");
+        envejecer("vieja-3");
+        envejecer("capturada");
+        LocalDateTime limite = LocalDateTime.now().minusHours(1);
+
+        List<RetencionActivaDTO> primera = service.findActivasAnteriores(limite, null, null, 2);
+        RetencionActivaDTO ultima = primera.get(primera.size() - 1);
+        List<RetencionActivaDTO> segunda = service.findActivasAnteriores(limite, ultima.getFechaCreacion(),
+                ultima.getIdRetencion(), 2);
+
+        assertEquals(List.of("vieja-1", "vieja-2"), primera.stream().map(RetencionActivaDTO::getReferencia).toList());
+        assertEquals(List.of("vieja-3"), segunda.stream().map(RetencionActivaDTO::getReferencia).toList());
+    }
+
+    private void envejecer(String referencia) {
+        RetencionSaldo r = retencionRepo.findByReferencia(referencia).orElseThrow();
+        r.setFechaCreacion(LocalDateTime.now().minusDays(1));
+        retencionRepo.saveAndFlush(r);
+    }
+
+    private void assertSaldos(BigDecimal actual, BigDecimal disponible) {
+        CuentaAhorro c = cuentaRepo.findById(idCuenta).orElseThrow();
+        assertEquals(0, actual.compareTo(c.getSaldoActual()));
+        assertEquals(0, disponible.compareTo(c.getSaldoDisponible()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.arcbank.cuenta.support;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.arcbank.cuenta.model.CuentaAhorro;
+import com.arcbank.cuenta.model.TipoCuentaAhorro;
+
+/**
+ * Entidades de partida comunes a las pruebas de persistencia. Se devuelven sin guardar para que cada
+ * prueba las persista con el repositorio o el TestEntityManager que use.
+ */
+public final class DatosPrueba {
+
+    private DatosPrueba() {
+    }
+
+    public static TipoCuentaAhorro tipoAhorro() {
+        TipoCuentaAhorro tipo = new TipoCuentaAhorro();
+        tipo.setNombre("AHORRO_TEST");
+        tipo.setTasaInteresMaxima(new BigDecimal("5.00"));
+        tipo.setAmortizacion("MENSUAL");
+        tipo.setActivo(true);
+        return tipo;
+    }
+
+    // ACTIVA, abierta hoy, con el mismo saldo contable y disponible
+    public static CuentaAhorro cuentaActiva(String numeroCuenta, TipoCuentaAhorro tipo, BigDecimal saldo) {
+        CuentaAhorro c = new CuentaAhorro();
+        c.setNumeroCuenta(numeroCuenta);
+        c.setIdCliente(1);
+        c.setIdSucursalApertura(1);
+        c.setTipoCuenta(tipo);
+        c.setSaldoActual(saldo);
+        c.setSaldoDisponible(saldo);
+        c.setFechaApertura(LocalDate.now());
+        c.setEstado("ACTIVA");
+        return c;
+    }
+}
@@ -0,0 +1,19 @@
+package com.arcbank.cuenta.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Registro de métricas en memoria para los slices @DataJpaTest, que no cargan la autoconfiguración de Micrometer.
+ */
+@TestConfiguration
+public class MetricasPrueba {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
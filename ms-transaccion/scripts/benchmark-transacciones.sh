@@ -0,0 +1,33 @@
+#!/bin/sh
+# Mide req/s de POST /api/transacciones contra una instancia levantada.
+# Ejecutar dos veces, con VIRTUAL_THREADS_ENABLED=false y =true en el servicio, y comparar.
+# Cada ejecución agrega una fila a target/benchmark/resultados.md (no versionado).
+#
+# Uso: MODO=plataforma|virtual ./scripts/benchmark-transacciones.sh [URL_BASE] [ID_CUENTA_DESTINO]
+# Requiere: hey (https://github.com/rakyll/hey)
+
+URL_BASE=${1:-http://localhost:8080}
+ID_CUENTA=${2:-1}
+CONCURRENCIA=${CONCURRENCIA:-200}
+PETICIONES=${PETICIONES:-20000}
+MODO=${MODO:-sin-etiqueta}
+RESULTADOS=${RESULTADOS:-$(dirname "$0")/../target/benchmark/resultados.md}
+
+mkdir -p "$(dirname "$RESULTADOS")"
+if [ ! -f "$RESULTADOS" ]; then
+    printf '%s\n%s\n' "| Fecha | Modo | Concurrencia | Peticiones | req/s | p99 (s) | Errores |" \
+        "|-------|------|--------------|------------|-------|---------|---------|" > "$RESULTADOS"
+fi
+
+SALIDA=$(hey -n "$PETICIONES" -c "$CONCURRENCIA" -m POST \
+    -H "Content-Type: application/json" \
+    -d "{\"tipoOperacion\":\"DEPOSITO\",\"idCuentaDestino\":$ID_CUENTA,\"monto\":1.00,\"canal\":\"VENTANILLA\",\"descripcion\":\"benchmark\"}" \
+    "$URL_BASE/api/transacciones") || exit 1
+echo "$SALIDA"
+
+REQ_S=$(echo "$SALIDA" | awk '/Requests\/sec:/ {print $2}')
+P99=$(echo "$SALIDA" | awk '/ 99% in / {print $3}')
+ERRORES=$(echo "$SALIDA" | awk '/^[ \t]*\[[45][0-9][0-9]\]/ {sum += $2} END {print sum + 0}')
+
+echo "| $(date -u +%Y-%m-%d) | $MODO | $CONCURRENCIA | $PETICIONES | $REQ_S | $P99 | $ERRORES |" >> "$RESULTADOS"
+echo "Resultado agregado a $RESULTADOS"
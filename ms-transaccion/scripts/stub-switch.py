@@ -0,0 +1,63 @@
+#!/usr/bin/env python3
+# Switch falso para probar circuit breaker y bulkhead en local.
+# Responde los endpoints que usa SwitchClient con latencia y tasa de error configurables.
+#
+# Uso: RETARDO_MS=8000 TASA_ERROR=0.5 ./scripts/stub-switch.py [PUERTO]
+# Levantar ms-transaccion con APP_SWITCH_NETWORK_URL=http://localhost:9090
+# y observar /actuator/circuitbreakers, /actuator/bulkheads y /actuator/health.
+
+import json
+import os
+import random
+import sys
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+PUERTO = int(sys.argv[1]) if len(sys.argv) > 1 else 9090
+RETARDO_MS = int(os.environ.get("RETARDO_MS", "0"))
+TASA_ERROR = float(os.environ.get("TASA_ERROR", "0"))
+
+
+class Manejador(BaseHTTPRequestHandler):
+
+    def _responder(self, cuerpo):
+        time.sleep(RETARDO_MS / 1000)
+        if random.random() < TASA_ERROR:
+            self.send_response(503)
+            self.end_headers()
+            return
+        datos = json.dumps(cuerpo).encode()
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(datos)))
+        self.end_headers()
+        self.wfile.write(datos)
+
+    def do_GET(self):
+        if self.path.startswith("/api/v1/red/bancos"):
+            self._responder([{"codigo": "BANTEC", "nombre": "Bantec"}, {"codigo": "NEXUS", "nombre": "Nexus"}])
+        elif self.path.startswith("/api/v2/transfers/health"):
+            self._responder({"status": "UP"})
+        elif self.path.startswith("/api/v1/reference/iso20022/errors"):
+            self._responder([{"code": "MS03", "description": "Error técnico"}])
+        elif self.path.startswith("/api/v2/switch/transfers/"):
+            self._responder({"status": "COMPLETED"})
+        else:
+            self.send_error(404)
+
+    def do_POST(self):
+        self.rfile.read(int(self.headers.get("Content-Length", 0)))
+        if self.path.startswith("/api/v2/switch/accounts/lookup"):
+            self._responder({"status": "SUCCESS", "data": {"exists": True, "ownerName": "Cliente Stub"}})
+        elif self.path.startswith("/api/v2/switch/transfers"):
+            self._responder({"status": "SUCCESS"})
+        else:
+            self.send_error(404)
+
+    def log_message(self, formato, *args):
+        pass
+
+
+if __name__ == "__main__":
+    print(f"Switch stub en :{PUERTO} retardo={RETARDO_MS}ms tasaError={TASA_ERROR}")
+    ThreadingHTTPServer(("", PUERTO), Manejador).serve_forever()
@@ -0,0 +1,33 @@
+package com.arcbank.cbs.transaccion.benchmark;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Utilidades comunes de los benchmarks JMH.
+ */
+public final class BenchmarkSoporte {
+
+    private BenchmarkSoporte() {
+    }
+
+    /**
+     * Deja los loggers en el nivel de producción (INFO) pero sin appenders: se mide el coste de crear los
+     * eventos de log sin la E/S de consola que ensuciaría la salida de JMH.
+     */
+    public static void logsSinSalida() {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.setLevel(Level.INFO);
+    }
+
+    // Mocks sin registro de invocaciones: de lo contrario la memoria crece con cada iteración
+    public static <T> T stub(Class<T> tipo) {
+        return mock(tipo, withSettings().stubOnly());
+    }
+}
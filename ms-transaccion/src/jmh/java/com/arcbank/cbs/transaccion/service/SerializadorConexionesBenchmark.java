@@ -0,0 +1,91 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcbank.cbs.transaccion.benchmark.BenchmarkSoporte;
+
+/**
+ * Coste de esperar el lock de la cuenta con una conexión del pool tomada. Un Semaphore justo hace de pool
+ * (Hikari, 20 por defecto) y la llamada a MS Cuentas es una pausa. Parte de los hilos mueve una cuenta caliente
+ * y el resto cuentas frías. "conexionAntesDelLock" es el orden anterior (lock dentro de @Transactional): quienes
+ * esperan la cuenta caliente ocupan el pool y frenan a las cuentas frías. "lockAntesDeLaConexion" es el orden
+ * actual. SampleTime incluye la espera en cada percentil.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class SerializadorConexionesBenchmark {
+
+    @Param({ "20" })
+    private int pool;
+
+    @Param({ "0.5" })
+    private double proporcionCaliente;
+
+    @Param({ "200" })
+    private long llamadaUs;
+
+    private SerializadorCuentas serializador;
+    private Semaphore conexiones;
+
+    @Setup
+    public void setup() {
+        BenchmarkSoporte.logsSinSalida();
+        serializador = SerializadorCuentasBenchmark.crearSerializador(1024);
+        conexiones = new Semaphore(pool, true);
+    }
+
+    @Benchmark
+    public long conexionAntesDelLock() {
+        Integer idCuenta = cuentaAleatoria();
+        conexiones.acquireUninterruptibly();
+        try {
+            return serializador.ejecutar(idCuenta, () -> llamadaRemota(idCuenta));
+        } finally {
+            conexiones.release();
+        }
+    }
+
+    @Benchmark
+    public long lockAntesDeLaConexion() {
+        Integer idCuenta = cuentaAleatoria();
+        return serializador.ejecutar(idCuenta, () -> {
+            conexiones.acquireUninterruptibly();
+            try {
+                return llamadaRemota(idCuenta);
+            } finally {
+                conexiones.release();
+            }
+        });
+    }
+
+    private long llamadaRemota(Integer idCuenta) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(llamadaUs));
+        return idCuenta;
+    }
+
+    private Integer cuentaAleatoria() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        return aleatorio.nextDouble() < proporcionCaliente ? 1 : 2 + aleatorio.nextInt(10_000);
+    }
+}
@@ -0,0 +1,89 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.arcbank.cbs.transaccion.benchmark.BenchmarkSoporte;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Movimientos concurrentes sobre 1 cuenta caliente frente a 10k cuentas frías. La sección crítica simula el
+ * trabajo del movimiento con consumo de CPU; "sinSerializar" es el techo sin ningún lock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class SerializadorCuentasBenchmark {
+
+    @Param({ "1", "10000" })
+    private int cuentas;
+
+    @Param({ "500" })
+    private long trabajo;
+
+    private SerializadorCuentas serializador;
+
+    static SerializadorCuentas crearSerializador(int franjas) {
+        SerializadorCuentas serializador = new SerializadorCuentas(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(serializador, "numeroFranjas", franjas);
+        ReflectionTestUtils.setField(serializador, "esperaMaxMs", 60_000L);
+        serializador.inicializar();
+        return serializador;
+    }
+
+    @Setup
+    public void setup() {
+        BenchmarkSoporte.logsSinSalida();
+        serializador = crearSerializador(1024);
+    }
+
+    @Benchmark
+    public long movimiento() {
+        Integer idCuenta = cuentaAleatoria();
+        return serializador.ejecutar(idCuenta, () -> {
+            Blackhole.consumeCPU(trabajo);
+            return (long) idCuenta;
+        });
+    }
+
+    @Benchmark
+    public long transferenciaInterna() {
+        Integer origen = cuentaAleatoria();
+        Integer destino = cuentas > 1 ? cuentaAleatoria() : origen + 1;
+        return serializador.ejecutar(origen, destino, () -> {
+            Blackhole.consumeCPU(trabajo);
+            return (long) origen + destino;
+        });
+    }
+
+    @Benchmark
+    public long sinSerializar() {
+        Integer idCuenta = cuentaAleatoria();
+        Blackhole.consumeCPU(trabajo);
+        return idCuenta;
+    }
+
+    private Integer cuentaAleatoria() {
+        return 1 + ThreadLocalRandom.current().nextInt(cuentas);
+    }
+}
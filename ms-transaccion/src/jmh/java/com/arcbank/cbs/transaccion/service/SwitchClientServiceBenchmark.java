@@ -0,0 +1,92 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.TaskScheduler;
+
+import com.arcbank.cbs.transaccion.benchmark.BenchmarkSoporte;
+import com.arcbank.cbs.transaccion.client.SwitchClient;
+import com.arcbank.cbs.transaccion.config.MuestreoLog;
+import com.arcbank.cbs.transaccion.dto.SwitchTransferRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Mapeo de códigos ISO de devolución y serialización del mensaje pacs.008 saliente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwitchClientServiceBenchmark {
+
+    // Alias conocido, código ISO del catálogo y código desconocido (camino de warn)
+    @Param({ "SALDO_INSUFICIENTE", "AC03", "codigo-raro" })
+    private String codigo;
+
+    private ObjectMapper objectMapper;
+    private SwitchTransferRequest isoRequest;
+    private SwitchClientService switchClientService;
+
+    @Setup
+    public void setup() {
+        BenchmarkSoporte.logsSinSalida();
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        CatalogoMotivosDevolucion catalogo = new CatalogoMotivosDevolucion(BenchmarkSoporte.stub(SwitchClient.class),
+                objectMapper, BenchmarkSoporte.stub(TaskScheduler.class));
+        catalogo.cargar(List.of(
+                Map.of("code", "AC03", "description", "Cuenta inválida"),
+                Map.of("code", "AM04", "description", "Fondos insuficientes"),
+                Map.of("code", "MS03", "description", "Error técnico")));
+        switchClientService = new SwitchClientService(BenchmarkSoporte.stub(SwitchClient.class), objectMapper,
+                BenchmarkSoporte.stub(MuestreoLog.class), catalogo);
+        isoRequest = SwitchTransferRequest.builder()
+                .header(SwitchTransferRequest.Header.builder()
+                        .messageId("MSG-1a2b3c4d")
+                        .creationDateTime("2025-01-10T10:00:00Z")
+                        .originatingBankId("ARCBANK")
+                        .build())
+                .body(SwitchTransferRequest.Body.builder()
+                        .instructionId("3f1c2d9e-8a7b-4c6d-9e0f-1a2b3c4d5e6f")
+                        .endToEndId("E2E-1a2b3c4d")
+                        .amount(SwitchTransferRequest.Amount.builder()
+                                .currency("USD")
+                                .value(new BigDecimal("125.50"))
+                                .build())
+                        .debtor(SwitchTransferRequest.Party.builder()
+                                .name("Juan Perez").accountId("100000000123")
+                                .accountType("AHORROS").bankId("ARCBANK").build())
+                        .creditor(SwitchTransferRequest.Party.builder()
+                                .name("Maria Lopez").accountId("2200112233")
+                                .accountType("AHORROS").targetBankId("BANTEC").build())
+                        .remittanceInformation("Pago de servicios")
+                        .build())
+                .build();
+    }
+
+    @Benchmark
+    public String mapearErrorIso() {
+        return switchClientService.mapearErrorIso(codigo);
+    }
+
+    @Benchmark
+    public byte[] serializarTransferencia() throws Exception {
+        return objectMapper.writeValueAsBytes(isoRequest);
+    }
+}
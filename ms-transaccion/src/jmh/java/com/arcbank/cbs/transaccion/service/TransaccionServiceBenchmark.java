@@ -0,0 +1,156 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.arcbank.cbs.transaccion.benchmark.BenchmarkSoporte;
+import com.arcbank.cbs.transaccion.client.ClienteCliente;
+import com.arcbank.cbs.transaccion.client.CuentaCliente;
+import com.arcbank.cbs.transaccion.client.SwitchClient;
+import com.arcbank.cbs.transaccion.dto.RetencionDTO;
+import com.arcbank.cbs.transaccion.dto.SaldoDTO;
+import com.arcbank.cbs.transaccion.dto.TransaccionRequestDTO;
+import com.arcbank.cbs.transaccion.model.Transaccion;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Historial por cuenta (mapearADTO por fila) y lógica de crearTransaccion por tipo, con clientes simulados
+ * (la salida interbancaria solo registra en el outbox).
+ * Ejecutar con -prof gc para seguir la asignación por operación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransaccionServiceBenchmark {
+
+    private static final Integer ID_CUENTA = 1;
+
+    static TransaccionServiceImpl crearServicio(TransaccionRepository repository) {
+        CuentaCliente cuentaCliente = BenchmarkSoporte.stub(CuentaCliente.class);
+        when(cuentaCliente.aplicarMovimiento(anyInt(), any())).thenReturn(new SaldoDTO(new BigDecimal("1500.00")));
+        when(cuentaCliente.retenerSaldo(anyInt(), any()))
+                .thenReturn(new RetencionDTO("ref", new BigDecimal("25.00"), "ACTIVA", new BigDecimal("1475.00")));
+
+        CuentaMetadataCache cuentaMetadataCache = BenchmarkSoporte.stub(CuentaMetadataCache.class);
+        when(cuentaMetadataCache.obtenerCuenta(anyInt()))
+                .thenReturn(Map.of("idCuenta", ID_CUENTA, "numeroCuenta", "100000000123", "nombreTitular", "JUAN PEREZ"));
+
+        SwitchClientService switchClientService = BenchmarkSoporte.stub(SwitchClientService.class);
+        when(switchClientService.enviarTransferencia(any())).thenReturn("{\"status\":\"SUCCESS\"}");
+
+        when(repository.save(any(Transaccion.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TransaccionServiceImpl servicio = new TransaccionServiceImpl(repository, cuentaCliente, cuentaMetadataCache,
+                BenchmarkSoporte.stub(ClienteCliente.class), BenchmarkSoporte.stub(SwitchClient.class),
+                switchClientService, BenchmarkSoporte.stub(ApplicationEventPublisher.class),
+                BenchmarkSoporte.stub(EntityManager.class), BenchmarkSoporte.stub(OutboxService.class),
+                BenchmarkSoporte.stub(DirectorioBancosService.class),
+                BenchmarkSoporte.stub(ConsultaCuentaExternaCache.class),
+                BenchmarkSoporte.stub(IndiceCuentasLocal.class),
+                SerializadorCuentasBenchmark.crearSerializador(1024),
+                new TransactionTemplate(BenchmarkSoporte.stub(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(servicio, "codigoBanco", "ARCBANK");
+        return servicio;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Historial {
+
+        @Param({ "100", "1000" })
+        int filas;
+
+        TransaccionServiceImpl servicio;
+
+        @Setup
+        public void setup() {
+            BenchmarkSoporte.logsSinSalida();
+            List<Transaccion> historial = new ArrayList<>(filas);
+            LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 8, 0);
+            for (int i = 0; i < filas; i++) {
+                boolean entrada = i % 2 == 0;
+                historial.add(Transaccion.builder()
+                        .idTransaccion(i + 1)
+                        .referencia("ref-" + i)
+                        .tipoOperacion(entrada ? "DEPOSITO" : "RETIRO")
+                        .idCuentaOrigen(entrada ? null : ID_CUENTA)
+                        .idCuentaDestino(entrada ? ID_CUENTA : null)
+                        .monto(new BigDecimal("10.00"))
+                        .saldoResultante(new BigDecimal(1000 + i))
+                        .saldoResultanteDestino(entrada ? new BigDecimal(1000 + i) : null)
+                        .fechaCreacion(fecha.plusMinutes(i))
+                        .descripcion("Movimiento " + i)
+                        .canal("WEB")
+                        .estado("COMPLETADA")
+                        .build());
+            }
+
+            TransaccionRepository repository = BenchmarkSoporte.stub(TransaccionRepository.class);
+            when(repository.findPorCuenta(ID_CUENTA)).thenReturn(historial);
+            servicio = crearServicio(repository);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Creacion {
+
+        @Param({ "DEPOSITO", "RETIRO", "TRANSFERENCIA_INTERNA", "TRANSFERENCIA_SALIDA" })
+        String tipo;
+
+        TransaccionServiceImpl servicio;
+        TransaccionRequestDTO request;
+
+        @Setup
+        public void setup() {
+            BenchmarkSoporte.logsSinSalida();
+            servicio = crearServicio(BenchmarkSoporte.stub(TransaccionRepository.class));
+            request = TransaccionRequestDTO.builder()
+                    .tipoOperacion(tipo)
+                    .idCuentaOrigen(ID_CUENTA)
+                    .idCuentaDestino(2)
+                    .cuentaExterna("2200112233")
+                    .idBancoExterno("BANTEC")
+                    .nombreDestinatario("Maria Lopez")
+                    .monto(new BigDecimal("25.00"))
+                    .descripcion("Benchmark")
+                    .build();
+        }
+    }
+
+    @Benchmark
+    public Object historialPorCuenta(Historial estado) {
+        return estado.servicio.obtenerPorCuenta(ID_CUENTA);
+    }
+
+    @Benchmark
+    public Object crearTransaccion(Creacion estado) {
+        return estado.servicio.crearTransaccion(estado.request);
+    }
+}
@@ -0,0 +1,116 @@
+package com.arcbank.cbs.transaccion.webhook;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcbank.cbs.transaccion.benchmark.BenchmarkSoporte;
+import com.arcbank.cbs.transaccion.dto.SwitchConsultaCuentaRequest;
+import com.arcbank.cbs.transaccion.dto.SwitchDevolucionRequest;
+import com.arcbank.cbs.transaccion.dto.SwitchTransferRequest;
+import com.arcbank.cbs.transaccion.service.TransaccionService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Webhook unificado (acmt.023 / pacs.004 / pacs.008): camino anterior (bytes -> Map -> convertValue)
+ * frente al WebhookDispatcher de una sola pasada. Ambos terminan en los mismos manejadores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebhookBenchmark {
+
+    private static final Map<String, String> PAYLOADS = Map.of(
+            "pacs008", """
+                    {"header":{"messageId":"MSG-1a2b3c4d","creationDateTime":"2025-01-10T10:00:00Z",
+                    "originatingBankId":"BANTEC"},"body":{"instructionId":"3f1c2d9e-8a7b-4c6d-9e0f-1a2b3c4d5e6f",
+                    "endToEndId":"E2E-1a2b3c4d","amount":{"currency":"USD","value":125.50},
+                    "debtor":{"name":"Juan Perez","accountId":"2200112233","accountType":"AHORROS","bankId":"BANTEC"},
+                    "creditor":{"name":"Maria Lopez","accountId":"100000000123","accountType":"AHORROS",
+                    "targetBankId":"ARCBANK"},"remittanceInformation":"Pago de servicios"}}
+                    """,
+            "pacs004", """
+                    {"header":{"messageId":"5a6b7c8d-1111-2222-3333-444455556666",
+                    "creationDateTime":"2025-01-10T10:00:00Z","originatingBankId":"BANTEC"},
+                    "body":{"returnInstructionId":"9e8d7c6b-1111-2222-3333-444455556666",
+                    "originalInstructionId":"3f1c2d9e-8a7b-4c6d-9e0f-1a2b3c4d5e6f","returnReason":"AC03",
+                    "returnAmount":{"currency":"USD","value":125.50}}}
+                    """,
+            "acmt023", """
+                    {"header":{"messageId":"MSG-99","messageNamespace":"acmt.023.001.02",
+                    "originatingBankId":"BANTEC"},"body":{"creditor":{"accountId":"100000000123"}}}
+                    """);
+
+    @Param({ "pacs008", "pacs004", "acmt023" })
+    private String tipo;
+
+    private ObjectMapper objectMapper;
+    private WebhookDispatcher dispatcher;
+    private ConsultaCuentaHandler consultaCuentaHandler;
+    private DevolucionHandler devolucionHandler;
+    private TransferenciaEntranteHandler transferenciaHandler;
+    private byte[] cuerpo;
+
+    @Setup
+    public void setup() {
+        BenchmarkSoporte.logsSinSalida();
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        TransaccionService transaccionService = BenchmarkSoporte.stub(TransaccionService.class);
+        when(transaccionService.validarCuentaLocal(anyString()))
+                .thenReturn(Map.of("exists", true, "ownerName", "MARIA LOPEZ", "currency", "USD", "status", "ACTIVA"));
+
+        consultaCuentaHandler = new ConsultaCuentaHandler(transaccionService);
+        devolucionHandler = new DevolucionHandler(transaccionService);
+        transferenciaHandler = new TransferenciaEntranteHandler(transaccionService);
+        dispatcher = new WebhookDispatcher(objectMapper,
+                List.of(consultaCuentaHandler, devolucionHandler, transferenciaHandler));
+        cuerpo = PAYLOADS.get(tipo).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object dispatcherStreaming() throws Exception {
+        return dispatcher.despachar(cuerpo);
+    }
+
+    // Réplica del camino anterior de WebhookController.recibirWebhookUnificado
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object legadoMapConvertValue() throws Exception {
+        Map<String, Object> payload = objectMapper.readValue(cuerpo, new TypeReference<Map<String, Object>>() {
+        });
+        Map<String, Object> header = (Map<String, Object>) payload.get("header");
+        Map<String, Object> body = (Map<String, Object>) payload.get("body");
+
+        if (header != null && "acmt.023.001.02".equals(header.get("messageNamespace"))) {
+            return consultaCuentaHandler.manejar(objectMapper.convertValue(payload,
+                    SwitchConsultaCuentaRequest.class));
+        }
+        if (body != null && (body.containsKey("originalInstructionId") || body.containsKey("returnReason"))) {
+            return devolucionHandler.manejar(objectMapper.convertValue(payload, SwitchDevolucionRequest.class));
+        }
+        return transferenciaHandler.manejar(objectMapper.convertValue(payload, SwitchTransferRequest.class));
+    }
+}
@@ -1,14 +1,21 @@
 package com.arcbank.cbs.transaccion.client;
 
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @FeignClient(name = "ms-clientes", url = "${app.feign.clientes-url:http://localhost:8080}")
 public interface ClienteCliente {
 
     @GetMapping("/api/v1/clientes/{id}")
     Map<String, Object> obtenerCliente(@PathVariable("id") Integer id);
+
+    // {idCliente, nombreCompleto, estado} con idCliente > desdeId, ordenado por id
+    @GetMapping("/api/v1/clientes/resumen")
+    List<Map<String, Object>> resumenClientes(@RequestParam("desdeId") Integer desdeId,
+            @RequestParam("limite") int limite);
 }
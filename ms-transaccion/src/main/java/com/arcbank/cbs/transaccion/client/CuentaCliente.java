@@ -1,14 +1,21 @@
 package com.arcbank.cbs.transaccion.client;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import com.arcbank.cbs.transaccion.dto.MovimientoAplicadoDTO;
+import com.arcbank.cbs.transaccion.dto.MovimientoDTO;
+import com.arcbank.cbs.transaccion.dto.RetencionActivaDTO;
+import com.arcbank.cbs.transaccion.dto.RetencionDTO;
 import com.arcbank.cbs.transaccion.dto.SaldoDTO;
 
 @FeignClient(name = "ms-cuentas", url = "${app.feign.cuentas-url:http://localhost:8081}")
@@ -17,12 +24,44 @@ public interface CuentaCliente {
     @GetMapping("/api/v1/cuentas/ahorros/{id}/saldo")
     BigDecimal obtenerSaldo(@PathVariable("id") Integer id);
 
-    @PutMapping("/api/v1/cuentas/ahorros/{id}/saldo")
-    void actualizarSaldo(@PathVariable("id") Integer id, @RequestBody SaldoDTO saldoDTO);
+    // Delta atómico con control de sobregiro en MS Cuentas; retorna el nuevo saldo
+    @PostMapping("/api/v1/cuentas/ahorros/{id}/movimientos")
+    SaldoDTO aplicarMovimiento(@PathVariable("id") Integer id, @RequestBody MovimientoDTO movimiento);
+
+    // Movimientos con referencia en una sola actualización; las referencias ya aplicadas vuelven como repetidas
+    @PostMapping("/api/v1/cuentas/ahorros/{id}/movimientos/lote")
+    List<MovimientoAplicadoDTO> aplicarMovimientos(@PathVariable("id") Integer id,
+            @RequestBody List<MovimientoDTO> movimientos);
+
+    // Reduce solo el saldo disponible hasta capturar o liberar; idempotente por referencia
+    @PostMapping("/api/v1/cuentas/ahorros/{id}/retenciones")
+    RetencionDTO retenerSaldo(@PathVariable("id") Integer id, @RequestBody RetencionDTO retencion);
+
+    @PostMapping("/api/v1/cuentas/ahorros/retenciones/{referencia}/captura")
+    RetencionDTO capturarRetencion(@PathVariable("referencia") String referencia);
+
+    @PostMapping("/api/v1/cuentas/ahorros/retenciones/{referencia}/liberacion")
+    RetencionDTO liberarRetencion(@PathVariable("referencia") String referencia);
+
+    // Creadas antes de antesDe, ordenadas por (fechaCreacion, idRetencion) a partir del cursor; fechas ISO-8601
+    @GetMapping("/api/v1/cuentas/ahorros/retenciones/activas")
+    List<RetencionActivaDTO> retencionesActivas(@RequestParam("antesDe") String antesDe,
+            @RequestParam("desdeFecha") String desdeFecha,
+            @RequestParam("desdeId") Integer desdeId,
+            @RequestParam("limite") int limite);
 
     @GetMapping("/api/v1/cuentas/ahorros/{id}")
     Map<String, Object> obtenerCuenta(@PathVariable("id") Integer id);
 
     @GetMapping("/api/v1/cuentas/ahorros/buscar/{numeroCuenta}")
     Map<String, Object> buscarPorNumero(@PathVariable("numeroCuenta") String numeroCuenta);
-}
\ No newline at end of file
+
+    // Solo incluye las cuentas encontradas, indexadas por el número solicitado
+    @PostMapping("/api/v1/cuentas/ahorros/buscar/lote")
+    Map<String, Map<String, Object>> buscarPorNumeros(@RequestBody Collection<String> numerosCuenta);
+
+    // {idCuenta, numeroCuenta, idCliente, estado} con idCuenta > desdeId, ordenado por id
+    @GetMapping("/api/v1/cuentas/ahorros/resumen")
+    List<Map<String, Object>> resumenCuentas(@RequestParam("desdeId") Integer desdeId,
+            @RequestParam("limite") int limite);
+}
@@ -12,7 +12,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import com.arcbank.cbs.transaccion.dto.SwitchTransferRequest;
 import com.arcbank.cbs.transaccion.dto.SwitchTransferResponse;
 
-@FeignClient(name = "digiconecu-switch", url = "${app.switch.network-url:https://switch-digiconecu.duckdns.org}", configuration = com.arcbank.cbs.transaccion.config.MTLSConfig.class)
+// El cliente HTTP (pool + mTLS) y el interceptor de apikey vienen de MTLSConfig, registrado a nivel global
+@FeignClient(name = "digiconecu-switch", url = "${app.switch.network-url:https://switch-digiconecu.duckdns.org}")
 public interface SwitchClient {
 
         @PostMapping("/api/v2/switch/transfers")
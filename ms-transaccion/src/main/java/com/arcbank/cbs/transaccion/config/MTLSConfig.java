@@ -1,13 +1,19 @@
 package com.arcbank.cbs.transaccion.config;
 
 import feign.Client;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
-import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,6 +47,27 @@ public class MTLSConfig {
     @Value("${app.switch.apikey:}")
     private String apiKey;
 
+    @Value("${app.feign.http.max-conexiones:200}")
+    private int maxConexiones;
+
+    @Value("${app.feign.http.max-conexiones-por-ruta:50}")
+    private int maxConexionesPorRuta;
+
+    @Value("${app.feign.http.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.feign.http.read-timeout-ms:15000}")
+    private long readTimeoutMs;
+
+    @Value("${app.feign.http.espera-conexion-ms:2000}")
+    private long esperaConexionMs;
+
+    @Value("${app.feign.http.inactividad-max-ms:30000}")
+    private long inactividadMaxMs;
+
+    @Value("${app.feign.http.ttl-conexion-ms:300000}")
+    private long ttlConexionMs;
+
     @Bean
     public RequestInterceptor requestInterceptor() {
         return requestTemplate -> {
@@ -55,10 +82,54 @@ public class MTLSConfig {
         };
     }
 
+    // Pool compartido por SwitchClient, CuentaCliente y ClienteCliente (límite por ruta = por servicio destino)
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager feignConnectionManager() throws Exception {
+        PoolingHttpClientConnectionManagerBuilder builder = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConexiones)
+                .setMaxConnPerRoute(maxConexionesPorRuta)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMilliseconds(ttlConexionMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build());
+
+        SSLContext sslContext = construirContextoMtls();
+        if (sslContext != null) {
+            builder.setSSLSocketFactory(new SSLConnectionSocketFactory(sslContext));
+        }
+
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient feignHttpClient(PoolingHttpClientConnectionManager feignConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(feignConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(esperaConexionMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(inactividadMaxMs))
+                .build();
+    }
+
+    @Bean
+    public Client feignClient(CloseableHttpClient feignHttpClient) {
+        return new feign.hc5.ApacheHttp5Client(feignHttpClient);
+    }
+
+    // Expone httpcomponents.httpclient.pool.* en /actuator/metrics
     @Bean
-    public Client feignClient() throws Exception {
+    public MeterBinder feignPoolMetrics(PoolingHttpClientConnectionManager feignConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(feignConnectionManager, "feign");
+    }
+
+    private SSLContext construirContextoMtls() throws Exception {
         if (!mtlsEnabled) {
-            return new Client.Default(null, null);
+            return null;
         }
 
         if (!keystoreResource.exists() || !truststoreResource.exists()) {
@@ -67,7 +138,7 @@ public class MTLSConfig {
             log.error("Expectativa Keystore: {}", keystoreResource);
             log.error("Expectativa Truststore: {}", truststoreResource);
 
-            return new Client.Default(null, null);
+            return null;
         }
 
         KeyStore keyStore = KeyStore.getInstance("PKCS12");
@@ -80,21 +151,9 @@ public class MTLSConfig {
             trustStore.load(trustStoreStream, truststorePassword.toCharArray());
         }
 
-        SSLContext sslContext = SSLContextBuilder.create()
+        return SSLContextBuilder.create()
                 .loadKeyMaterial(keyStore, keystorePassword.toCharArray())
                 .loadTrustMaterial(trustStore, null)
                 .build();
-
-        SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(sslContext);
-
-        HttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
-                .setSSLSocketFactory(sslSocketFactory)
-                .build();
-
-        CloseableHttpClient httpClient = HttpClients.custom()
-                .setConnectionManager(connectionManager)
-                .build();
-
-        return new feign.hc5.ApacheHttp5Client(httpClient);
     }
 }
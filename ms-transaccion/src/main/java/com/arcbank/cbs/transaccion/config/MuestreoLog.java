@@ -0,0 +1,23 @@
+package com.arcbank.cbs.transaccion.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Muestreo 1 de cada N para logs detallados en rutas calientes (payloads completos, etc.).
+ * Con tasa 0 el muestreo queda desactivado.
+ */
+@Component
+public class MuestreoLog {
+
+    private final AtomicLong contador = new AtomicLong();
+
+    @Value("${app.logging.muestreo.tasa:100}")
+    private int tasa;
+
+    public boolean muestrear() {
+        return tasa > 0 && contador.getAndIncrement() % tasa == 0;
+    }
+}
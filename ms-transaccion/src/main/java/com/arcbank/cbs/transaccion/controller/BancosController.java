@@ -2,13 +2,21 @@ package com.arcbank.cbs.transaccion.controller;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.arcbank.cbs.transaccion.client.SwitchClient;
+import com.arcbank.cbs.transaccion.service.DirectorioBancosService;
+import com.arcbank.cbs.transaccion.service.SwitchClientService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,43 +30,56 @@ import lombok.extern.slf4j.Slf4j;
 @Tag(name = "Bancos", description = "Consulta de bancos conectados al switch interbancario")
 public class BancosController {
 
-    private final SwitchClient switchClient;
+    private final SwitchClientService switchClientService;
+    private final DirectorioBancosService directorioBancosService;
 
-    @GetMapping
-    @Operation(summary = "Listar bancos disponibles para transferencias interbancarias")
-    public ResponseEntity<?> listarBancos() {
-        try {
-            log.info("Consultando bancos del switch DIGICONECU usando SwitchClient");
-
-            List<Map<String, Object>> bancos = switchClient.obtenerBancos();
+    @Value("${app.bancos.directorio.max-age-s:60}")
+    private long maxAgeSegundos;
 
-            if (bancos == null) {
-                bancos = List.of();
-            }
-
-            List<Map<String, Object>> bancosExternos = bancos;
-
-            log.info("Bancos disponibles para transferencia: {}", bancosExternos.size());
-
-            return ResponseEntity.ok(Map.of(
-                    "bancos", bancosExternos,
-                    "total", bancosExternos.size()));
+    @Value("${app.bancos.directorio.stale-s:600}")
+    private long staleSegundos;
 
-        } catch (Exception e) {
-            log.error("Error consultando bancos del switch: {}", e.getMessage());
+    @GetMapping
+    @Operation(summary = "Listar bancos disponibles para transferencias interbancarias")
+    public ResponseEntity<?> listarBancos(WebRequest webRequest) {
+        Optional<DirectorioBancosService.Instantanea> directorio = directorioBancosService.obtener();
 
+        if (directorio.isEmpty()) {
             return ResponseEntity.ok(Map.of(
                     "bancos", List.of(),
                     "total", 0,
-                    "error", "No se pudo conectar al switch interbancario: " + e.getMessage()));
+                    "error", "No se pudo conectar al switch interbancario"));
+        }
+
+        DirectorioBancosService.Instantanea instantanea = directorio.get();
+        if (webRequest.checkNotModified(instantanea.getEtag())) {
+            return null;
         }
+
+        return ResponseEntity.ok()
+                .eTag(instantanea.getEtag())
+                .cacheControl(CacheControl.maxAge(maxAgeSegundos, TimeUnit.SECONDS)
+                        .staleWhileRevalidate(staleSegundos, TimeUnit.SECONDS)
+                        .staleIfError(staleSegundos, TimeUnit.SECONDS))
+                .body(Map.of(
+                        "bancos", instantanea.getBancos(),
+                        "total", instantanea.getBancos().size()));
+    }
+
+    @GetMapping("/{idBanco}")
+    @Operation(summary = "Consultar un banco del directorio por código o id")
+    public ResponseEntity<?> obtenerBanco(@PathVariable String idBanco) {
+        return directorioBancosService.buscar(idBanco)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Banco no encontrado en el directorio: " + idBanco)));
     }
 
     @GetMapping("/health")
     @Operation(summary = "Verificar conexión con el switch interbancario")
     public ResponseEntity<?> healthCheck() {
         try {
-            Map<String, String> health = switchClient.healthCheck();
+            Map<String, String> health = switchClientService.healthCheck();
             return ResponseEntity.ok(Map.of(
                     "status", "UP",
                     "switch", health));
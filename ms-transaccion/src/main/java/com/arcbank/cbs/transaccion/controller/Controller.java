@@ -2,16 +2,31 @@ package com.arcbank.cbs.transaccion.controller;
 
 import com.arcbank.cbs.transaccion.dto.TransaccionRequestDTO;
 import com.arcbank.cbs.transaccion.dto.TransaccionResponseDTO;
+import com.arcbank.cbs.transaccion.service.CatalogoMotivosDevolucion;
+import com.arcbank.cbs.transaccion.service.ConfirmacionSwitchService;
+import com.arcbank.cbs.transaccion.service.IdempotenciaService;
 import com.arcbank.cbs.transaccion.service.TransaccionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/transacciones")
@@ -19,18 +34,103 @@ import java.util.List;
 @Tag(name = "Transacciones", description = "Gestión de movimientos y cumplimiento de lógica financiera")
 public class Controller {
 
+    private static final long ESPERA_MAXIMA_MS = 30000;
+    private static final int LIMITE_POR_DEFECTO = 50;
+    private static final int LIMITE_MAXIMO = 500;
+
     private final TransaccionService transaccionService;
+    private final ConfirmacionSwitchService confirmacionSwitchService;
+    private final IdempotenciaService idempotenciaService;
+    private final ObjectMapper objectMapper;
+    private final CatalogoMotivosDevolucion catalogoMotivosDevolucion;
 
     @PostMapping
     @Operation(summary = "Ejecutar transacción financiera")
-    public ResponseEntity<TransaccionResponseDTO> crear(@Valid @RequestBody TransaccionRequestDTO request) {
-        return new ResponseEntity<>(transaccionService.crearTransaccion(request), HttpStatus.CREATED);
+    public ResponseEntity<TransaccionResponseDTO> crear(@Valid @RequestBody TransaccionRequestDTO request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return respuestaCreacion(transaccionService.crearTransaccion(request), false);
+        }
+
+        IdempotenciaService.ResultadoIdempotente resultado = idempotenciaService.ejecutar(
+                idempotencyKey.trim(), request, () -> transaccionService.crearTransaccion(request));
+        return respuestaCreacion(resultado.getRespuesta(), resultado.isRepetida());
+    }
+
+    @GetMapping("/referencia/{referencia}/confirmacion")
+    @Operation(summary = "Esperar la confirmación del Switch (long-poll)")
+    public DeferredResult<ResponseEntity<TransaccionResponseDTO>> esperarConfirmacion(
+            @PathVariable String referencia,
+            @RequestParam(defaultValue = "15000") long esperaMs) {
+        long timeout = Math.max(0, Math.min(esperaMs, ESPERA_MAXIMA_MS));
+        DeferredResult<ResponseEntity<TransaccionResponseDTO>> resultado = new DeferredResult<>(timeout);
+
+        TransaccionResponseDTO actual = transaccionService.obtenerPorReferencia(referencia);
+        if (!"PENDIENTE".equals(actual.getEstado()) || timeout == 0) {
+            resultado.setResult(respuestaConfirmacion(actual));
+            return resultado;
+        }
+
+        CompletableFuture<TransaccionResponseDTO> future = confirmacionSwitchService.suscribir(referencia);
+        future.thenAccept(dto -> resultado.setResult(respuestaConfirmacion(dto)));
+        resultado.onTimeout(() -> resultado.setResult(
+                respuestaConfirmacion(transaccionService.obtenerPorReferencia(referencia))));
+        resultado.onCompletion(() -> confirmacionSwitchService.cancelarEspera(referencia, future));
+
+        // Pudo resolverse entre la primera lectura y la suscripción
+        TransaccionResponseDTO releida = transaccionService.obtenerPorReferencia(referencia);
+        if (!"PENDIENTE".equals(releida.getEstado())) {
+            future.complete(releida);
+        }
+        return resultado;
+    }
+
+    private ResponseEntity<TransaccionResponseDTO> respuestaCreacion(TransaccionResponseDTO respuesta,
+            boolean repetida) {
+        // Las transferencias interbancarias quedan PENDIENTES hasta la confirmación del Switch
+        HttpStatus status = "PENDIENTE".equals(respuesta.getEstado()) ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status)
+                .header("Idempotent-Replayed", String.valueOf(repetida))
+                .body(respuesta);
+    }
+
+    private ResponseEntity<TransaccionResponseDTO> respuestaConfirmacion(TransaccionResponseDTO dto) {
+        return "PENDIENTE".equals(dto.getEstado())
+                ? ResponseEntity.status(HttpStatus.ACCEPTED).body(dto)
+                : ResponseEntity.ok(dto);
     }
 
     @GetMapping("/cuenta/{idCuenta}")
     @Operation(summary = "Historial por cuenta (Origen o Destino)")
-    public ResponseEntity<List<TransaccionResponseDTO>> listarPorCuenta(@PathVariable Integer idCuenta) {
-        return ResponseEntity.ok(transaccionService.obtenerPorCuenta(idCuenta));
+    public ResponseEntity<?> listarPorCuenta(@PathVariable Integer idCuenta,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        // Sin parámetros se conserva la respuesta histórica (lista completa) que consumen los frontends
+        if (limite == null && cursor == null && desde == null && hasta == null) {
+            return ResponseEntity.ok(transaccionService.obtenerPorCuenta(idCuenta));
+        }
+        int tamanio = limite == null ? LIMITE_POR_DEFECTO : Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        return ResponseEntity.ok(transaccionService.obtenerPaginaPorCuenta(idCuenta, cursor, tamanio, desde, hasta));
+    }
+
+    @GetMapping(value = "/cuenta/{idCuenta}/exportar", produces = "application/x-ndjson")
+    @Operation(summary = "Exportar historial completo por cuenta (NDJSON en streaming)")
+    public ResponseEntity<StreamingResponseBody> exportarPorCuenta(@PathVariable Integer idCuenta,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        StreamingResponseBody cuerpo = salida -> transaccionService.exportarPorCuenta(idCuenta, desde, hasta, dto -> {
+            try {
+                salida.write(objectMapper.writeValueAsBytes(dto));
+                salida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(cuerpo);
     }
 
     @PostMapping("/{id}/devolucion")
@@ -43,8 +143,19 @@ public class Controller {
 
     @GetMapping("/motivos-devolucion")
     @Operation(summary = "Obtener catálogo de motivos de devolución desde el Switch")
-    public ResponseEntity<List<java.util.Map<String, String>>> obtenerMotivosDevolucion() {
-        return ResponseEntity.ok(transaccionService.obtenerMotivosDevolucion());
+    public ResponseEntity<List<java.util.Map<String, String>>> obtenerMotivosDevolucion(WebRequest webRequest) {
+        String etag = catalogoMotivosDevolucion.getEtag();
+        if (etag == null) {
+            // Catálogo aún no cargado: no se cachea la lista vacía
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(List.of());
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).staleIfError(1, TimeUnit.DAYS))
+                .body(catalogoMotivosDevolucion.getMotivos());
     }
 
     @PostMapping("/validar-cuenta")
@@ -1,6 +1,6 @@
 package com.arcbank.cbs.transaccion.controller;
 
-import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
@@ -9,7 +9,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.arcbank.cbs.transaccion.dto.SwitchTransferRequest;
+import com.arcbank.cbs.transaccion.service.RecepcionLoteService;
 import com.arcbank.cbs.transaccion.service.TransaccionService;
+import com.arcbank.cbs.transaccion.webhook.DevolucionHandler;
+import com.arcbank.cbs.transaccion.webhook.WebhookDispatcher;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,62 +22,17 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class WebhookController {
 
+        private static final int MAX_MENSAJES_LOTE = 1000;
+
         private final TransaccionService transaccionService;
-        private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+        private final RecepcionLoteService recepcionLoteService;
+        private final WebhookDispatcher webhookDispatcher;
+        private final DevolucionHandler devolucionHandler;
 
         @PostMapping("/api/core/transferencias/recepcion")
-        @SuppressWarnings("unchecked")
-        public ResponseEntity<?> recibirWebhookUnificado(@RequestBody Map<String, Object> payload) {
+        public ResponseEntity<?> recibirWebhookUnificado(@RequestBody byte[] cuerpo) {
                 try {
-                        Map<String, Object> header = (Map<String, Object>) payload.get("header");
-                        Map<String, Object> body = (Map<String, Object>) payload.get("body");
-
-                        // 1. Detección de Account Verification (acmt.023)
-                        if (header != null && "acmt.023.001.02".equals(header.get("messageNamespace"))) {
-                                log.info("🔍 Webhook detectado como CONSULTA DE CUENTA (acmt.023)");
-                                String accountId = null;
-
-                                // Segun instruccion Switch: Usamos el campo 'creditor' por compatibilidad
-                                if (body != null && body.get("creditor") != null) {
-                                        Map<String, Object> creditor = (Map<String, Object>) body.get("creditor");
-                                        accountId = (String) creditor.get("accountId");
-                                }
-
-                                if (accountId == null) {
-                                        log.warn("Solicitud acmt.023 recibida sin 'creditor.accountId'.");
-                                        return ResponseEntity.ok(Map.of(
-                                                        "status", "FAILED",
-                                                        "data", Map.of("mensaje",
-                                                                        "Formato inválido: Falta creditor.accountId")));
-                                }
-
-                                Map<String, Object> result = transaccionService.validarCuentaLocal(accountId);
-
-                                if (Boolean.TRUE.equals(result.get("exists"))) {
-                                        return ResponseEntity.ok(Map.of("status", "SUCCESS", "data", result));
-                                } else {
-                                        return ResponseEntity.ok(Map.of(
-                                                        "status", "FAILED",
-                                                        "data",
-                                                        Map.of("exists", false, "mensaje", "Cuenta no encontrada")));
-                                }
-                        }
-
-                        // 2. Detección de Devoluciones (pacs.004)
-                        if (body != null && (body.containsKey("originalInstructionId")
-                                        || body.containsKey("returnReason"))) {
-                                log.info("🔄 Webhook detectado como DEVOLUCIÓN (pacs.004)");
-                                com.arcbank.cbs.transaccion.dto.SwitchDevolucionRequest req = objectMapper.convertValue(
-                                                payload, com.arcbank.cbs.transaccion.dto.SwitchDevolucionRequest.class);
-                                return recibirDevolucion(req);
-                        } else {
-                                // 3. Detección de Transferencia (pacs.008) por descarte
-                                log.info("📥 Webhook detectado como TRANSFERENCIA (pacs.008)");
-                                SwitchTransferRequest req = objectMapper.convertValue(payload,
-                                                SwitchTransferRequest.class);
-                                log.info("Processing transfer ID: {}", req.getBody().getInstructionId());
-                                return procesarTransferencia(req);
-                        }
+                        return webhookDispatcher.despachar(cuerpo);
                 } catch (Exception e) {
                         log.error("❌ Error en webhook unificado: {}", e.getMessage());
                         return ResponseEntity.status(422).body(Map.of("status", "NACK", "error",
@@ -82,72 +40,34 @@ public class WebhookController {
                 }
         }
 
-        @PostMapping("/api/incoming/return")
-        public ResponseEntity<?> recibirDevolucion(
-                        @RequestBody com.arcbank.cbs.transaccion.dto.SwitchDevolucionRequest request) {
-                log.info("🔄 Webhook Devolución V3.0 recibido (Confirmación Asíncrona): {}",
-                                request.getBody().getOriginalInstructionId());
-                try {
-                        transaccionService.procesarDevolucionEntrante(request);
-                        return ResponseEntity.ok(Map.of("status", "ACK", "message", "Devolución confirmada"));
-                } catch (Exception e) {
-                        log.error("❌ Error procesando confirmación de devolución: {}", e.getMessage());
-                        return ResponseEntity.badRequest().body(Map.of("status", "NACK", "error", e.getMessage()));
+        @PostMapping("/api/core/transferencias/recepcion/lote")
+        public ResponseEntity<?> recibirLote(@RequestBody List<SwitchTransferRequest> mensajes) {
+                if (mensajes.isEmpty() || mensajes.size() > MAX_MENSAJES_LOTE) {
+                        return ResponseEntity.badRequest().body(Map.of("status", "NACK", "error",
+                                        "El lote debe contener entre 1 y " + MAX_MENSAJES_LOTE + " mensajes"));
                 }
-        }
-
-        private ResponseEntity<?> procesarTransferencia(SwitchTransferRequest request) {
+                log.info("📥 Lote de {} transferencias (pacs.008) recibido", mensajes.size());
                 try {
-                        if (request.getHeader() == null || request.getBody() == null) {
-                                return ResponseEntity.badRequest()
-                                                .body(Map.of("status", "NACK", "error", "Formato inválido"));
-                        }
-
-                        String instructionId = request.getBody().getInstructionId();
-                        String cuentaDestino = request.getBody().getCreditor() != null
-                                        ? request.getBody().getCreditor().getAccountId()
-                                        : null;
-                        String bancoOrigen = request.getHeader().getOriginatingBankId() != null
-                                        ? request.getHeader().getOriginatingBankId()
-                                        : "DESCONOCIDO";
-
-                        BigDecimal monto = BigDecimal.ZERO;
-                        if (request.getBody().getAmount() != null && request.getBody().getAmount().getValue() != null) {
-                                monto = request.getBody().getAmount().getValue();
-                        }
-
-                        if (instructionId == null || cuentaDestino == null || monto.compareTo(BigDecimal.ZERO) <= 0) {
-                                return ResponseEntity.badRequest()
-                                                .body(Map.of("status", "NACK", "error", "Datos incompletos"));
-                        }
-
-                        transaccionService.procesarTransferenciaEntrante(instructionId, cuentaDestino, monto,
-                                        bancoOrigen);
-
+                        List<Map<String, Object>> resultados = recepcionLoteService.procesar(mensajes);
+                        long aceptadas = resultados.stream().filter(r -> "ACK".equals(r.get("status"))).count();
                         return ResponseEntity.ok(Map.of(
-                                        "status", "ACK",
-                                        "message", "Acreditación exitosa en Arcbank",
-                                        "instructionId", instructionId));
-
+                                        "total", resultados.size(),
+                                        "aceptadas", aceptadas,
+                                        "rechazadas", resultados.size() - aceptadas,
+                                        "resultados", resultados));
                 } catch (Exception e) {
-                        log.error("❌ Error procesando abono: {}", e.getMessage());
-
-                        if (e.getMessage() != null && e.getMessage().contains("Cuenta destino no encontrada")) {
-                                return ResponseEntity.status(422).body(Map.of(
-                                                "codigo", "AC01",
-                                                "mensaje", "La cuenta destino no existe en nuestros registros"));
-                        }
-
-                        if (e.getMessage() != null && e.getMessage().contains("Cuenta cerrada")) {
-                                return ResponseEntity.status(422).body(Map.of(
-                                                "codigo", "AC04",
-                                                "mensaje", "Cuenta cerrada o inactiva"));
-                        }
-
-                        return ResponseEntity.status(422).body(Map.of("status", "NACK", "error", e.getMessage()));
+                        log.error("❌ Error procesando lote de abonos: {}", e.getMessage());
+                        return ResponseEntity.status(503).body(Map.of("status", "NACK", "error",
+                                        "Lote no procesado, reintente: " + e.getMessage()));
                 }
         }
 
+        @PostMapping("/api/incoming/return")
+        public ResponseEntity<?> recibirDevolucion(
+                        @RequestBody com.arcbank.cbs.transaccion.dto.SwitchDevolucionRequest request) {
+                return devolucionHandler.manejar(request);
+        }
+
         @org.springframework.web.bind.annotation.GetMapping("/api/core/transferencias/recepcion/status/{instructionId}")
         public ResponseEntity<?> consultarEstado(
                         @org.springframework.web.bind.annotation.PathVariable String instructionId) {
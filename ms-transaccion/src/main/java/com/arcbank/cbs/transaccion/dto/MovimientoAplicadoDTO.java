@@ -0,0 +1,19 @@
+package com.arcbank.cbs.transaccion.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoAplicadoDTO {
+    private String referencia;
+    private BigDecimal monto;
+
+    // Saldo tras el movimiento; si es repetido, el registrado cuando se aplicó
+    private BigDecimal saldoResultante;
+    private boolean repetido;
+}
@@ -0,0 +1,25 @@
+package com.arcbank.cbs.transaccion.dto;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoDTO {
+    // Positivo = crédito, negativo = débito
+    private BigDecimal monto;
+
+    // Con referencia MS Cuentas aplica el movimiento una sola vez aunque se reintente
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String referencia;
+
+    public MovimientoDTO(BigDecimal monto) {
+        this.monto = monto;
+    }
+}
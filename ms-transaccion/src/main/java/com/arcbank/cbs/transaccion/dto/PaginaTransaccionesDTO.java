@@ -0,0 +1,19 @@
+package com.arcbank.cbs.transaccion.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaTransaccionesDTO {
+    private List<TransaccionResponseDTO> items;
+
+    // null cuando no hay más resultados
+    private String siguienteCursor;
+}
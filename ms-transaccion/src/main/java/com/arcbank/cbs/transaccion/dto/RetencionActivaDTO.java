@@ -0,0 +1,20 @@
+package com.arcbank.cbs.transaccion.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Retención ACTIVA en MS Cuentas; fechaCreacion e idRetencion forman el cursor de la página siguiente
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionActivaDTO {
+    private Integer idRetencion;
+    private Integer idCuenta;
+    private String referencia;
+    private BigDecimal monto;
+    private LocalDateTime fechaCreacion;
+}
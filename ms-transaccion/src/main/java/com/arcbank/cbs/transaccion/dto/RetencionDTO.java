@@ -0,0 +1,23 @@
+package com.arcbank.cbs.transaccion.dto;
+
+import java.math.BigDecimal;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetencionDTO {
+    private String referencia;
+    private BigDecimal monto;
+    private String estado;
+
+    // Respuesta de MS Cuentas: saldo disponible tras la operación
+    private BigDecimal saldo;
+
+    public RetencionDTO(String referencia, BigDecimal monto) {
+        this.referencia = referencia;
+        this.monto = monto;
+    }
+}
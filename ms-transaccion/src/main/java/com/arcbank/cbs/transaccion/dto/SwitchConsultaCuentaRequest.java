@@ -0,0 +1,42 @@
+package com.arcbank.cbs.transaccion.dto;
+
+import lombok.*;
+
+// acmt.023: el Switch consulta si una cuenta existe en Arcbank (se usa el campo 'creditor')
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwitchConsultaCuentaRequest {
+
+    private Header header;
+    private Body body;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Header {
+        private String messageId;
+        private String messageNamespace;
+        private String creationDateTime;
+        private String originatingBankId;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Body {
+        private Party creditor;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Party {
+        private String accountId;
+        private String name;
+    }
+}
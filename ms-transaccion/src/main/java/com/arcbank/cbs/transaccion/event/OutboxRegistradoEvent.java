@@ -0,0 +1,11 @@
+package com.arcbank.cbs.transaccion.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Publicado al registrar un envío en el outbox; permite al relay despacharlo sin esperar al siguiente ciclo
+@Getter
+@AllArgsConstructor
+public class OutboxRegistradoEvent {
+    private final String referencia;
+}
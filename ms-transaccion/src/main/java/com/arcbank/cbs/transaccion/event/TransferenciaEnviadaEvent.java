@@ -0,0 +1,11 @@
+package com.arcbank.cbs.transaccion.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Publicado cuando una TRANSFERENCIA_SALIDA fue aceptada por el Switch y queda PENDIENTE de confirmación
+@Getter
+@AllArgsConstructor
+public class TransferenciaEnviadaEvent {
+    private final String referencia;
+}
@@ -0,0 +1,13 @@
+package com.arcbank.cbs.transaccion.event;
+
+import com.arcbank.cbs.transaccion.dto.TransaccionResponseDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Publicado cuando una transferencia PENDIENTE pasa a su estado final (COMPLETADA o FALLIDA)
+@Getter
+@AllArgsConstructor
+public class TransferenciaResueltaEvent {
+    private final TransaccionResponseDTO transaccion;
+}
@@ -13,6 +13,28 @@ import java.time.LocalDateTime;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(SolicitudEnCursoException.class)
+    public ResponseEntity<ErrorResponse> handleSolicitudEnCurso(SolicitudEnCursoException ex) {
+        log.warn("Solicitud idempotente en curso: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+                .mensaje(ex.getMessage())
+                .codigo("IDEMPOTENCY_CONFLICT")
+                .fecha(LocalDateTime.now())
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ResultadoInciertoException.class)
+    public ResponseEntity<ErrorResponse> handleResultadoIncierto(ResultadoInciertoException ex) {
+        log.warn("Resultado incierto: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+                .mensaje(ex.getMessage())
+                .codigo("RESULTADO_INCIERTO")
+                .fecha(LocalDateTime.now())
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<ErrorResponse> handleBusinessException(BusinessException ex) {
         log.warn("Error de negocio: {}", ex.getMessage());
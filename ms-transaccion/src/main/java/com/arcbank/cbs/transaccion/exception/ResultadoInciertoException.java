@@ -0,0 +1,8 @@
+package com.arcbank.cbs.transaccion.exception;
+
+// MS Cuentas no confirmó el movimiento (timeout, 5xx): pudo haberse aplicado, así que no es un rechazo
+public class ResultadoInciertoException extends BusinessException {
+    public ResultadoInciertoException(String message) {
+        super(message);
+    }
+}
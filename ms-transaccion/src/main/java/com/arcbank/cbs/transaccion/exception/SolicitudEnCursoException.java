@@ -0,0 +1,7 @@
+package com.arcbank.cbs.transaccion.exception;
+
+public class SolicitudEnCursoException extends BusinessException {
+    public SolicitudEnCursoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.arcbank.cbs.transaccion.exception;
+
+import lombok.Getter;
+
+// Rechazo definitivo del Switch (HTTP 4xx con código ISO de negocio): reintentar no cambia el resultado
+@Getter
+public class SwitchRechazoException extends RuntimeException {
+
+    private final String isoCode;
+
+    public SwitchRechazoException(String isoCode, String message) {
+        super(isoCode + " - " + message);
+        this.isoCode = isoCode;
+    }
+}
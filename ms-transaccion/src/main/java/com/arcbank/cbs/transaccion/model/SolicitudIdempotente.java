@@ -0,0 +1,45 @@
+package com.arcbank.cbs.transaccion.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reclamo de una Idempotency-Key. Se inserta y confirma antes de tocar saldos remotos: la Referencia única
+ * garantiza que entre réplicas solo una solicitud ejecuta la operación.
+ */
+@Entity
+@Table(name = "\"SolicitudIdempotente\"", schema = "public", indexes = {
+        @Index(name = "IX_SolicitudIdempotente_Fecha", columnList = "\"FechaCreacion\"")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudIdempotente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "\"IdSolicitud\"")
+    private Long idSolicitud;
+
+    @Column(name = "\"Referencia\"", nullable = false, unique = true, length = 50)
+    private String referencia;
+
+    // Hash de la serialización canónica del cuerpo
+    @Column(name = "\"Huella\"", nullable = false, length = 64)
+    private String huella;
+
+    @Column(name = "\"FechaCreacion\"", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @PrePersist
+    public void prePersist() {
+        if (this.fechaCreacion == null)
+            this.fechaCreacion = LocalDateTime.now();
+    }
+}
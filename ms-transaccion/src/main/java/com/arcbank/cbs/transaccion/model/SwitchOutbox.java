@@ -0,0 +1,63 @@
+package com.arcbank.cbs.transaccion.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envío pendiente al Switch, escrito en la misma transacción que la Transaccion que lo origina.
+ * Estados: PENDIENTE (por enviar), ENVIADO, RECHAZADO (4xx del Switch), AGOTADO (sin más reintentos).
+ */
+@Entity
+@Table(name = "\"SwitchOutbox\"", schema = "public", indexes = {
+        @Index(name = "IX_SwitchOutbox_Estado_Proximo", columnList = "\"Estado\", \"ProximoIntento\"")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwitchOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "\"IdOutbox\"")
+    private Long idOutbox;
+
+    @Column(name = "\"Referencia\"", nullable = false, unique = true, length = 50)
+    private String referencia;
+
+    @Column(name = "\"Payload\"", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "\"Estado\"", nullable = false, length = 20)
+    private String estado;
+
+    @Column(name = "\"Intentos\"", nullable = false)
+    private Integer intentos;
+
+    @Column(name = "\"ProximoIntento\"", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "\"UltimoError\"", length = 500)
+    private String ultimoError;
+
+    @Column(name = "\"FechaCreacion\"", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @PrePersist
+    public void prePersist() {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (this.estado == null)
+            this.estado = "PENDIENTE";
+        if (this.intentos == null)
+            this.intentos = 0;
+        if (this.proximoIntento == null)
+            this.proximoIntento = ahora;
+        if (this.fechaCreacion == null)
+            this.fechaCreacion = ahora;
+    }
+}
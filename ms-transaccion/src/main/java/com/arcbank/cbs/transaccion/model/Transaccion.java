@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -16,7 +17,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "\"Transaccion\"", schema = "public")
+@Table(name = "\"Transaccion\"", schema = "public", indexes = {
+        @Index(name = "IX_Transaccion_Origen_Fecha", columnList = "\"IdCuentaOrigen\", \"FechaCreacion\""),
+        @Index(name = "IX_Transaccion_Destino_Fecha", columnList = "\"IdCuentaDestino\", \"FechaCreacion\""),
+        @Index(name = "IX_Transaccion_Estado_Fecha", columnList = "\"Estado\", \"FechaCreacion\"")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,30 @@
+package com.arcbank.cbs.transaccion.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.arcbank.cbs.transaccion.model.SolicitudIdempotente;
+
+public interface SolicitudIdempotenteRepository extends JpaRepository<SolicitudIdempotente, Long> {
+
+    Optional<SolicitudIdempotente> findByReferencia(String referencia);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.referencia = :referencia")
+    int eliminarPorReferencia(@Param("referencia") String referencia);
+
+    // Vencidas, o abandonadas (la instancia cayó antes de registrar la Transaccion)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.fechaCreacion < :vencimiento "
+            + "OR (s.fechaCreacion < :abandono AND NOT EXISTS "
+            + "(SELECT t.idTransaccion FROM Transaccion t WHERE t.referencia = s.referencia))")
+    int purgar(@Param("vencimiento") LocalDateTime vencimiento, @Param("abandono") LocalDateTime abandono);
+}
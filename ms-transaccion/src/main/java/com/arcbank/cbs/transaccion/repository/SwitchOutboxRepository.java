@@ -0,0 +1,29 @@
+package com.arcbank.cbs.transaccion.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.arcbank.cbs.transaccion.model.SwitchOutbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface SwitchOutboxRepository extends JpaRepository<SwitchOutbox, Long> {
+
+    // FOR UPDATE SKIP LOCKED (timeout -2): varias réplicas pueden reclamar lotes sin bloquearse entre sí
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM SwitchOutbox o WHERE o.estado = 'PENDIENTE' AND o.proximoIntento <= :ahora "
+            + "ORDER BY o.idOutbox")
+    List<SwitchOutbox> findListosParaEnvio(@Param("ahora") LocalDateTime ahora, Pageable pageable);
+
+    Optional<SwitchOutbox> findByReferencia(String referencia);
+}
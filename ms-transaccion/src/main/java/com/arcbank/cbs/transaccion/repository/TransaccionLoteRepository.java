@@ -0,0 +1,85 @@
+package com.arcbank.cbs.transaccion.repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.arcbank.cbs.transaccion.model.Transaccion;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Escrituras por lote sobre Transaccion con JDBC batching (la PK IDENTITY impide el batching de Hibernate).
+ * Los nombres de tabla y columnas se toman del mapeo de Hibernate para respetar la estrategia de nombres.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransaccionLoteRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private String sqlInsertar;
+
+    @PostConstruct
+    void prepararSentencias() {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Transaccion.class);
+
+        String tabla = persister.getTableName();
+        String referencia = columna(persister, "referencia");
+
+        List<String> columnas = new ArrayList<>();
+        for (String propiedad : List.of("referencia", "tipoOperacion", "idCuentaDestino", "cuentaExterna",
+                "idBancoExterno", "monto", "saldoResultante", "fechaCreacion", "descripcion", "canal", "estado")) {
+            columnas.add(columna(persister, propiedad));
+        }
+
+        sqlInsertar = "INSERT INTO " + tabla + " (" + String.join(", ", columnas) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columnas.size(), "?")) + ") "
+                + "ON CONFLICT (" + referencia + ") DO NOTHING";
+    }
+
+    /**
+     * Inserta las transacciones ignorando Referencias ya registradas.
+     * Devuelve, en el mismo orden, si cada fila fue realmente insertada.
+     */
+    public boolean[] insertarIgnorandoDuplicadas(List<Transaccion> transacciones) {
+        if (transacciones.isEmpty()) {
+            return new boolean[0];
+        }
+        int[] filas = jdbcTemplate.batchUpdate(sqlInsertar, transacciones, transacciones.size(), (ps, t) -> {
+            ps.setString(1, t.getReferencia());
+            ps.setString(2, t.getTipoOperacion());
+            ps.setObject(3, t.getIdCuentaDestino());
+            ps.setString(4, t.getCuentaExterna());
+            ps.setString(5, t.getIdBancoExterno());
+            ps.setBigDecimal(6, t.getMonto());
+            ps.setBigDecimal(7, t.getSaldoResultante());
+            ps.setTimestamp(8, Timestamp.valueOf(t.getFechaCreacion()));
+            ps.setString(9, t.getDescripcion());
+            ps.setString(10, t.getCanal());
+            ps.setString(11, t.getEstado());
+        })[0];
+
+        boolean[] insertadas = new boolean[filas.length];
+        for (int i = 0; i < filas.length; i++) {
+            insertadas[i] = filas[i] != 0;
+        }
+        return insertadas;
+    }
+
+    private static String columna(AbstractEntityPersister persister, String propiedad) {
+        return persister.getPropertyColumnNames(propiedad)[0];
+    }
+}
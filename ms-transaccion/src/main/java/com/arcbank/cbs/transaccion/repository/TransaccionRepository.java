@@ -1,18 +1,80 @@
 package com.arcbank.cbs.transaccion.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.arcbank.cbs.transaccion.model.Transaccion;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface TransaccionRepository extends JpaRepository<Transaccion, Integer> {
 
     @Query("SELECT t FROM Transaccion t WHERE t.idCuentaOrigen = :idCuenta OR t.idCuentaDestino = :idCuenta")
     List<Transaccion> findPorCuenta(@Param("idCuenta") Integer idCuenta);
 
+    // Paginación por keyset (FechaCreacion, IdTransaccion), más reciente primero
+    @Query("SELECT t FROM Transaccion t "
+            + "WHERE (t.idCuentaOrigen = :idCuenta OR t.idCuentaDestino = :idCuenta) "
+            + "AND t.fechaCreacion >= :desde AND t.fechaCreacion < :hasta "
+            + "AND (t.fechaCreacion < :cursorFecha "
+            + "OR (t.fechaCreacion = :cursorFecha AND t.idTransaccion < :cursorId)) "
+            + "ORDER BY t.fechaCreacion DESC, t.idTransaccion DESC")
+    List<Transaccion> findPaginaPorCuenta(@Param("idCuenta") Integer idCuenta,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta,
+            @Param("cursorFecha") LocalDateTime cursorFecha,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM Transaccion t "
+            + "WHERE (t.idCuentaOrigen = :idCuenta OR t.idCuentaDestino = :idCuenta) "
+            + "AND t.fechaCreacion >= :desde AND t.fechaCreacion < :hasta "
+            + "ORDER BY t.fechaCreacion DESC, t.idTransaccion DESC")
+    Stream<Transaccion> streamPorCuenta(@Param("idCuenta") Integer idCuenta,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta);
+
     Optional<Transaccion> findByReferencia(String referencia);
-}
\ No newline at end of file
+
+    // Bloqueo de fila para resolver una transferencia una sola vez entre confirmación, relay y conciliación
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaccion t WHERE t.referencia = :referencia")
+    Optional<Transaccion> findByReferenciaParaActualizar(@Param("referencia") String referencia);
+
+    // Keyset sobre (FechaCreacion, IdTransaccion) apoyado en IX_Transaccion_Estado_Fecha
+    @Query("SELECT t.idTransaccion AS idTransaccion, t.referencia AS referencia, t.fechaCreacion AS fechaCreacion "
+            + "FROM Transaccion t WHERE t.estado = 'PENDIENTE' "
+            + "AND t.tipoOperacion IN ('TRANSFERENCIA_SALIDA', 'TRANSFERENCIA_INTERBANCARIA') "
+            + "AND t.fechaCreacion < :limite "
+            + "AND (t.fechaCreacion > :cursorFecha "
+            + "OR (t.fechaCreacion = :cursorFecha AND t.idTransaccion > :cursorId)) "
+            + "ORDER BY t.fechaCreacion, t.idTransaccion")
+    List<PendienteConciliacion> findPendientesParaConciliar(@Param("limite") LocalDateTime limite,
+            @Param("cursorFecha") LocalDateTime cursorFecha,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable);
+
+    interface PendienteConciliacion {
+        Integer getIdTransaccion();
+
+        String getReferencia();
+
+        LocalDateTime getFechaCreacion();
+    }
+
+    @Query("SELECT t.referencia FROM Transaccion t WHERE t.referencia IN :referencias")
+    List<String> findReferenciasExistentes(@Param("referencias") Collection<String> referencias);
+}
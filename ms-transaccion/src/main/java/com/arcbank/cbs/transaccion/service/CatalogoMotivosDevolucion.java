@@ -0,0 +1,138 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.arcbank.cbs.transaccion.client.SwitchClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Catálogo ISO 20022 de motivos de devolución ({code, description}) publicado por el Switch.
+ * Se carga al arrancar y se refresca periódicamente; un refresco fallido o vacío conserva la copia anterior.
+ * Mientras no haya ninguna copia se reintenta con backoff corto en lugar de esperar al siguiente refresco.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogoMotivosDevolucion {
+
+    // Solo se usa mientras el catálogo no se ha podido cargar
+    private static final Pattern FORMATO_ISO = Pattern.compile("^[A-Z0-9]{4}$");
+
+    // Usa SwitchClient directamente: SwitchClientService depende de este catálogo
+    private final SwitchClient switchClient;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+
+    private final AtomicReference<Catalogo> actual = new AtomicReference<>();
+    // Un solo reintento en espera aunque el refresco periódico falle a la vez
+    private final AtomicBoolean reintentoProgramado = new AtomicBoolean();
+
+    @Value("${app.switch.motivos.reintento-inicial-ms:2000}")
+    private long reintentoInicialMs;
+
+    @Value("${app.switch.motivos.reintento-max-ms:60000}")
+    private long reintentoMaxMs;
+
+    @Scheduled(fixedDelayString = "${app.switch.motivos.refresco-ms:3600000}")
+    public void refrescar() {
+        intentarCarga(0);
+    }
+
+    private void intentarCarga(int intento) {
+        try {
+            cargar(switchClient.obtenerMotivosDevolucion());
+        } catch (Exception e) {
+            log.warn("motivos.catalogo refresco fallido copiaPrevia={} error={}", actual.get() != null,
+                    e.getMessage());
+        }
+        if (actual.get() == null) {
+            programarReintento(intento);
+        }
+    }
+
+    private void programarReintento(int intento) {
+        if (!reintentoProgramado.compareAndSet(false, true)) {
+            return;
+        }
+        long retardo = Math.min(reintentoMaxMs, reintentoInicialMs * (1L << Math.min(intento, 20)));
+        log.info("motivos.catalogo sin copia, reintento={} retardoMs={}", intento + 1, retardo);
+        taskScheduler.schedule(() -> {
+            reintentoProgramado.set(false);
+            intentarCarga(intento + 1);
+        }, Instant.now().plus(Duration.ofMillis(retardo)));
+    }
+
+    void cargar(List<Map<String, String>> motivos) {
+        if (motivos == null || motivos.isEmpty()) {
+            log.warn("motivos.catalogo respuesta vacía, se conserva la copia previa");
+            return;
+        }
+        Set<String> codigos = new HashSet<>();
+        for (Map<String, String> motivo : motivos) {
+            String codigo = motivo.get("code");
+            if (codigo != null) {
+                codigos.add(codigo.trim().toUpperCase(Locale.ROOT));
+            }
+        }
+        Catalogo nuevo = new Catalogo(List.copyOf(motivos), Set.copyOf(codigos), etag(motivos));
+        Catalogo previo = actual.getAndSet(nuevo);
+        if (previo == null || !previo.getEtag().equals(nuevo.getEtag())) {
+            log.info("motivos.catalogo actualizado total={}", codigos.size());
+        }
+    }
+
+    // Mismo esquema que DirectorioBancosService: MD5 del JSON publicado, estable entre réplicas y reinicios
+    private String etag(List<Map<String, String>> motivos) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(motivos)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo de motivos", e);
+        }
+    }
+
+    public List<Map<String, String>> getMotivos() {
+        Catalogo catalogo = actual.get();
+        return catalogo != null ? catalogo.getMotivos() : List.of();
+    }
+
+    /** ETag de la copia vigente; null si aún no se ha cargado. */
+    public String getEtag() {
+        Catalogo catalogo = actual.get();
+        return catalogo != null ? catalogo.getEtag() : null;
+    }
+
+    /** El código debe venir normalizado (mayúsculas, sin espacios). */
+    public boolean esCodigoValido(String codigo) {
+        Catalogo catalogo = actual.get();
+        return catalogo != null ? catalogo.getCodigos().contains(codigo) : FORMATO_ISO.matcher(codigo).matches();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Catalogo {
+        private final List<Map<String, String>> motivos;
+        private final Set<String> codigos;
+        private final String etag;
+    }
+}
@@ -0,0 +1,189 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.arcbank.cbs.transaccion.repository.SwitchOutboxRepository;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository.PendienteConciliacion;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Conciliación periódica de transferencias salientes que siguen PENDIENTE (confirmación agotada,
+ * reintentos del outbox agotados, reinicios). Recorre por keyset (FechaCreacion, IdTransaccion) y consulta
+ * el estado en el Switch con concurrencia acotada y límite de tasa.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConciliacionService {
+
+    private final TransaccionRepository transaccionRepository;
+    private final SwitchOutboxRepository outboxRepository;
+    private final SwitchClientService switchClientService;
+    private final TransaccionService transaccionService;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+    private final AtomicInteger pendientesUltimoCiclo = new AtomicInteger();
+
+    @Value("${app.conciliacion.edad-minima-ms:300000}")
+    private long edadMinimaMs;
+
+    @Value("${app.conciliacion.tamanio-pagina:500}")
+    private int tamanioPagina;
+
+    @Value("${app.conciliacion.max-por-ciclo:20000}")
+    private int maxPorCiclo;
+
+    @Value("${app.conciliacion.concurrencia:8}")
+    private int concurrencia;
+
+    @Value("${app.conciliacion.consultas-por-segundo:20}")
+    private double consultasPorSegundo;
+
+    private LimitadorTasa limitador;
+    private Counter completadas;
+    private Counter revertidas;
+    private Counter sinCambio;
+    private Counter errores;
+    private Timer latenciaConsulta;
+    private Timer duracionCiclo;
+
+    @PostConstruct
+    void inicializar() {
+        limitador = new LimitadorTasa(consultasPorSegundo);
+        completadas = contador("completada");
+        revertidas = contador("revertida");
+        sinCambio = contador("sin_cambio");
+        errores = contador("error");
+        latenciaConsulta = Timer.builder("conciliacion.consulta.switch")
+                .description("Latencia de consultarEstado durante la conciliación")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        duracionCiclo = Timer.builder("conciliacion.ciclo").register(meterRegistry);
+        Gauge.builder("conciliacion.pendientes", pendientesUltimoCiclo, AtomicInteger::get)
+                .description("Transferencias PENDIENTE revisadas en el último ciclo")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.conciliacion.intervalo-ms:60000}",
+            initialDelayString = "${app.conciliacion.retardo-inicial-ms:30000}")
+    public void conciliar() {
+        if (!enCurso.compareAndSet(false, true)) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        int revisadas = 0;
+        try {
+            LocalDateTime limite = LocalDateTime.now().minus(Duration.ofMillis(edadMinimaMs));
+            LocalDateTime cursorFecha = LocalDateTime.of(1970, 1, 1, 0, 0);
+            Integer cursorId = 0;
+            Semaphore permisos = new Semaphore(concurrencia);
+
+            try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+                while (revisadas < maxPorCiclo) {
+                    List<PendienteConciliacion> pagina = transaccionRepository.findPendientesParaConciliar(
+                            limite, cursorFecha, cursorId, PageRequest.of(0, tamanioPagina));
+                    if (pagina.isEmpty()) {
+                        break;
+                    }
+                    for (PendienteConciliacion p : pagina) {
+                        permisos.acquire();
+                        limitador.adquirir();
+                        ejecutor.submit(() -> {
+                            try {
+                                conciliarUna(p.getReferencia());
+                            } finally {
+                                permisos.release();
+                            }
+                        });
+                    }
+                    revisadas += pagina.size();
+                    PendienteConciliacion ultima = pagina.get(pagina.size() - 1);
+                    cursorFecha = ultima.getFechaCreacion();
+                    cursorId = ultima.getIdTransaccion();
+                    if (pagina.size() < tamanioPagina) {
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("conciliacion.ciclo error={}", e.getMessage());
+        } finally {
+            pendientesUltimoCiclo.set(revisadas);
+            duracionCiclo.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            enCurso.set(false);
+            if (revisadas > 0) {
+                log.info("conciliacion.ciclo revisadas={} duracionMs={}", revisadas,
+                        (System.nanoTime() - inicio) / 1_000_000);
+            }
+        }
+    }
+
+    void conciliarUna(String referencia) {
+        try {
+            Map<String, Object> estadoTx;
+            try {
+                estadoTx = latenciaConsulta.recordCallable(() -> switchClientService.obtenerEstado(referencia));
+            } catch (FeignException.NotFound e) {
+                estadoTx = null;
+            }
+            EstadoSwitch estado = EstadoSwitch.desdeRespuesta(estadoTx);
+
+            if (estado == EstadoSwitch.COMPLETADA) {
+                transaccionService.resolverTransferenciaSalida(referencia, true, null);
+                completadas.increment();
+            } else if (estado == EstadoSwitch.RECHAZADA) {
+                transaccionService.resolverTransferenciaSalida(referencia, false,
+                        EstadoSwitch.motivoRechazo(estadoTx));
+                revertidas.increment();
+            } else if (estadoTx == null && nuncaEntregada(referencia)) {
+                // El Switch no la conoce y el outbox agotó sus intentos: se revierte el débito
+                transaccionService.resolverTransferenciaSalida(referencia, false,
+                        "Transferencia no entregada al Switch");
+                revertidas.increment();
+            } else {
+                sinCambio.increment();
+            }
+        } catch (Exception e) {
+            errores.increment();
+            log.warn("conciliacion.transferencia referencia={} error={}", referencia, e.getMessage());
+        }
+    }
+
+    private boolean nuncaEntregada(String referencia) {
+        return outboxRepository.findByReferencia(referencia)
+                .map(o -> "AGOTADO".equals(o.getEstado()) || "RECHAZADO".equals(o.getEstado()))
+                .orElse(false);
+    }
+
+    private Counter contador(String resultado) {
+        return Counter.builder("conciliacion.transferencias")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,107 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.arcbank.cbs.transaccion.dto.TransaccionResponseDTO;
+import com.arcbank.cbs.transaccion.event.TransferenciaEnviadaEvent;
+import com.arcbank.cbs.transaccion.event.TransferenciaResueltaEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Confirma en segundo plano las transferencias enviadas al Switch.
+ * Consulta el estado con backoff exponencial y notifica a los clientes que esperan (long-poll).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConfirmacionSwitchService {
+
+    private final SwitchClientService switchClientService;
+    private final TransaccionService transaccionService;
+    private final TaskScheduler taskScheduler;
+
+    private final Map<String, Set<CompletableFuture<TransaccionResponseDTO>>> esperas = new ConcurrentHashMap<>();
+
+    @Value("${app.switch.confirmacion.intentos-max:10}")
+    private int intentosMax;
+
+    @Value("${app.switch.confirmacion.retardo-inicial-ms:1500}")
+    private long retardoInicialMs;
+
+    @Value("${app.switch.confirmacion.retardo-max-ms:30000}")
+    private long retardoMaxMs;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransferenciaEnviada(TransferenciaEnviadaEvent event) {
+        programar(event.getReferencia(), 0);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransferenciaResuelta(TransferenciaResueltaEvent event) {
+        TransaccionResponseDTO dto = event.getTransaccion();
+        Set<CompletableFuture<TransaccionResponseDTO>> pendientes = esperas.remove(dto.getReferencia());
+        if (pendientes != null) {
+            pendientes.forEach(f -> f.complete(dto));
+        }
+    }
+
+    /**
+     * Registra una espera sobre la referencia; el future se completa cuando la transferencia se resuelve.
+     * Quien llama debe invocar {@link #cancelarEspera} si abandona la espera.
+     */
+    public CompletableFuture<TransaccionResponseDTO> suscribir(String referencia) {
+        CompletableFuture<TransaccionResponseDTO> future = new CompletableFuture<>();
+        esperas.computeIfAbsent(referencia, k -> ConcurrentHashMap.newKeySet()).add(future);
+        return future;
+    }
+
+    public void cancelarEspera(String referencia, CompletableFuture<TransaccionResponseDTO> future) {
+        esperas.computeIfPresent(referencia, (k, set) -> {
+            set.remove(future);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private void programar(String referencia, int intento) {
+        long retardo = Math.min(retardoMaxMs, retardoInicialMs * (1L << Math.min(intento, 20)));
+        taskScheduler.schedule(() -> verificar(referencia, intento), Instant.now().plus(Duration.ofMillis(retardo)));
+    }
+
+    private void verificar(String referencia, int intento) {
+        try {
+            Map<String, Object> estadoTx = switchClientService.consultarEstado(referencia);
+            EstadoSwitch estado = EstadoSwitch.desdeRespuesta(estadoTx);
+
+            if (estado == EstadoSwitch.COMPLETADA) {
+                transaccionService.resolverTransferenciaSalida(referencia, true, null);
+                return;
+            }
+            if (estado == EstadoSwitch.RECHAZADA) {
+                transaccionService.resolverTransferenciaSalida(referencia, false,
+                        EstadoSwitch.motivoRechazo(estadoTx));
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Error confirmando transferencia {} (intento {}): {}", referencia, intento + 1, e.getMessage());
+        }
+
+        if (intento + 1 < intentosMax) {
+            programar(referencia, intento + 1);
+        } else {
+            log.warn("Transferencia {} sin confirmación tras {} intentos. Queda PENDIENTE.", referencia, intentosMax);
+        }
+    }
+}
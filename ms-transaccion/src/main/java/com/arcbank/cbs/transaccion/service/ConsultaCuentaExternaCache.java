@@ -0,0 +1,117 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché de consultas de cuenta externa (acmt.023) por (banco, cuenta).
+ * Las consultas concurrentes de la misma clave comparten una sola llamada al Switch; los errores no se guardan.
+ * Las respuestas positivas y negativas (incluido un 404 del Switch) tienen TTL distintos.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsultaCuentaExternaCache {
+
+    // Mismo formato que la respuesta negativa del Switch (ver ConsultaCuentaHandler)
+    static final Map<String, Object> CUENTA_NO_ENCONTRADA = Map.of(
+            "status", "FAILED",
+            "data", Map.of("exists", false, "mensaje", "Cuenta no encontrada"));
+
+    private final SwitchClientService switchClientService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.switch.consulta-cuenta.cache.ttl-positivo-ms:300000}")
+    private long ttlPositivoMs;
+
+    @Value("${app.switch.consulta-cuenta.cache.ttl-negativo-ms:30000}")
+    private long ttlNegativoMs;
+
+    @Value("${app.switch.consulta-cuenta.cache.max-entradas:20000}")
+    private long maxEntradas;
+
+    private AsyncCache<String, Map<String, Object>> consultas;
+
+    @PostConstruct
+    void inicializar() {
+        consultas = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new ExpiracionPorResultado(Duration.ofMillis(ttlPositivoMs).toNanos(),
+                        Duration.ofMillis(ttlNegativoMs).toNanos()))
+                // La carga bloquea en HTTP: hilos virtuales en lugar del ForkJoinPool común
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, consultas, "switch.consulta.cuenta");
+        Gauge.builder("switch.consulta.cuenta.hit.ratio", consultas, c -> c.synchronous().stats().hitRate())
+                .register(meterRegistry);
+    }
+
+    public Map<String, Object> consultar(String targetBankId, String targetAccountNumber) {
+        String clave = targetBankId.trim().toUpperCase(Locale.ROOT) + "|" + targetAccountNumber.trim();
+        try {
+            return consultas.get(clave, k -> cargar(targetBankId, targetAccountNumber)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private Map<String, Object> cargar(String targetBankId, String targetAccountNumber) {
+        try {
+            return switchClientService.validarCuenta(targetBankId, targetAccountNumber);
+        } catch (FeignException.NotFound e) {
+            return CUENTA_NO_ENCONTRADA;
+        }
+    }
+
+    static boolean esPositiva(Map<String, Object> respuesta) {
+        return respuesta != null && respuesta.get("data") instanceof Map<?, ?> data
+                && Boolean.TRUE.equals(data.get("exists"));
+    }
+
+    private static class ExpiracionPorResultado implements Expiry<String, Map<String, Object>> {
+        private final long positivoNanos;
+        private final long negativoNanos;
+
+        ExpiracionPorResultado(long positivoNanos, long negativoNanos) {
+            this.positivoNanos = positivoNanos;
+            this.negativoNanos = negativoNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String clave, Map<String, Object> respuesta, long ahora) {
+            return esPositiva(respuesta) ? positivoNanos : negativoNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String clave, Map<String, Object> respuesta, long ahora, long restante) {
+            return expireAfterCreate(clave, respuesta, ahora);
+        }
+
+        @Override
+        public long expireAfterRead(String clave, Map<String, Object> respuesta, long ahora, long restante) {
+            return restante;
+        }
+    }
+}
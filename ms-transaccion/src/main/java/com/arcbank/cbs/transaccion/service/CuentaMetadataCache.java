@@ -0,0 +1,233 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.arcbank.cbs.transaccion.client.CuentaCliente;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché acotada (TTL) de metadatos de cuenta: número, titular, cliente.
+ * Nunca guarda saldos. El estado cambia (bloqueo, cierre) y se guarda aparte con un TTL corto: al vencer,
+ * la siguiente lectura vuelve a consultar la cuenta en MS Cuentas.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CuentaMetadataCache {
+
+    private static final List<String> CAMPOS_VOLATILES = List.of(
+            "saldoActual", "saldoDisponible", "fechaUltimaTransaccion", "estado");
+
+    // Marca para cuentas sin estado informado (Caffeine no admite valores null)
+    private static final String SIN_ESTADO = "";
+
+    private final CuentaCliente cuentaCliente;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.cuentas.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    @Value("${app.cuentas.cache.max-entradas:10000}")
+    private long maxEntradas;
+
+    @Value("${app.cuentas.cache.estado-ttl-ms:5000}")
+    private long estadoTtlMs;
+
+    private Cache<Integer, Map<String, Object>> porId;
+    private Cache<String, Map<String, Object>> porNumero;
+    private Cache<Integer, String> estadoPorId;
+
+    // Reemplazable en pruebas para simular el paso del tiempo
+    Ticker ticker = Ticker.systemTicker();
+
+    @PostConstruct
+    void inicializar() {
+        porId = construir(ttlMs);
+        porNumero = construir(ttlMs);
+        estadoPorId = construir(estadoTtlMs);
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "cuentas.metadata.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, porNumero, "cuentas.metadata.numero");
+        CaffeineCacheMetrics.monitor(meterRegistry, estadoPorId, "cuentas.metadata.estado");
+    }
+
+    public Map<String, Object> obtenerCuenta(Integer idCuenta) {
+        Map<String, Object> metadatos = porId.get(idCuenta, id -> registrar(cuentaCliente.obtenerCuenta(id), false));
+        if (metadatos != null && estadoPorId.getIfPresent(idCuenta) == null) {
+            metadatos = refrescar(cuentaCliente.obtenerCuenta(idCuenta), idCuenta, null);
+        }
+        return conEstado(metadatos);
+    }
+
+    public Map<String, Object> buscarPorNumero(String numeroCuenta) {
+        Map<String, Object> metadatos = porNumero.get(numeroCuenta,
+                numero -> registrar(cuentaCliente.buscarPorNumero(numero), true));
+        if (metadatos != null && estadoVencido(metadatos)) {
+            metadatos = refrescar(cuentaCliente.buscarPorNumero(numeroCuenta), null, numeroCuenta);
+        }
+        return conEstado(metadatos);
+    }
+
+    /**
+     * Resuelve un lote de números: los aciertos salen de la caché y los faltantes en una sola llamada;
+     * las cuentas con el estado vencido se vuelven a consultar juntas en una segunda llamada.
+     * Los números inexistentes no aparecen en el resultado.
+     */
+    public Map<String, Map<String, Object>> buscarPorNumeros(Collection<String> numerosCuenta) {
+        Map<String, Map<String, Object>> metadatos = new HashMap<>(porNumero.getAll(numerosCuenta, faltantes -> {
+            Map<String, Map<String, Object>> cargadas = new HashMap<>();
+            cuentaCliente.buscarPorNumeros(new ArrayList<>(faltantes))
+                    .forEach((numero, cuenta) -> cargadas.put(numero, registrar(cuenta, true)));
+            return cargadas;
+        }));
+
+        List<String> vencidas = new ArrayList<>();
+        metadatos.forEach((numero, cuenta) -> {
+            if (estadoVencido(cuenta)) {
+                vencidas.add(numero);
+            }
+        });
+        if (!vencidas.isEmpty()) {
+            Map<String, Map<String, Object>> frescas = cuentaCliente.buscarPorNumeros(vencidas);
+            for (String numero : vencidas) {
+                Map<String, Object> fresca = frescas != null ? frescas.get(numero) : null;
+                metadatos.put(numero, refrescar(fresca, null, numero));
+            }
+        }
+
+        Map<String, Map<String, Object>> resultado = new HashMap<>();
+        metadatos.forEach((numero, cuenta) -> {
+            Map<String, Object> completa = conEstado(cuenta);
+            if (completa != null) {
+                resultado.put(numero, completa);
+            }
+        });
+        return resultado;
+    }
+
+    /** Cuentas sin estado informado se aceptan (compatibilidad); cualquier otro estado distinto de ACTIVA no. */
+    public static boolean admiteMovimientos(Map<String, Object> cuenta) {
+        Object estado = cuenta != null ? cuenta.get("estado") : null;
+        return estado == null || "ACTIVA".equalsIgnoreCase(estado.toString())
+                || "ACTIVE".equalsIgnoreCase(estado.toString());
+    }
+
+    public void invalidar(Integer idCuenta) {
+        Map<String, Object> cuenta = porId.getIfPresent(idCuenta);
+        porId.invalidate(idCuenta);
+        estadoPorId.invalidate(idCuenta);
+        if (cuenta != null && cuenta.get("numeroCuenta") != null) {
+            porNumero.invalidate(cuenta.get("numeroCuenta").toString());
+        }
+    }
+
+    public void invalidarNumero(String numeroCuenta) {
+        Map<String, Object> cuenta = porNumero.getIfPresent(numeroCuenta);
+        porNumero.invalidate(numeroCuenta);
+        if (cuenta != null && cuenta.get("idCuenta") != null) {
+            Integer idCuenta = Integer.valueOf(cuenta.get("idCuenta").toString());
+            porId.invalidate(idCuenta);
+            estadoPorId.invalidate(idCuenta);
+        }
+    }
+
+    public void invalidarTodo() {
+        porId.invalidateAll();
+        porNumero.invalidateAll();
+        estadoPorId.invalidateAll();
+    }
+
+    private boolean estadoVencido(Map<String, Object> metadatos) {
+        Integer idCuenta = idDe(metadatos);
+        return idCuenta == null || estadoPorId.getIfPresent(idCuenta) == null;
+    }
+
+    // Recarga fuera de un cómputo de Caffeine: escribe en ambas cachés; si la cuenta ya no existe, la invalida
+    private Map<String, Object> refrescar(Map<String, Object> cuenta, Integer idCuenta, String numeroCuenta) {
+        if (cuenta == null) {
+            if (idCuenta != null) {
+                invalidar(idCuenta);
+            }
+            if (numeroCuenta != null) {
+                invalidarNumero(numeroCuenta);
+            }
+            return null;
+        }
+        Map<String, Object> metadatos = registrar(cuenta, true);
+        Object numero = metadatos.get("numeroCuenta");
+        if (numero != null) {
+            porNumero.put(numero.toString(), metadatos);
+        }
+        return metadatos;
+    }
+
+    private Map<String, Object> conEstado(Map<String, Object> metadatos) {
+        if (metadatos == null) {
+            return null;
+        }
+        Integer idCuenta = idDe(metadatos);
+        String estado = idCuenta != null ? estadoPorId.getIfPresent(idCuenta) : null;
+        if (estado == null || estado.equals(SIN_ESTADO)) {
+            return metadatos;
+        }
+        Map<String, Object> cuenta = new HashMap<>(metadatos);
+        cuenta.put("estado", estado);
+        return Collections.unmodifiableMap(cuenta);
+    }
+
+    private static Integer idDe(Map<String, Object> metadatos) {
+        Object id = metadatos.get("idCuenta");
+        return id != null ? Integer.valueOf(id.toString()) : null;
+    }
+
+    private Map<String, Object> registrar(Map<String, Object> cuenta, boolean cargadaPorNumero) {
+        if (cuenta == null) {
+            return null;
+        }
+        Map<String, Object> metadatos = new HashMap<>(cuenta);
+        CAMPOS_VOLATILES.forEach(metadatos::remove);
+        Map<String, Object> inmutable = Collections.unmodifiableMap(metadatos);
+
+        Integer idCuenta = idDe(inmutable);
+        if (idCuenta != null) {
+            Object estado = cuenta.get("estado");
+            estadoPorId.put(idCuenta, estado != null ? estado.toString() : SIN_ESTADO);
+        }
+
+        // Una consulta por número también sirve a las búsquedas por ID y viceversa.
+        // Solo se escribe en la otra caché: Caffeine no admite escrituras en la misma durante la carga.
+        Object id = inmutable.get("idCuenta");
+        Object numero = inmutable.get("numeroCuenta");
+        if (cargadaPorNumero && id != null) {
+            porId.put(Integer.valueOf(id.toString()), inmutable);
+        } else if (!cargadaPorNumero && numero != null) {
+            porNumero.put(numero.toString(), inmutable);
+        }
+        return inmutable;
+    }
+
+    private <K, V> Cache<K, V> construir(long ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Directorio en memoria de los bancos conectados al Switch.
+ * Se refresca en segundo plano; si el Switch no responde o responde vacío se sigue sirviendo la última
+ * copia válida.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DirectorioBancosService {
+
+    private static final List<String> CAMPOS_ID = List.of("codigo", "id", "bankId");
+
+    private final SwitchClientService switchClientService;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<Instantanea> actual = new AtomicReference<>();
+    private final ReentrantLock carga = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${app.bancos.directorio.refresco-ms:300000}")
+    public void refrescar() {
+        carga.lock();
+        try {
+            cargar();
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    /**
+     * Devuelve la copia vigente; solo consulta al Switch si aún no se ha cargado nunca.
+     * Vacío si el Switch no responde y no hay copia previa.
+     */
+    public Optional<Instantanea> obtener() {
+        Instantanea instantanea = actual.get();
+        if (instantanea != null) {
+            return Optional.of(instantanea);
+        }
+        carga.lock();
+        try {
+            return Optional.ofNullable(actual.get() != null ? actual.get() : cargar());
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    public Optional<Map<String, Object>> buscar(String idBanco) {
+        Instantanea instantanea = actual.get();
+        if (instantanea == null || idBanco == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(instantanea.porId.get(normalizar(idBanco)));
+    }
+
+    public boolean estaCargado() {
+        return actual.get() != null;
+    }
+
+    private Instantanea cargar() {
+        try {
+            List<Map<String, Object>> bancos = switchClientService.obtenerBancos();
+            if (bancos == null || bancos.isEmpty()) {
+                // Un directorio vacío dejaría sin destino todas las transferencias: se conserva la copia previa
+                Instantanea previa = actual.get();
+                log.warn("bancos.directorio respuesta vacía, se conserva la copia previa copiaPrevia={}",
+                        previa != null);
+                return previa;
+            }
+            String etag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(bancos)) + "\"";
+
+            Instantanea previa = actual.get();
+            if (previa != null && previa.etag.equals(etag)) {
+                previa.cargadoEn = Instant.now();
+                return previa;
+            }
+
+            Instantanea nueva = new Instantanea(Collections.unmodifiableList(bancos), indexar(bancos), etag);
+            actual.set(nueva);
+            log.info("bancos.directorio actualizado total={} etag={}", bancos.size(), etag);
+            return nueva;
+        } catch (Exception e) {
+            Instantanea previa = actual.get();
+            log.warn("bancos.directorio refresco fallido copiaPrevia={} cargadaEn={} error={}",
+                    previa != null, previa != null ? previa.cargadoEn : null, e.getMessage());
+            return previa;
+        }
+    }
+
+    private static Map<String, Map<String, Object>> indexar(List<Map<String, Object>> bancos) {
+        Map<String, Map<String, Object>> porId = new HashMap<>();
+        for (Map<String, Object> banco : bancos) {
+            for (String campo : CAMPOS_ID) {
+                Object valor = banco.get(campo);
+                if (valor != null) {
+                    porId.putIfAbsent(normalizar(valor.toString()), banco);
+                }
+            }
+        }
+        return porId;
+    }
+
+    private static String normalizar(String idBanco) {
+        return idBanco.trim().toUpperCase(Locale.ROOT);
+    }
+
+    @Getter
+    public static class Instantanea {
+        private final List<Map<String, Object>> bancos;
+        private final Map<String, Map<String, Object>> porId;
+        private final String etag;
+        private volatile Instant cargadoEn = Instant.now();
+
+        Instantanea(List<Map<String, Object>> bancos, Map<String, Map<String, Object>> porId, String etag) {
+            this.bancos = bancos;
+            this.porId = porId;
+            this.etag = etag;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estado de una transferencia saliente según la consulta al Switch.
+ * Compartido por la confirmación asíncrona y la conciliación para que ambas decidan lo mismo.
+ */
+public enum EstadoSwitch {
+
+    COMPLETADA,
+    RECHAZADA,
+    EN_CURSO;
+
+    private static final Set<String> RECHAZOS = Set.of("FAILED", "REJECTED");
+
+    // Sin respuesta o con un status no terminal se sigue esperando
+    public static EstadoSwitch desdeRespuesta(Map<String, Object> estadoTx) {
+        Object status = estadoTx != null ? estadoTx.get("status") : null;
+        if (status == null) {
+            return EN_CURSO;
+        }
+        String valor = status.toString().trim().toUpperCase(Locale.ROOT);
+        if ("COMPLETED".equals(valor)) {
+            return COMPLETADA;
+        }
+        return RECHAZOS.contains(valor) ? RECHAZADA : EN_CURSO;
+    }
+
+    public static String motivoRechazo(Map<String, Object> estadoTx) {
+        Object error = estadoTx != null ? estadoTx.get("error") : null;
+        return error != null ? error.toString() : "Rechazo del Switch";
+    }
+}
@@ -0,0 +1,239 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.arcbank.cbs.transaccion.dto.TransaccionRequestDTO;
+import com.arcbank.cbs.transaccion.dto.TransaccionResponseDTO;
+import com.arcbank.cbs.transaccion.exception.BusinessException;
+import com.arcbank.cbs.transaccion.exception.ResultadoInciertoException;
+import com.arcbank.cbs.transaccion.exception.SolicitudEnCursoException;
+import com.arcbank.cbs.transaccion.model.SolicitudIdempotente;
+import com.arcbank.cbs.transaccion.repository.SolicitudIdempotenteRepository;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Soporte de Idempotency-Key para POST /api/transacciones.
+ * La clave se traduce a una Referencia determinista: la memoria (con TTL) resuelve los reintentos
+ * recientes y, antes de cualquier llamada remota, la Referencia se reclama con un INSERT confirmado en
+ * SolicitudIdempotente para que entre réplicas o tras un reinicio solo una solicitud aplique la operación.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotenciaService {
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+    private static final TypeReference<Map<String, Object>> CAMPOS = new TypeReference<>() {
+    };
+
+    private final TransaccionRepository transaccionRepository;
+    private final SolicitudIdempotenteRepository solicitudRepository;
+    private final TransaccionService transaccionService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+    @Value("${app.idempotencia.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${app.idempotencia.max-entradas:100000}")
+    private int maxEntradas;
+
+    // Un reclamo sin Transaccion más antiguo que esto se considera abandonado (la instancia cayó)
+    @Value("${app.idempotencia.reclamo-max-ms:600000}")
+    private long reclamoMaxMs;
+
+    public ResultadoIdempotente ejecutar(String clave, TransaccionRequestDTO request,
+            Supplier<TransaccionResponseDTO> operacion) {
+        if (clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new BusinessException("La Idempotency-Key no puede superar " + LONGITUD_MAXIMA_CLAVE + " caracteres.");
+        }
+
+        String referencia = referenciaPara(clave);
+        request.setReferencia(referencia);
+        String huella = huella(request);
+        long ahora = System.currentTimeMillis();
+
+        Entrada nueva = new Entrada(huella, null, ahora + ttlMs);
+        Entrada vigente = entradas.compute(clave,
+                (k, actual) -> actual == null || actual.expirada(ahora) ? nueva : actual);
+
+        if (vigente != nueva) {
+            if (!vigente.getHuella().equals(huella)) {
+                throw new BusinessException("La Idempotency-Key ya fue usada con un cuerpo de solicitud distinto.");
+            }
+            if (vigente.getRespuesta() == null) {
+                throw new SolicitudEnCursoException("Ya existe una solicitud en proceso con la misma Idempotency-Key.");
+            }
+            return new ResultadoIdempotente(refrescar(vigente.getRespuesta()), true);
+        }
+
+        try {
+            if (!reclamar(referencia, huella)) {
+                // Otra réplica (o una ejecución anterior) ya reclamó la Referencia
+                return new ResultadoIdempotente(guardar(clave, huella, respuestaPrevia(referencia, huella)), true);
+            }
+            // El reclamo pudo haberse purgado tras el TTL mientras la Transaccion sigue registrada
+            if (transaccionRepository.findByReferencia(referencia).isPresent()) {
+                return new ResultadoIdempotente(
+                        guardar(clave, huella, transaccionService.obtenerPorReferencia(referencia)), true);
+            }
+        } catch (RuntimeException e) {
+            entradas.remove(clave, nueva);
+            throw e;
+        }
+
+        try {
+            return new ResultadoIdempotente(guardar(clave, huella, operacion.get()), false);
+        } catch (RuntimeException e) {
+            if (esRechazoDefinitivo(e)) {
+                // Nada se movió (o se rechazó): se libera el reclamo para que el cliente pueda reintentar
+                try {
+                    solicitudRepository.eliminarPorReferencia(referencia);
+                } catch (RuntimeException ex) {
+                    log.warn("idempotencia.reclamo no liberado referencia={} error={}", referencia, ex.getMessage());
+                }
+            } else {
+                // Un tramo pudo aplicarse en MS Cuentas: el reclamo se conserva hasta reclamo-max-ms y el
+                // reintento posterior reutiliza las referencias por tramo, que MS Cuentas deduplica
+                log.warn("idempotencia.reclamo conservado referencia={} error={}", referencia, e.getMessage());
+            }
+            entradas.remove(clave, nueva);
+            throw e;
+        }
+    }
+
+    // Validación, fondos insuficientes, cuenta inexistente: rechazos 4xx que no dejaron movimientos aplicados
+    private static boolean esRechazoDefinitivo(RuntimeException e) {
+        return e instanceof BusinessException && !(e instanceof ResultadoInciertoException);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotencia.purga-ms:60000}")
+    public void purgarExpiradas() {
+        long ahora = System.currentTimeMillis();
+        entradas.entrySet().removeIf(e -> e.getValue().expirada(ahora));
+        try {
+            LocalDateTime fecha = LocalDateTime.now();
+            int purgadas = solicitudRepository.purgar(fecha.minusNanos(ttlMs * 1_000_000),
+                    fecha.minusNanos(reclamoMaxMs * 1_000_000));
+            if (purgadas > 0) {
+                log.debug("idempotencia.reclamos purgados={}", purgadas);
+            }
+        } catch (RuntimeException e) {
+            log.warn("idempotencia.reclamos purga fallida error={}", e.getMessage());
+        }
+    }
+
+    // Fuera de cualquier transacción: saveAndFlush confirma el INSERT antes de que la operación toque saldos
+    private boolean reclamar(String referencia, String huella) {
+        try {
+            solicitudRepository.saveAndFlush(SolicitudIdempotente.builder()
+                    .referencia(referencia)
+                    .huella(huella)
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.info("idempotencia.reclamo existente referencia={}", referencia);
+            return false;
+        }
+    }
+
+    private TransaccionResponseDTO respuestaPrevia(String referencia, String huella) {
+        SolicitudIdempotente previa = solicitudRepository.findByReferencia(referencia).orElse(null);
+        if (previa != null && !previa.getHuella().equals(huella)) {
+            throw new BusinessException("La Idempotency-Key ya fue usada con un cuerpo de solicitud distinto.");
+        }
+        if (transaccionRepository.findByReferencia(referencia).isPresent()) {
+            return transaccionService.obtenerPorReferencia(referencia);
+        }
+        // Reclamada pero aún sin Transaccion: la primera solicitud sigue en curso (o acaba de fallar)
+        throw new SolicitudEnCursoException("Ya existe una solicitud en proceso con la misma Idempotency-Key.");
+    }
+
+    /**
+     * Hash de la serialización canónica del cuerpo: campos ordenados por nombre y monto sin ceros a la
+     * derecha, para que 100 y 100.00 cuenten como el mismo cuerpo.
+     */
+    String huella(TransaccionRequestDTO request) {
+        Map<String, Object> campos = new TreeMap<>(objectMapper.convertValue(request, CAMPOS));
+        if (request.getMonto() != null) {
+            campos.put("monto", request.getMonto().stripTrailingZeros().toPlainString());
+        }
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(campos));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la solicitud", e);
+        }
+    }
+
+    private TransaccionResponseDTO guardar(String clave, String huella, TransaccionResponseDTO respuesta) {
+        if (entradas.size() >= maxEntradas) {
+            purgarExpiradas();
+        }
+        if (entradas.size() < maxEntradas) {
+            entradas.put(clave, new Entrada(huella, respuesta, System.currentTimeMillis() + ttlMs));
+        } else {
+            // Sin espacio en memoria: el respaldo por Referencia sigue garantizando la idempotencia
+            entradas.remove(clave);
+        }
+        return respuesta;
+    }
+
+    private TransaccionResponseDTO refrescar(TransaccionResponseDTO respuesta) {
+        // Una transferencia PENDIENTE pudo resolverse desde que se guardó la respuesta
+        if ("PENDIENTE".equals(respuesta.getEstado())) {
+            return transaccionService.obtenerPorReferencia(respuesta.getReferencia());
+        }
+        return respuesta;
+    }
+
+    static String referenciaPara(String clave) {
+        if (clave.length() == 36) {
+            try {
+                return UUID.fromString(clave).toString();
+            } catch (IllegalArgumentException ignored) {
+                // No es un UUID, se deriva uno
+            }
+        }
+        return UUID.nameUUIDFromBytes(("idempotency-key:" + clave).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entrada {
+        private final String huella;
+        private final TransaccionResponseDTO respuesta;
+        private final long expiraEn;
+
+        boolean expirada(long ahora) {
+            return ahora > expiraEn;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ResultadoIdempotente {
+        private final TransaccionResponseDTO respuesta;
+        private final boolean repetida;
+    }
+}
@@ -0,0 +1,238 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.arcbank.cbs.transaccion.client.ClienteCliente;
+import com.arcbank.cbs.transaccion.client.CuentaCliente;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Modelo de lectura local número de cuenta → (id, estado, titular) para responder acmt.023 desde memoria.
+ * Sincronización incremental por keyset (IDs nuevos) y reconstrucción completa periódica, que recoge
+ * cambios de estado o de nombre. Si MS Cuentas o MS Clientes no responden se sigue usando la última copia;
+ * mientras no haya ninguna se reintenta con backoff corto en lugar de esperar a la siguiente reconstrucción.
+ * Como el estado indexado puede tener minutos, solo se responde desde memoria para cuenta ACTIVA con
+ * titular ACTIVO; cualquier otro caso se consulta en vivo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceCuentasLocal {
+
+    private static final String CUENTA_ACTIVA = "ACTIVA";
+    private static final String CLIENTE_ACTIVO = "ACTIVO";
+
+    private final CuentaCliente cuentaCliente;
+    private final ClienteCliente clienteCliente;
+    private final MeterRegistry meterRegistry;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${app.cuentas.indice.tamanio-pagina:2000}")
+    private int tamanioPagina;
+
+    @Value("${app.cuentas.indice.reintento-inicial-ms:2000}")
+    private long reintentoInicialMs;
+
+    @Value("${app.cuentas.indice.reintento-max-ms:60000}")
+    private long reintentoMaxMs;
+
+    private final ReentrantLock sincronizacion = new ReentrantLock();
+    // Un solo reintento en espera aunque la reconstrucción periódica falle a la vez
+    private final AtomicBoolean reintentoProgramado = new AtomicBoolean();
+
+    // null hasta la primera reconstrucción completa
+    private volatile Indice indice;
+
+    private Counter aciertos;
+    private Counter fallos;
+    private Counter noActivas;
+
+    @PostConstruct
+    void inicializar() {
+        aciertos = meterRegistry.counter("cuentas.indice.consultas", "resultado", "hit");
+        fallos = meterRegistry.counter("cuentas.indice.consultas", "resultado", "miss");
+        noActivas = meterRegistry.counter("cuentas.indice.consultas", "resultado", "no_activa");
+        Gauge.builder("cuentas.indice.tamanio", this, i -> i.indice != null ? i.indice.cuentas.size() : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Busca primero sin ceros a la izquierda y luego el número tal cual (misma regla que MS Cuentas).
+     * Solo devuelve cuentas ACTIVA cuyo titular ya está indexado y ACTIVO.
+     */
+    public Optional<CuentaIndexada> buscar(String numeroCuenta) {
+        Indice actual = indice;
+        if (actual == null || numeroCuenta == null) {
+            return Optional.empty();
+        }
+        String numero = numeroCuenta.trim();
+        Cuenta cuenta = actual.cuentas.get(numero.replaceFirst("^0+", ""));
+        if (cuenta == null) {
+            cuenta = actual.cuentas.get(numero);
+        }
+        Titular titular = cuenta != null ? actual.titulares.get(cuenta.idCliente) : null;
+        if (titular == null) {
+            fallos.increment();
+            return Optional.empty();
+        }
+        // Un bloqueo o cierre posterior a la última reconstrucción no se vería aquí
+        if (!CUENTA_ACTIVA.equals(cuenta.estado) || !CLIENTE_ACTIVO.equals(titular.estado)) {
+            noActivas.increment();
+            return Optional.empty();
+        }
+        aciertos.increment();
+        return Optional.of(new CuentaIndexada(cuenta.idCuenta, cuenta.estado, titular.nombre));
+    }
+
+    @Scheduled(fixedDelayString = "${app.cuentas.indice.completo-ms:600000}")
+    public void reconstruir() {
+        intentarReconstruccion(0);
+    }
+
+    private void intentarReconstruccion(int intento) {
+        sincronizacion.lock();
+        try {
+            long inicio = System.nanoTime();
+            Indice nuevo = new Indice();
+            cargarCuentas(nuevo);
+            cargarClientes(nuevo);
+            indice = nuevo;
+            log.info("cuentas.indice reconstruido cuentas={} clientes={} duracionMs={}", nuevo.cuentas.size(),
+                    nuevo.titulares.size(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("cuentas.indice reconstruccion fallida copiaPrevia={} error={}", indice != null, e.getMessage());
+        } finally {
+            sincronizacion.unlock();
+        }
+        if (indice == null) {
+            programarReintento(intento);
+        }
+    }
+
+    private void programarReintento(int intento) {
+        if (!reintentoProgramado.compareAndSet(false, true)) {
+            return;
+        }
+        long retardo = Math.min(reintentoMaxMs, reintentoInicialMs * (1L << Math.min(intento, 20)));
+        log.info("cuentas.indice sin copia, reintento={} retardoMs={}", intento + 1, retardo);
+        taskScheduler.schedule(() -> {
+            reintentoProgramado.set(false);
+            intentarReconstruccion(intento + 1);
+        }, Instant.now().plus(Duration.ofMillis(retardo)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.cuentas.indice.incremental-ms:15000}",
+            initialDelayString = "${app.cuentas.indice.incremental-ms:15000}")
+    public void sincronizarIncremental() {
+        Indice actual = indice;
+        if (actual == null || !sincronizacion.tryLock()) {
+            return;
+        }
+        try {
+            int cuentasPrevias = actual.cuentas.size();
+            int clientesPrevios = actual.titulares.size();
+            // Clientes primero: una cuenta nueva suele pertenecer a un cliente nuevo
+            cargarClientes(actual);
+            cargarCuentas(actual);
+            if (actual.cuentas.size() != cuentasPrevias || actual.titulares.size() != clientesPrevios) {
+                log.debug("cuentas.indice incremental cuentasNuevas={} clientesNuevos={}",
+                        actual.cuentas.size() - cuentasPrevias, actual.titulares.size() - clientesPrevios);
+            }
+        } catch (Exception e) {
+            log.warn("cuentas.indice incremental fallido ultimaCuenta={} ultimoCliente={} error={}",
+                    actual.ultimaIdCuenta, actual.ultimaIdCliente, e.getMessage());
+        } finally {
+            sincronizacion.unlock();
+        }
+    }
+
+    private void cargarCuentas(Indice destino) {
+        List<Map<String, Object>> pagina;
+        do {
+            pagina = cuentaCliente.resumenCuentas(destino.ultimaIdCuenta, tamanioPagina);
+            for (Map<String, Object> fila : pagina) {
+                Integer idCuenta = entero(fila.get("idCuenta"));
+                Object numero = fila.get("numeroCuenta");
+                if (idCuenta != null && numero != null) {
+                    destino.cuentas.put(numero.toString(), new Cuenta(idCuenta, entero(fila.get("idCliente")),
+                            texto(fila.get("estado"))));
+                    destino.ultimaIdCuenta = Math.max(destino.ultimaIdCuenta, idCuenta);
+                }
+            }
+        } while (pagina.size() >= tamanioPagina);
+    }
+
+    private void cargarClientes(Indice destino) {
+        List<Map<String, Object>> pagina;
+        do {
+            pagina = clienteCliente.resumenClientes(destino.ultimaIdCliente, tamanioPagina);
+            for (Map<String, Object> fila : pagina) {
+                Integer idCliente = entero(fila.get("idCliente"));
+                Object nombre = fila.get("nombreCompleto");
+                if (idCliente != null) {
+                    if (nombre != null) {
+                        destino.titulares.put(idCliente, new Titular(nombre.toString(), texto(fila.get("estado"))));
+                    }
+                    destino.ultimaIdCliente = Math.max(destino.ultimaIdCliente, idCliente);
+                }
+            }
+        } while (pagina.size() >= tamanioPagina);
+    }
+
+    private static Integer entero(Object valor) {
+        return valor != null ? Integer.valueOf(valor.toString()) : null;
+    }
+
+    private static String texto(Object valor) {
+        return valor != null ? valor.toString().trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    private static class Indice {
+        private final Map<String, Cuenta> cuentas = new ConcurrentHashMap<>();
+        private final Map<Integer, Titular> titulares = new ConcurrentHashMap<>();
+        private volatile int ultimaIdCuenta;
+        private volatile int ultimaIdCliente;
+    }
+
+    @AllArgsConstructor
+    private static class Cuenta {
+        private final Integer idCuenta;
+        private final Integer idCliente;
+        private final String estado;
+    }
+
+    @AllArgsConstructor
+    private static class Titular {
+        private final String nombre;
+        private final String estado;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CuentaIndexada {
+        private final Integer idCuenta;
+        private final String estado;
+        private final String titular;
+    }
+}
@@ -0,0 +1,44 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket simple: hasta {@code permisosPorSegundo} adquisiciones por segundo, con ráfaga igual a la tasa.
+ */
+class LimitadorTasa {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double permisosPorNano;
+    private final double capacidad;
+
+    private double disponibles;
+    private long ultimaRecarga;
+
+    LimitadorTasa(double permisosPorSegundo) {
+        this.permisosPorNano = permisosPorSegundo / TimeUnit.SECONDS.toNanos(1);
+        this.capacidad = Math.max(1, permisosPorSegundo);
+        this.disponibles = capacidad;
+        this.ultimaRecarga = System.nanoTime();
+    }
+
+    void adquirir() throws InterruptedException {
+        while (true) {
+            long espera;
+            lock.lock();
+            try {
+                long ahora = System.nanoTime();
+                disponibles = Math.min(capacidad, disponibles + (ahora - ultimaRecarga) * permisosPorNano);
+                ultimaRecarga = ahora;
+                if (disponibles >= 1) {
+                    disponibles -= 1;
+                    return;
+                }
+                espera = (long) ((1 - disponibles) / permisosPorNano);
+            } finally {
+                lock.unlock();
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(espera, 1));
+        }
+    }
+}
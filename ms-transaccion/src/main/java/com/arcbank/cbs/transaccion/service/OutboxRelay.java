@@ -0,0 +1,101 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.arcbank.cbs.transaccion.event.OutboxRegistradoEvent;
+import com.arcbank.cbs.transaccion.exception.SwitchRechazoException;
+import com.arcbank.cbs.transaccion.model.SwitchOutbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envía al Switch los registros del outbox por lotes, en paralelo dentro de cada lote.
+ * Rechazo definitivo (4xx con código ISO de negocio): se revierte la transferencia. Error técnico:
+ * reintento con backoff; al agotar los intentos la Transaccion queda PENDIENTE para conciliación.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    private final OutboxService outboxService;
+    private final SwitchClientService switchClientService;
+    private final TransaccionService transaccionService;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+
+    @Value("${app.switch.outbox.tamanio-lote:50}")
+    private int tamanioLote;
+
+    @Value("${app.switch.outbox.lotes-por-ciclo:20}")
+    private int lotesPorCiclo;
+
+    // Despacho inmediato tras el commit de la transacción que registró el envío
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOutboxRegistrado(OutboxRegistradoEvent event) {
+        Thread.ofVirtual().start(this::procesarPendientes);
+    }
+
+    @Scheduled(fixedDelayString = "${app.switch.outbox.intervalo-ms:1000}")
+    public void procesarPendientes() {
+        if (!enCurso.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (int i = 0; i < lotesPorCiclo; i++) {
+                List<SwitchOutbox> lote = outboxService.reclamarLote(tamanioLote);
+                if (lote.isEmpty()) {
+                    return;
+                }
+                try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    lote.forEach(o -> ejecutor.submit(() -> enviar(o)));
+                }
+                if (lote.size() < tamanioLote) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("outbox.relay error={}", e.getMessage());
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    private void enviar(SwitchOutbox outbox) {
+        String referencia = outbox.getReferencia();
+        try {
+            switchClientService.enviarTransferencia(outboxService.leerPayload(outbox));
+            outboxService.marcarEnviado(outbox.getIdOutbox());
+
+        } catch (SwitchRechazoException e) {
+            // Un reenvío (lease vencido tras un envío aceptado) llega como duplicado: ya está en el Switch
+            if ("MD01".equals(e.getIsoCode()) && outbox.getIntentos() > 1) {
+                log.warn("outbox.envio duplicado referencia={} intentos={}", referencia, outbox.getIntentos());
+                outboxService.marcarEnviado(outbox.getIdOutbox());
+                return;
+            }
+            log.warn("outbox.envio rechazo referencia={} iso={} error={}", referencia, e.getIsoCode(), e.getMessage());
+            outboxService.marcarRechazado(outbox.getIdOutbox(), e.getMessage());
+            transaccionService.resolverTransferenciaSalida(referencia, false, e.getMessage());
+
+        } catch (Exception e) {
+            if (outboxService.registrarFallo(outbox.getIdOutbox(), e.getMessage())) {
+                log.warn("outbox.envio reintento referencia={} intento={} error={}",
+                        referencia, outbox.getIntentos(), e.getMessage());
+            } else {
+                log.error("outbox.envio agotado referencia={} error={}. Queda PENDIENTE para conciliación.",
+                        referencia, e.getMessage());
+            }
+        }
+    }
+}
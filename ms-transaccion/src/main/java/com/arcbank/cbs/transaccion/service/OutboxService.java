@@ -0,0 +1,129 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.arcbank.cbs.transaccion.dto.TxRequest;
+import com.arcbank.cbs.transaccion.event.OutboxRegistradoEvent;
+import com.arcbank.cbs.transaccion.event.TransferenciaEnviadaEvent;
+import com.arcbank.cbs.transaccion.model.SwitchOutbox;
+import com.arcbank.cbs.transaccion.repository.SwitchOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbox de envíos al Switch. El registro se hace dentro de la transacción de la Transaccion;
+ * el envío real lo realiza {@link OutboxRelay}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final SwitchOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.switch.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${app.switch.outbox.intentos-max:8}")
+    private int intentosMax;
+
+    @Value("${app.switch.outbox.retardo-inicial-ms:2000}")
+    private long retardoInicialMs;
+
+    @Value("${app.switch.outbox.retardo-max-ms:300000}")
+    private long retardoMaxMs;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TxRequest envio) {
+        try {
+            outboxRepository.save(SwitchOutbox.builder()
+                    .referencia(envio.getReferenceId())
+                    .payload(objectMapper.writeValueAsString(envio))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el envío al Switch", e);
+        }
+        eventPublisher.publishEvent(new OutboxRegistradoEvent(envio.getReferenceId()));
+    }
+
+    /**
+     * Reclama hasta {@code tamanio} envíos listos. El lease (ProximoIntento en el futuro) evita que otra
+     * réplica los tome mientras se envían; si esta instancia cae, vuelven a quedar disponibles al vencer.
+     * Cada reclamo cuenta como un intento.
+     */
+    @Transactional
+    public List<SwitchOutbox> reclamarLote(int tamanio) {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<SwitchOutbox> lote = outboxRepository.findListosParaEnvio(ahora, PageRequest.of(0, tamanio));
+        lote.forEach(o -> {
+            o.setIntentos(o.getIntentos() + 1);
+            o.setProximoIntento(ahora.plusNanos(leaseMs * 1_000_000));
+        });
+        return lote;
+    }
+
+    public TxRequest leerPayload(SwitchOutbox outbox) {
+        try {
+            return objectMapper.readValue(outbox.getPayload(), TxRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload de outbox ilegible: " + outbox.getReferencia(), e);
+        }
+    }
+
+    @Transactional
+    public void marcarEnviado(Long idOutbox) {
+        outboxRepository.findById(idOutbox).ifPresent(o -> {
+            o.setEstado("ENVIADO");
+            o.setUltimoError(null);
+            // La confirmación (ConfirmacionSwitchService) arranca tras el commit
+            eventPublisher.publishEvent(new TransferenciaEnviadaEvent(o.getReferencia()));
+        });
+    }
+
+    @Transactional
+    public void marcarRechazado(Long idOutbox, String motivo) {
+        outboxRepository.findById(idOutbox).ifPresent(o -> {
+            o.setEstado("RECHAZADO");
+            o.setUltimoError(recortar(motivo));
+        });
+    }
+
+    /**
+     * Registra un fallo técnico y programa el siguiente intento con backoff exponencial.
+     * Devuelve false si se agotaron los intentos.
+     */
+    @Transactional
+    public boolean registrarFallo(Long idOutbox, String error) {
+        SwitchOutbox o = outboxRepository.findById(idOutbox).orElse(null);
+        if (o == null) {
+            return false;
+        }
+        int intentos = o.getIntentos();
+        o.setUltimoError(recortar(error));
+
+        if (intentos >= intentosMax) {
+            o.setEstado("AGOTADO");
+            return false;
+        }
+        long retardo = Math.min(retardoMaxMs, retardoInicialMs * (1L << Math.min(intentos - 1, 20)));
+        o.setProximoIntento(LocalDateTime.now().plusNanos(retardo * 1_000_000));
+        return true;
+    }
+
+    private static String recortar(String texto) {
+        return texto != null && texto.length() > 500 ? texto.substring(0, 500) : texto;
+    }
+}
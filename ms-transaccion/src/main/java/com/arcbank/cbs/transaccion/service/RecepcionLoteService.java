@@ -0,0 +1,254 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.arcbank.cbs.transaccion.client.CuentaCliente;
+import com.arcbank.cbs.transaccion.dto.MovimientoAplicadoDTO;
+import com.arcbank.cbs.transaccion.dto.MovimientoDTO;
+import com.arcbank.cbs.transaccion.dto.SwitchTransferRequest;
+import com.arcbank.cbs.transaccion.model.Transaccion;
+import com.arcbank.cbs.transaccion.repository.TransaccionLoteRepository;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Acreditación por lote de transferencias entrantes (pacs.008).
+ * Resuelve cuentas y duplicados en bloque, aplica un único movimiento por cuenta e inserta con JDBC batch.
+ * Los abonos van a MS Cuentas con su referencia: reintentar un lote tras un NACK técnico no acredita dos veces,
+ * y por eso se acredita antes de registrar, fuera de la transacción local.
+ * El resultado conserva el orden del lote: un ACK/NACK por mensaje.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecepcionLoteService {
+
+    private final TransaccionRepository transaccionRepository;
+    private final TransaccionLoteRepository transaccionLoteRepository;
+    private final CuentaMetadataCache cuentaMetadataCache;
+    private final CuentaCliente cuentaCliente;
+    private final SerializadorCuentas serializadorCuentas;
+    private final TransactionTemplate transactionTemplate;
+
+    public List<Map<String, Object>> procesar(List<SwitchTransferRequest> mensajes) {
+        int total = mensajes.size();
+        List<Map<String, Object>> resultados = new ArrayList<>(Collections.nCopies(total, null));
+        Map<String, Integer> posicionPorReferencia = new LinkedHashMap<>();
+        Map<Integer, Abono> abonos = new HashMap<>();
+        Map<Integer, List<Integer>> copiasPorPosicion = new HashMap<>();
+
+        // 1. Validación de formato y duplicados dentro del mismo lote
+        for (int i = 0; i < total; i++) {
+            Abono abono = Abono.desde(mensajes.get(i));
+            if (abono == null) {
+                resultados.set(i, nack(referenciaDe(mensajes.get(i)), null, "Datos incompletos"));
+            } else if (posicionPorReferencia.containsKey(abono.referencia)) {
+                // Recibe el resultado final de la primera aparición (paso 6)
+                copiasPorPosicion.computeIfAbsent(posicionPorReferencia.get(abono.referencia),
+                        p -> new ArrayList<>()).add(i);
+            } else {
+                posicionPorReferencia.put(abono.referencia, i);
+                abono.posicion = i;
+                abonos.put(i, abono);
+            }
+        }
+
+        // 2. Duplicados ya registrados
+        if (!posicionPorReferencia.isEmpty()) {
+            for (String existente : transaccionRepository.findReferenciasExistentes(posicionPorReferencia.keySet())) {
+                int i = posicionPorReferencia.remove(existente);
+                abonos.remove(i);
+                resultados.set(i, ack(existente, "Transferencia ya procesada"));
+            }
+        }
+
+        // 3. Resolución de cuentas en una sola consulta
+        Set<String> numeros = new LinkedHashSet<>();
+        abonos.values().forEach(a -> numeros.add(a.cuentaDestino));
+        Map<String, Map<String, Object>> cuentas = numeros.isEmpty() ? Map.of()
+                : cuentaMetadataCache.buscarPorNumeros(numeros);
+
+        List<Integer> pendientes = new ArrayList<>();
+        for (int i : posicionPorReferencia.values()) {
+            Abono abono = abonos.get(i);
+            Map<String, Object> cuenta = cuentas.get(abono.cuentaDestino);
+            if (cuenta == null || cuenta.get("idCuenta") == null) {
+                resultados.set(i, nack(abono.referencia, "AC01", "La cuenta destino no existe en nuestros registros"));
+            } else if (!CuentaMetadataCache.admiteMovimientos(cuenta)) {
+                resultados.set(i, nack(abono.referencia, "AC04", "Cuenta cerrada o inactiva"));
+            } else {
+                abono.idCuenta = Integer.valueOf(cuenta.get("idCuenta").toString());
+                pendientes.add(i);
+            }
+        }
+
+        // 4. Un movimiento por cuenta con las referencias del lote; MS Cuentas devuelve el saldo tras cada una.
+        // Va antes de abrir la transacción local: la espera por el lock de la cuenta y la llamada remota no
+        // retienen una conexión del pool. Un abono ya aplicado (reintento del Switch) vuelve como repetido.
+        Map<Integer, List<Abono>> porCuenta = new LinkedHashMap<>();
+        for (int i : pendientes) {
+            Abono abono = abonos.get(i);
+            porCuenta.computeIfAbsent(abono.idCuenta, id -> new ArrayList<>()).add(abono);
+        }
+
+        List<Abono> acreditados = new ArrayList<>(pendientes.size());
+        Set<Integer> cuentasFallidas = new HashSet<>();
+        porCuenta.forEach((idCuenta, lista) -> {
+            List<MovimientoDTO> movimientos = lista.stream()
+                    .map(a -> new MovimientoDTO(a.monto, a.referencia))
+                    .toList();
+            try {
+                // Ordenado con los abonos individuales y transferencias que lleguen a la misma cuenta
+                List<MovimientoAplicadoDTO> aplicados = serializadorCuentas.ejecutar(idCuenta,
+                        () -> cuentaCliente.aplicarMovimientos(idCuenta, movimientos));
+                Map<String, BigDecimal> saldoPorReferencia = new HashMap<>();
+                for (MovimientoAplicadoDTO aplicado : aplicados) {
+                    if (aplicado.getSaldoResultante() != null) {
+                        saldoPorReferencia.put(aplicado.getReferencia(), aplicado.getSaldoResultante());
+                    }
+                }
+                for (Abono abono : lista) {
+                    if (!saldoPorReferencia.containsKey(abono.referencia)) {
+                        throw new IllegalStateException("MS Cuentas no confirmó la referencia " + abono.referencia);
+                    }
+                }
+                for (Abono abono : lista) {
+                    abono.saldo = saldoPorReferencia.get(abono.referencia);
+                    acreditados.add(abono);
+                }
+            } catch (Exception e) {
+                log.error("lote.abono error idCuenta={} items={} error={}", idCuenta, lista.size(), e.getMessage());
+                boolean noExiste = e instanceof feign.FeignException fe && fe.status() == 404;
+                if (noExiste) {
+                    cuentaMetadataCache.invalidar(idCuenta);
+                }
+                cuentasFallidas.add(idCuenta);
+                for (Abono abono : lista) {
+                    resultados.set(abono.posicion, noExiste
+                            ? nack(abono.referencia, "AC01", "La cuenta destino no existe en nuestros registros")
+                            : nack(abono.referencia, "MS03", "Error técnico acreditando la cuenta"));
+                }
+            }
+        });
+
+        // 5. Registro por lote de lo acreditado; ON CONFLICT cubre carreras con el webhook individual, que acredita
+        // con la misma referencia. Si el registro falla se responde MS03 y el reintento no vuelve a acreditar.
+        int registradas = 0;
+        if (!acreditados.isEmpty()) {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<Transaccion> filas = acreditados.stream().map(a -> a.aTransaccion(ahora)).toList();
+            try {
+                boolean[] insertadas = transactionTemplate.execute(
+                        estado -> transaccionLoteRepository.insertarIgnorandoDuplicadas(filas));
+                for (int k = 0; k < acreditados.size(); k++) {
+                    Abono abono = acreditados.get(k);
+                    resultados.set(abono.posicion, insertadas[k]
+                            ? ack(abono.referencia, "Acreditación exitosa en Arcbank")
+                            : ack(abono.referencia, "Transferencia ya procesada"));
+                    registradas += insertadas[k] ? 1 : 0;
+                }
+            } catch (Exception e) {
+                log.error("lote.registro error items={} error={}", acreditados.size(), e.getMessage());
+                for (Abono abono : acreditados) {
+                    resultados.set(abono.posicion,
+                            nack(abono.referencia, "MS03", "Error técnico registrando la acreditación"));
+                }
+            }
+        }
+
+        // 6. Las repeticiones dentro del lote responden igual que la primera aparición
+        copiasPorPosicion.forEach((primera, copias) -> {
+            for (int i : copias) {
+                resultados.set(i, new LinkedHashMap<>(resultados.get(primera)));
+            }
+        });
+
+        log.info("lote.recepcion total={} acreditadas={} cuentas={} cuentasFallidas={}",
+                total, registradas, porCuenta.size(), cuentasFallidas.size());
+        return resultados;
+    }
+
+    private static String referenciaDe(SwitchTransferRequest mensaje) {
+        return mensaje != null && mensaje.getBody() != null ? mensaje.getBody().getInstructionId() : null;
+    }
+
+    private static Map<String, Object> ack(String referencia, String mensaje) {
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("instructionId", referencia);
+        r.put("status", "ACK");
+        r.put("message", mensaje);
+        return r;
+    }
+
+    private static Map<String, Object> nack(String referencia, String codigo, String error) {
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("instructionId", referencia);
+        r.put("status", "NACK");
+        if (codigo != null) {
+            r.put("codigo", codigo);
+        }
+        r.put("error", error);
+        return r;
+    }
+
+    private static class Abono {
+        private int posicion;
+        private String referencia;
+        private String cuentaDestino;
+        private String bancoOrigen;
+        private BigDecimal monto;
+        private Integer idCuenta;
+        private BigDecimal saldo;
+
+        static Abono desde(SwitchTransferRequest mensaje) {
+            if (mensaje == null || mensaje.getHeader() == null || mensaje.getBody() == null) {
+                return null;
+            }
+            SwitchTransferRequest.Body body = mensaje.getBody();
+            Abono a = new Abono();
+            a.referencia = body.getInstructionId();
+            a.cuentaDestino = body.getCreditor() != null ? body.getCreditor().getAccountId() : null;
+            a.bancoOrigen = mensaje.getHeader().getOriginatingBankId() != null
+                    ? mensaje.getHeader().getOriginatingBankId()
+                    : "DESCONOCIDO";
+            a.monto = body.getAmount() != null ? body.getAmount().getValue() : null;
+
+            if (a.referencia == null || a.cuentaDestino == null || a.monto == null
+                    || a.monto.compareTo(BigDecimal.ZERO) <= 0) {
+                return null;
+            }
+            return a;
+        }
+
+        Transaccion aTransaccion(LocalDateTime fecha) {
+            return Transaccion.builder()
+                    .referencia(referencia)
+                    .tipoOperacion("TRANSFERENCIA_ENTRADA")
+                    .idCuentaDestino(idCuenta)
+                    .cuentaExterna(cuentaDestino)
+                    .monto(monto)
+                    .saldoResultante(saldo)
+                    .idBancoExterno(bancoOrigen)
+                    .descripcion("Transferencia recibida desde " + bancoOrigen)
+                    .canal("SWITCH")
+                    .estado("COMPLETADA")
+                    .fechaCreacion(fecha)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.arcbank.cbs.transaccion.client.CuentaCliente;
+import com.arcbank.cbs.transaccion.dto.RetencionActivaDTO;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Libera las retenciones que siguen ACTIVAS en MS Cuentas sin transacción registrada aquí (la transacción
+ * local se revirtió o el proceso cayó antes de liberarlas). Recorre por keyset (FechaCreacion, IdRetencion)
+ * las más antiguas que la edad mínima, que debe superar lo que tarda en confirmarse la transacción que las crea.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RetencionesHuerfanasService {
+
+    private final CuentaCliente cuentaCliente;
+    private final TransaccionRepository transaccionRepository;
+    private final SerializadorCuentas serializadorCuentas;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+
+    @Value("${app.retenciones.edad-minima-ms:900000}")
+    private long edadMinimaMs;
+
+    @Value("${app.retenciones.tamanio-pagina:200}")
+    private int tamanioPagina;
+
+    @Value("${app.retenciones.max-por-ciclo:10000}")
+    private int maxPorCiclo;
+
+    @Scheduled(fixedDelayString = "${app.retenciones.intervalo-ms:300000}",
+            initialDelayString = "${app.retenciones.retardo-inicial-ms:60000}")
+    public int liberarHuerfanas() {
+        if (!enCurso.compareAndSet(false, true)) {
+            return 0;
+        }
+        int revisadas = 0;
+        int liberadas = 0;
+        try {
+            String limite = LocalDateTime.now().minus(Duration.ofMillis(edadMinimaMs)).toString();
+            String cursorFecha = LocalDateTime.of(1970, 1, 1, 0, 0).toString();
+            Integer cursorId = 0;
+
+            while (revisadas < maxPorCiclo) {
+                List<RetencionActivaDTO> pagina = cuentaCliente.retencionesActivas(limite, cursorFecha, cursorId,
+                        tamanioPagina);
+                if (pagina.isEmpty()) {
+                    break;
+                }
+                // Las de transferencias aún PENDIENTE las resuelve la conciliación, no este barrido
+                Set<String> registradas = new HashSet<>(transaccionRepository.findReferenciasExistentes(
+                        pagina.stream().map(RetencionActivaDTO::getReferencia).toList()));
+                for (RetencionActivaDTO r : pagina) {
+                    if (!registradas.contains(r.getReferencia()) && liberar(r)) {
+                        liberadas++;
+                    }
+                }
+                revisadas += pagina.size();
+                RetencionActivaDTO ultima = pagina.get(pagina.size() - 1);
+                cursorFecha = ultima.getFechaCreacion().toString();
+                cursorId = ultima.getIdRetencion();
+                if (pagina.size() < tamanioPagina) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // Se reintenta en el siguiente ciclo
+            log.error("retenciones.barrido error={}", e.getMessage());
+        } finally {
+            enCurso.set(false);
+            if (revisadas > 0) {
+                log.info("retenciones.barrido revisadas={} liberadas={}", revisadas, liberadas);
+            }
+        }
+        return liberadas;
+    }
+
+    private boolean liberar(RetencionActivaDTO r) {
+        try {
+            serializadorCuentas.ejecutar(r.getIdCuenta(), () -> cuentaCliente.liberarRetencion(r.getReferencia()));
+            meterRegistry.counter("retenciones.huerfanas.liberadas").increment();
+            log.warn("retenciones.huerfana_liberada ref={} idCuenta={} monto={} creada={}", r.getReferencia(),
+                    r.getIdCuenta(), r.getMonto(), r.getFechaCreacion());
+            return true;
+        } catch (Exception e) {
+            // Capturada o liberada entre la consulta y la liberación
+            log.warn("retenciones.huerfana_no_liberada ref={} error={}", r.getReferencia(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.arcbank.cbs.transaccion.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.arcbank.cbs.transaccion.exception.BusinessException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serializa en este proceso los movimientos sobre una misma cuenta (lock striping por idCuenta).
+ * Cuentas en franjas distintas avanzan en paralelo; los locks son justos, así que una cuenta caliente
+ * atiende los movimientos en orden de llegada. Con dos cuentas las franjas se toman siempre en orden
+ * ascendente para que transferencias cruzadas no se bloqueen entre sí.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SerializadorCuentas {
+
+    private final MeterRegistry meterRegistry;
+
+    // Se redondea a potencia de dos
+    @Value("${app.cuentas.serializacion.franjas:1024}")
+    private int numeroFranjas;
+
+    @Value("${app.cuentas.serializacion.espera-max-ms:5000}")
+    private long esperaMaxMs;
+
+    private ReentrantLock[] franjas;
+    private int mascara;
+    private Timer espera;
+    private Counter agotadas;
+
+    @PostConstruct
+    void inicializar() {
+        int tamanio = Integer.highestOneBit(Math.max(1, numeroFranjas - 1) << 1);
+        franjas = new ReentrantLock[tamanio];
+        for (int i = 0; i < tamanio; i++) {
+            // ReentrantLock y no synchronized: no fija el hilo virtual durante la llamada a MS Cuentas
+            franjas[i] = new ReentrantLock(true);
+        }
+        mascara = tamanio - 1;
+        espera = Timer.builder("cuentas.serializacion.espera").register(meterRegistry);
+        agotadas = meterRegistry.counter("cuentas.serializacion.agotadas");
+    }
+
+    public <T> T ejecutar(Integer idCuenta, Supplier<T> accion) {
+        if (idCuenta == null) {
+            return accion.get();
+        }
+        ReentrantLock lock = franjas[franja(idCuenta)];
+        adquirir(lock, idCuenta);
+        try {
+            return accion.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Ambas cuentas quedan reservadas durante toda la acción (p. ej. débito y crédito de una transferencia). */
+    public <T> T ejecutar(Integer idCuentaA, Integer idCuentaB, Supplier<T> accion) {
+        if (idCuentaA == null) {
+            return ejecutar(idCuentaB, accion);
+        }
+        if (idCuentaB == null) {
+            return ejecutar(idCuentaA, accion);
+        }
+        int a = franja(idCuentaA);
+        int b = franja(idCuentaB);
+        if (a == b) {
+            return ejecutar(idCuentaA, accion);
+        }
+        ReentrantLock primero = franjas[Math.min(a, b)];
+        ReentrantLock segundo = franjas[Math.max(a, b)];
+        adquirir(primero, a < b ? idCuentaA : idCuentaB);
+        try {
+            adquirir(segundo, a < b ? idCuentaB : idCuentaA);
+            try {
+                return accion.get();
+            } finally {
+                segundo.unlock();
+            }
+        } finally {
+            primero.unlock();
+        }
+    }
+
+    private int franja(Integer idCuenta) {
+        int h = idCuenta.hashCode();
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private void adquirir(ReentrantLock lock, Integer idCuenta) {
+        long inicio = System.nanoTime();
+        boolean adquirido;
+        try {
+            // tryLock con timeout respeta el orden de llegada del lock justo (tryLock() sin argumentos no)
+            adquirido = lock.tryLock(esperaMaxMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Operación interrumpida esperando la cuenta ID: " + idCuenta);
+        }
+        espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        if (!adquirido) {
+            agotadas.increment();
+            log.warn("cuentas.serializacion espera agotada idCuenta={} enCola={}", idCuenta, lock.getQueueLength());
+            throw new BusinessException("La cuenta ID " + idCuenta + " tiene demasiados movimientos en curso. "
+                    + "Intente nuevamente.");
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.arcbank.cbs.transaccion.service;
 
 import com.arcbank.cbs.transaccion.client.SwitchClient;
+import com.arcbank.cbs.transaccion.config.MuestreoLog;
 import com.arcbank.cbs.transaccion.dto.SwitchDevolucionRequest;
 import com.arcbank.cbs.transaccion.dto.SwitchTransferRequest;
 import com.arcbank.cbs.transaccion.dto.TxRequest;
+import com.arcbank.cbs.transaccion.exception.SwitchRechazoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,13 +23,29 @@ import java.util.UUID;
 public class SwitchClientService {
 
         private final SwitchClient switchClient;
+        private final ObjectMapper objectMapper;
+        private final MuestreoLog muestreoLog;
+        private final CatalogoMotivosDevolucion catalogoMotivosDevolucion;
+
+        // Nombres de circuit breaker / bulkhead por operación (configurados en resilience4j.*)
+        static final String CB_TRANSFERENCIA = "switchTransferencia";
+        static final String CB_DEVOLUCION = "switchDevolucion";
+        static final String CB_CONSULTA_CUENTA = "switchConsultaCuenta";
+        static final String CB_ESTADO = "switchEstado";
+        static final String CB_BANCOS = "switchBancos";
+
+        private static final java.util.Set<Integer> STATUS_REINTENTABLES = java.util.Set.of(401, 403, 404, 408, 429);
 
         @Value("${app.banco.codigo:ARCBANK}")
         private String bancoCodigo;
 
+        // Sin fallback: circuito abierto o bulkhead lleno llegan al OutboxRelay como error técnico y se reintenta
+        @CircuitBreaker(name = CB_TRANSFERENCIA)
+        @Bulkhead(name = CB_TRANSFERENCIA)
         public String enviarTransferencia(TxRequest request) {
-                log.info("Iniciando envío de transferencia interbancaria via Feign: {} -> {}",
-                                request.getDebtorAccount(), request.getCreditorAccount());
+                log.info("switch.envio inicio referencia={} origen={} destino={} banco={}",
+                                request.getReferenceId(), request.getDebtorAccount(),
+                                request.getCreditorAccount(), request.getTargetBankId());
 
                 SwitchTransferRequest isoRequest = SwitchTransferRequest.builder()
                                 .header(SwitchTransferRequest.Header.builder()
@@ -62,19 +83,23 @@ public class SwitchClientService {
                                 .build();
 
                 try {
-                        log.info("JSON enviado al Switch: {}", new com.fasterxml.jackson.databind.ObjectMapper()
-                                        .writeValueAsString(isoRequest));
+                        // El payload completo solo se serializa en DEBUG y de forma muestreada
+                        if (log.isDebugEnabled() && muestreoLog.muestrear()) {
+                                log.debug("switch.envio payload={}", objectMapper.writeValueAsString(isoRequest));
+                        }
                         String response = switchClient.enviarTransferencia(isoRequest);
 
                         if (response == null || response.isBlank()) {
                                 response = "{\"status\": \"SUCCESS\", \"message\": \"Transferencia enviada correctamente\"}";
                         }
 
-                        log.info("Respuesta del Switch recibida: {}", response);
+                        log.info("switch.envio respuesta referencia={} cuerpo={}",
+                                        request.getReferenceId(), response);
                         return response;
 
                 } catch (feign.FeignException e) {
-                        log.error("Switch retornó error HTTP {}: {}", e.status(), e.contentUTF8());
+                        log.error("switch.envio error referencia={} http={} cuerpo={}",
+                                        request.getReferenceId(), e.status(), e.contentUTF8());
                         String errorMsg = e.contentUTF8();
 
                         // Intentar mapear a un código ISO conocido para UX
@@ -103,14 +128,30 @@ public class SwitchClientService {
 
                         // Lanzar excepción limpia
                         String finalMsg = isoCode.equals("MS03") ? "Error técnico en Switch/Banco Destino" : errorMsg;
+
+                        if (esRechazoDefinitivo(e.status(), isoCode)) {
+                                throw new SwitchRechazoException(isoCode, finalMsg);
+                        }
                         throw new RuntimeException(isoCode + " - " + finalMsg);
 
                 } catch (Exception e) {
-                        log.error("Error técnico comunicación Switch: {}", e.getMessage());
+                        log.error("switch.envio fallo referencia={} error={}", request.getReferenceId(),
+                                        e.getMessage());
                         throw new RuntimeException("Error de comunicación: " + e.getMessage());
                 }
         }
 
+        // Solo un 4xx con código ISO de negocio es definitivo. Credenciales, permisos o ruta (401/403/404),
+        // timeout y rate limit son fallos de infraestructura: el outbox reintenta y, si se agotan, concilia
+        static boolean esRechazoDefinitivo(int status, String isoCode) {
+                if (status < 400 || status >= 500 || STATUS_REINTENTABLES.contains(status)) {
+                        return false;
+                }
+                return !"MS03".equals(isoCode);
+        }
+
+        @CircuitBreaker(name = CB_DEVOLUCION)
+        @Bulkhead(name = CB_DEVOLUCION)
         public String enviarReverso(String originalInstructionId, String returnReason, BigDecimal amount,
                         String debtorName, String debtorAccount,
                         String creditorName, String creditorAccount, String targetBankId) {
@@ -151,16 +192,24 @@ public class SwitchClientService {
                 }
         }
 
+        // Servido desde memoria; CatalogoMotivosDevolucion lo refresca en segundo plano
         public java.util.List<java.util.Map<String, String>> obtenerMotivosDevolucion() {
-                try {
-                        return switchClient.obtenerMotivosDevolucion();
-                } catch (Exception e) {
-                        log.error("Error al obtener motivos del Switch: {}", e.getMessage());
-                        return java.util.Collections.emptyList();
-                }
+                return catalogoMotivosDevolucion.getMotivos();
         }
 
-        private static String mapearErrorIso(String internalCode) {
+        @CircuitBreaker(name = CB_BANCOS)
+        @Bulkhead(name = CB_BANCOS)
+        public java.util.List<java.util.Map<String, Object>> obtenerBancos() {
+                return switchClient.obtenerBancos();
+        }
+
+        @CircuitBreaker(name = CB_BANCOS)
+        @Bulkhead(name = CB_BANCOS)
+        public java.util.Map<String, String> healthCheck() {
+                return switchClient.healthCheck();
+        }
+
+        String mapearErrorIso(String internalCode) {
                 if (internalCode == null)
                         return "MS03";
 
@@ -174,7 +223,7 @@ public class SwitchClientService {
                         case "FRAUDE", "FRAD", "FR01" -> "FR01";
                         case "CUST", "CLIENTE" -> "CUST";
                         default -> {
-                                if (code.matches("^[A-Z0-9]{4}$")) {
+                                if (catalogoMotivosDevolucion.esCodigoValido(code)) {
                                         yield code;
                                 }
                                 log.warn("Código de devolución desconocido '{}', mapeando a MS03", code);
@@ -183,15 +232,22 @@ public class SwitchClientService {
                 };
         }
 
+        // Tolerante: cualquier error (incluido circuito abierto) se reporta como estado desconocido (null)
+        @CircuitBreaker(name = CB_ESTADO, fallbackMethod = "estadoFallback")
+        @Bulkhead(name = CB_ESTADO)
         public java.util.Map<String, Object> consultarEstado(String instructionId) {
-                try {
-                        return switchClient.consultarEstado(instructionId);
-                } catch (Exception e) {
-                        log.warn("Error consultando estado de Tx {}: {}", instructionId, e.getMessage());
-                        return null;
-                }
+                return switchClient.consultarEstado(instructionId);
+        }
+
+        // Estricto: propaga las excepciones (p.ej. FeignException.NotFound) para que el llamador decida
+        @CircuitBreaker(name = CB_ESTADO)
+        @Bulkhead(name = CB_ESTADO)
+        public java.util.Map<String, Object> obtenerEstado(String instructionId) {
+                return switchClient.consultarEstado(instructionId);
         }
 
+        @CircuitBreaker(name = CB_CONSULTA_CUENTA)
+        @Bulkhead(name = CB_CONSULTA_CUENTA)
         public java.util.Map<String, Object> validarCuenta(String targetBankId, String targetAccountNumber) {
                 java.util.Map<String, Object> header = java.util.Map.of("originatingBankId", bancoCodigo);
                 java.util.Map<String, Object> body = java.util.Map.of(
@@ -202,10 +258,18 @@ public class SwitchClientService {
 
                 try {
                         return switchClient.validarCuentaExterna(request);
+                } catch (feign.FeignException.NotFound e) {
+                        // Cuenta inexistente: el circuit breaker la ignora y la caché la guarda como negativa
+                        throw e;
                 } catch (Exception e) {
                         log.error("Error validando cuenta externa {} en {}: {}", targetAccountNumber, targetBankId,
                                         e.getMessage());
                         throw new RuntimeException("Error validando cuenta: " + e.getMessage());
                 }
         }
+
+        private java.util.Map<String, Object> estadoFallback(String instructionId, Throwable e) {
+                log.warn("Error consultando estado de Tx {}: {}", instructionId, e.getMessage());
+                return null;
+        }
 }
@@ -1,8 +1,11 @@
 package com.arcbank.cbs.transaccion.service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.arcbank.cbs.transaccion.dto.PaginaTransaccionesDTO;
 import com.arcbank.cbs.transaccion.dto.TransaccionRequestDTO;
 import com.arcbank.cbs.transaccion.dto.TransaccionResponseDTO;
 
@@ -12,8 +15,18 @@ public interface TransaccionService {
 
     List<TransaccionResponseDTO> obtenerPorCuenta(Integer idCuenta);
 
+    PaginaTransaccionesDTO obtenerPaginaPorCuenta(Integer idCuenta, String cursor, int limite,
+            LocalDateTime desde, LocalDateTime hasta);
+
+    void exportarPorCuenta(Integer idCuenta, LocalDateTime desde, LocalDateTime hasta,
+            Consumer<TransaccionResponseDTO> consumidor);
+
     TransaccionResponseDTO obtenerPorId(Integer id);
 
+    TransaccionResponseDTO obtenerPorReferencia(String referencia);
+
+    void resolverTransferenciaSalida(String referencia, boolean exitosa, String motivo);
+
     void procesarTransferenciaEntrante(String instructionId, String cuentaDestino,
             BigDecimal monto, String bancoOrigen);
 
@@ -1,25 +1,42 @@
 package com.arcbank.cbs.transaccion.service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.arcbank.cbs.transaccion.client.CuentaCliente;
 import com.arcbank.cbs.transaccion.client.ClienteCliente;
 import com.arcbank.cbs.transaccion.client.SwitchClient;
+import com.arcbank.cbs.transaccion.dto.MovimientoDTO;
+import com.arcbank.cbs.transaccion.dto.PaginaTransaccionesDTO;
+import com.arcbank.cbs.transaccion.dto.RetencionDTO;
 import com.arcbank.cbs.transaccion.dto.SaldoDTO;
 import com.arcbank.cbs.transaccion.dto.TransaccionRequestDTO;
 import com.arcbank.cbs.transaccion.dto.TransaccionResponseDTO;
+import com.arcbank.cbs.transaccion.event.TransferenciaResueltaEvent;
 import com.arcbank.cbs.transaccion.exception.BusinessException;
+import com.arcbank.cbs.transaccion.exception.ResultadoInciertoException;
 import com.arcbank.cbs.transaccion.model.Transaccion;
 import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,16 +47,40 @@ public class TransaccionServiceImpl implements TransaccionService {
 
     private final TransaccionRepository transaccionRepository;
     private final CuentaCliente cuentaCliente;
+    private final CuentaMetadataCache cuentaMetadataCache;
     private final ClienteCliente clienteCliente;
     private final SwitchClient switchClient;
     private final SwitchClientService switchClientService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final OutboxService outboxService;
+    private final DirectorioBancosService directorioBancosService;
+    private final ConsultaCuentaExternaCache consultaCuentaExternaCache;
+    private final IndiceCuentasLocal indiceCuentasLocal;
+    private final SerializadorCuentas serializadorCuentas;
+    private final TransactionTemplate transactionTemplate;
+
+    // Sufijos de la referencia por tramo enviada a MS Cuentas (débito de origen, crédito de destino)
+    private static final String TRAMO_ORIGEN = "O";
+    private static final String TRAMO_DESTINO = "D";
+
+    private static final LocalDateTime FECHA_MINIMA = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime FECHA_MAXIMA = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     @Value("${app.banco.codigo:ARCBANK}")
     private String codigoBanco;
 
+    /**
+     * Las cuentas de la solicitud se reservan antes de abrir la transacción: la espera por el lock no retiene
+     * una conexión del pool, y los movimientos internos reentran en el lock ya tomado.
+     */
     @Override
-    @Transactional
     public TransaccionResponseDTO crearTransaccion(TransaccionRequestDTO request) {
+        return serializadorCuentas.ejecutar(request.getIdCuentaOrigen(), request.getIdCuentaDestino(),
+                () -> transactionTemplate.execute(estado -> registrarTransaccion(request)));
+    }
+
+    private TransaccionResponseDTO registrarTransaccion(TransaccionRequestDTO request) {
         log.info("Iniciando transacción Tipo: {} | Ref: {}", request.getTipoOperacion(), request.getReferencia());
 
         String tipoOp = request.getTipoOperacion().toUpperCase();
@@ -73,7 +114,8 @@ public class TransaccionServiceImpl implements TransaccionService {
 
                     trx.setIdCuentaDestino(request.getIdCuentaDestino());
                     trx.setIdCuentaOrigen(null);
-                    yield procesarSaldo(trx.getIdCuentaDestino(), request.getMonto());
+                    yield procesarSaldo(trx.getIdCuentaDestino(), request.getMonto(),
+                            referenciaTramo(trx.getReferencia(), TRAMO_DESTINO));
                 }
 
                 case "RETIRO" -> {
@@ -82,7 +124,8 @@ public class TransaccionServiceImpl implements TransaccionService {
 
                     trx.setIdCuentaOrigen(request.getIdCuentaOrigen());
                     trx.setIdCuentaDestino(null);
-                    yield procesarSaldo(trx.getIdCuentaOrigen(), request.getMonto().negate());
+                    yield procesarSaldo(trx.getIdCuentaOrigen(), request.getMonto().negate(),
+                            referenciaTramo(trx.getReferencia(), TRAMO_ORIGEN));
                 }
 
                 case "TRANSFERENCIA_INTERNA" -> {
@@ -97,10 +140,15 @@ public class TransaccionServiceImpl implements TransaccionService {
                     trx.setIdCuentaOrigen(request.getIdCuentaOrigen());
                     trx.setIdCuentaDestino(request.getIdCuentaDestino());
 
-                    BigDecimal saldoOrigen = procesarSaldo(trx.getIdCuentaOrigen(), request.getMonto().negate());
-                    BigDecimal saldoDestino = procesarSaldo(trx.getIdCuentaDestino(), request.getMonto());
-                    trx.setSaldoResultanteDestino(saldoDestino);
-                    yield saldoOrigen;
+                    // Débito y crédito sin movimientos intercalados de otras operaciones sobre ambas cuentas
+                    BigDecimal[] saldos = serializadorCuentas.ejecutar(trx.getIdCuentaOrigen(),
+                            trx.getIdCuentaDestino(), () -> new BigDecimal[] {
+                                    procesarSaldo(trx.getIdCuentaOrigen(), request.getMonto().negate(),
+                                            referenciaTramo(trx.getReferencia(), TRAMO_ORIGEN)),
+                                    procesarSaldo(trx.getIdCuentaDestino(), request.getMonto(),
+                                            referenciaTramo(trx.getReferencia(), TRAMO_DESTINO)) });
+                    trx.setSaldoResultanteDestino(saldos[1]);
+                    yield saldos[0];
                 }
 
                 case "TRANSFERENCIA_SALIDA", "TRANSFERENCIA_INTERBANCARIA" -> {
@@ -108,82 +156,49 @@ public class TransaccionServiceImpl implements TransaccionService {
                         throw new BusinessException("Falta cuenta origen.");
                     if (request.getCuentaExterna() == null)
                         throw new BusinessException("Falta cuenta destino externa.");
+                    // Validación local contra el directorio en memoria; sin directorio cargado decide el Switch
+                    if (request.getIdBancoExterno() != null && directorioBancosService.estaCargado()
+                            && directorioBancosService.buscar(request.getIdBancoExterno()).isEmpty()) {
+                        throw new BusinessException(
+                                "El banco destino " + request.getIdBancoExterno() + " no está conectado al Switch.");
+                    }
 
                     trx.setIdCuentaOrigen(request.getIdCuentaOrigen());
                     trx.setIdCuentaDestino(null);
                     trx.setCuentaExterna(request.getCuentaExterna());
                     trx.setIdBancoExterno(request.getIdBancoExterno());
 
-                    BigDecimal saldoOrigen = procesarSaldo(trx.getIdCuentaOrigen(), request.getMonto().negate());
+                    // Retención del disponible: se captura o libera cuando el Switch resuelve
+                    BigDecimal saldoOrigen = retenerSaldo(trx.getIdCuentaOrigen(), trx.getReferencia(),
+                            request.getMonto());
+                    liberarRetencionSiRevierte(trx.getIdCuentaOrigen(), trx.getReferencia());
 
                     Map<String, Object> cuentaOrigenDetalles = obtenerDetallesCuenta(request.getIdCuentaOrigen());
-                    String numeroCuentaOrigen = cuentaOrigenDetalles != null
-                            && cuentaOrigenDetalles.get("numeroCuenta") != null
-                                    ? cuentaOrigenDetalles.get("numeroCuenta").toString()
-                                    : String.valueOf(request.getIdCuentaOrigen());
+                    String numeroCuentaOrigen = numeroCuentaDe(cuentaOrigenDetalles, request.getIdCuentaOrigen());
 
                     String nombreOrigen = "Cliente Arcbank";
                     if (cuentaOrigenDetalles != null && cuentaOrigenDetalles.get("nombreTitular") != null) {
                         nombreOrigen = cuentaOrigenDetalles.get("nombreTitular").toString();
                     }
 
-                    try {
-                        log.info("Enviando transferencia al switch: {}", request.getCuentaExterna());
-
-                        com.arcbank.cbs.transaccion.dto.TxRequest txRequest = com.arcbank.cbs.transaccion.dto.TxRequest
-                                .builder()
-                                .debtorAccount(numeroCuentaOrigen)
-                                .debtorName(nombreOrigen)
-                                .creditorAccount(request.getCuentaExterna())
-                                .creditorName(request.getNombreDestinatario() != null ? request.getNombreDestinatario()
-                                        : "Beneficiario")
-                                .targetBankId(
-                                        request.getIdBancoExterno() != null ? request.getIdBancoExterno() : "UNKNOWN")
-                                .amount(request.getMonto())
-                                .description(request.getDescripcion())
-                                .referenceId(trx.getReferencia())
-                                .build();
-
-                        switchClientService.enviarTransferencia(txRequest);
-
-                        // --- Implementación Polling Síncrono (UX Sync) ---
-                        nuevoEstado = "PENDIENTE"; // Asumimos pendiente hasta confirmar
-                        boolean confirmado = false;
-
-                        // Máx 10 intentos de 1.5s = 15s timeout
-                        for (int i = 0; i < 10; i++) {
-                            try {
-                                Thread.sleep(1500);
-                            } catch (InterruptedException ie) {
-                                Thread.currentThread().interrupt();
-                            }
-
-                            Map<String, Object> estadoTx = switchClientService.consultarEstado(trx.getReferencia());
-                            if (estadoTx != null) {
-                                String status = (String) estadoTx.get("status");
-                                if ("COMPLETED".equalsIgnoreCase(status)) {
-                                    nuevoEstado = "COMPLETADA";
-                                    confirmado = true;
-                                    break;
-                                }
-                                if ("FAILED".equalsIgnoreCase(status)) {
-                                    String errorMsg = (String) estadoTx.getOrDefault("error", "Rechazo del Switch");
-                                    throw new RuntimeException(errorMsg); // Rompe para rollback
-                                }
-                                // Si es PENDING o RECEIVED, seguimos esperando
-                            }
-                        }
-
-                        if (!confirmado) {
-                            log.warn("Transferencia {} en TIMEOUT tras polling.", trx.getReferencia());
-                            // Se queda en PENDIENTE
-                        }
-
-                    } catch (Exception e) {
-                        log.error("Error/Rechazo Switch: {}. Revertiendo.", e.getMessage());
-                        procesarSaldo(trx.getIdCuentaOrigen(), request.getMonto()); // Rollback
-                        throw new BusinessException("Transferencia fallida: " + e.getMessage());
-                    }
+                    com.arcbank.cbs.transaccion.dto.TxRequest txRequest = com.arcbank.cbs.transaccion.dto.TxRequest
+                            .builder()
+                            .debtorAccount(numeroCuentaOrigen)
+                            .debtorName(nombreOrigen)
+                            .creditorAccount(request.getCuentaExterna())
+                            .creditorName(request.getNombreDestinatario() != null ? request.getNombreDestinatario()
+                                    : "Beneficiario")
+                            .targetBankId(
+                                    request.getIdBancoExterno() != null ? request.getIdBancoExterno() : "UNKNOWN")
+                            .amount(request.getMonto())
+                            .description(request.getDescripcion())
+                            .referenceId(trx.getReferencia())
+                            .build();
+
+                    // Se registra en el outbox en esta misma transacción; OutboxRelay lo envía al Switch tras el
+                    // commit y ConfirmacionSwitchService resuelve el estado final
+                    outboxService.registrar(txRequest);
+                    nuevoEstado = "PENDIENTE";
 
                     yield saldoOrigen;
                 }
@@ -193,7 +208,8 @@ public class TransaccionServiceImpl implements TransaccionService {
                         throw new BusinessException("Falta cuenta destino.");
                     trx.setIdCuentaDestino(request.getIdCuentaDestino());
                     trx.setIdCuentaOrigen(null);
-                    yield procesarSaldo(trx.getIdCuentaDestino(), request.getMonto());
+                    yield procesarSaldo(trx.getIdCuentaDestino(), request.getMonto(),
+                            referenciaTramo(trx.getReferencia(), TRAMO_DESTINO));
                 }
 
                 default -> throw new BusinessException("Tipo no soportado: " + tipoOp);
@@ -217,9 +233,61 @@ public class TransaccionServiceImpl implements TransaccionService {
 
     @Override
     public List<TransaccionResponseDTO> obtenerPorCuenta(Integer idCuenta) {
-        return transaccionRepository.findPorCuenta(idCuenta).stream()
+        List<TransaccionResponseDTO> historial = transaccionRepository.findPorCuenta(idCuenta).stream()
                 .map(t -> mapearADTO(t, idCuenta))
                 .collect(Collectors.toList());
+        log.debug("historial idCuenta={} filas={}", idCuenta, historial.size());
+        return historial;
+    }
+
+    @Override
+    public PaginaTransaccionesDTO obtenerPaginaPorCuenta(Integer idCuenta, String cursor, int limite,
+            LocalDateTime desde, LocalDateTime hasta) {
+        LocalDateTime inicio = desde != null ? desde : FECHA_MINIMA;
+        LocalDateTime fin = hasta != null ? hasta : FECHA_MAXIMA;
+
+        LocalDateTime cursorFecha = fin;
+        Integer cursorId = Integer.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorFecha = LocalDateTime.parse(partes[0]);
+                cursorId = Integer.valueOf(partes[1]);
+            } catch (Exception e) {
+                throw new BusinessException("Cursor de paginación inválido.");
+            }
+        }
+
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<Transaccion> filas = transaccionRepository.findPaginaPorCuenta(
+                idCuenta, inicio, fin, cursorFecha, cursorId, PageRequest.of(0, limite + 1));
+
+        String siguienteCursor = null;
+        if (filas.size() > limite) {
+            filas = filas.subList(0, limite);
+            Transaccion ultima = filas.get(limite - 1);
+            siguienteCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (ultima.getFechaCreacion() + "|" + ultima.getIdTransaccion()).getBytes(StandardCharsets.UTF_8));
+        }
+
+        return PaginaTransaccionesDTO.builder()
+                .items(filas.stream().map(t -> mapearADTO(t, idCuenta)).collect(Collectors.toList()))
+                .siguienteCursor(siguienteCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarPorCuenta(Integer idCuenta, LocalDateTime desde, LocalDateTime hasta,
+            Consumer<TransaccionResponseDTO> consumidor) {
+        try (Stream<Transaccion> filas = transaccionRepository.streamPorCuenta(idCuenta,
+                desde != null ? desde : FECHA_MINIMA, hasta != null ? hasta : FECHA_MAXIMA)) {
+            filas.forEach(t -> {
+                consumidor.accept(mapearADTO(t, idCuenta));
+                // Evita que el contexto de persistencia crezca con todo el historial
+                entityManager.detach(t);
+            });
+        }
     }
 
     @Override
@@ -232,41 +300,152 @@ public class TransaccionServiceImpl implements TransaccionService {
         return mapearADTO(t, null);
     }
 
+    @Override
+    public TransaccionResponseDTO obtenerPorReferencia(String referencia) {
+        Transaccion t = transaccionRepository.findByReferencia(referencia)
+                .orElseThrow(() -> new BusinessException("Transacción no encontrada con referencia: " + referencia));
+        return mapearADTO(t, null);
+    }
+
+    @Override
+    @Transactional
+    public void resolverTransferenciaSalida(String referencia, boolean exitosa, String motivo) {
+        Transaccion trx = transaccionRepository.findByReferenciaParaActualizar(referencia).orElse(null);
+        if (trx == null || !"PENDIENTE".equals(trx.getEstado())) {
+            return;
+        }
+
+        if (exitosa) {
+            capturarRetencion(trx);
+            trx.setEstado("COMPLETADA");
+            log.info("Transferencia {} confirmada por el Switch.", referencia);
+        } else {
+            log.warn("Transferencia {} rechazada por el Switch: {}. Liberando retención.", referencia, motivo);
+            BigDecimal saldo = liberarRetencion(trx);
+            trx.setSaldoResultante(saldo);
+            trx.setEstado("FALLIDA");
+        }
+
+        Transaccion guardada = transaccionRepository.save(trx);
+        eventPublisher.publishEvent(new TransferenciaResueltaEvent(mapearADTO(guardada, null)));
+    }
+
+    // Los movimientos de una misma cuenta se envían a MS Cuentas de uno en uno (ver SerializadorCuentas)
     private BigDecimal procesarSaldo(Integer idCuenta, BigDecimal montoCambio) {
-        BigDecimal saldoActual;
+        return procesarSaldo(idCuenta, montoCambio, null);
+    }
+
+    private BigDecimal procesarSaldo(Integer idCuenta, BigDecimal montoCambio, String referencia) {
+        return serializadorCuentas.ejecutar(idCuenta, () -> aplicarMovimiento(idCuenta, montoCambio, referencia));
+    }
+
+    private BigDecimal aplicarMovimiento(Integer idCuenta, BigDecimal montoCambio, String referencia) {
+        SaldoDTO resultado;
 
         try {
-            saldoActual = cuentaCliente.obtenerSaldo(idCuenta);
-            if (saldoActual == null) {
-                throw new BusinessException("La cuenta ID " + idCuenta + " existe pero retornó saldo nulo.");
-            }
+            resultado = cuentaCliente.aplicarMovimiento(idCuenta, new MovimientoDTO(montoCambio, referencia));
         } catch (Exception e) {
-            log.error("Error conectando con MS Cuentas: {}", e.getMessage());
-            throw new BusinessException("No se pudo validar la cuenta ID: " + idCuenta + ". Verifique que exista.");
+            throw errorDeCuentas(e, idCuenta);
+        }
+
+        if (resultado == null || resultado.getSaldo() == null) {
+            throw new BusinessException("La cuenta ID " + idCuenta + " existe pero retornó saldo nulo.");
         }
 
-        BigDecimal nuevoSaldo = saldoActual.add(montoCambio);
+        return resultado.getSaldo();
+    }
 
-        if (nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
-            throw new BusinessException(
-                    "Fondos insuficientes en la cuenta ID: " + idCuenta + ". Saldo actual: " + saldoActual);
+    private BigDecimal retenerSaldo(Integer idCuenta, String referencia, BigDecimal monto) {
+        RetencionDTO resultado = serializadorCuentas.ejecutar(idCuenta, () -> {
+            try {
+                return cuentaCliente.retenerSaldo(idCuenta, new RetencionDTO(referencia, monto));
+            } catch (Exception e) {
+                throw errorDeCuentas(e, idCuenta);
+            }
+        });
+
+        if (resultado == null || resultado.getSaldo() == null) {
+            throw new BusinessException("La cuenta ID " + idCuenta + " existe pero retornó saldo nulo.");
         }
 
+        return resultado.getSaldo();
+    }
+
+    // Los errores se propagan sin traducir: la transacción queda PENDIENTE y la conciliación reintenta
+    private void capturarRetencion(Transaccion trx) {
         try {
-            cuentaCliente.actualizarSaldo(idCuenta, new SaldoDTO(nuevoSaldo));
-        } catch (Exception e) {
-            throw new BusinessException("Error al actualizar el saldo de la cuenta ID: " + idCuenta);
+            serializadorCuentas.ejecutar(trx.getIdCuentaOrigen(),
+                    () -> cuentaCliente.capturarRetencion(trx.getReferencia()));
+        } catch (feign.FeignException.NotFound e) {
+            // Transferencia creada antes de las retenciones: el débito ya se aplicó al crearla
+            log.info("Transferencia {} sin retención en MS Cuentas, débito ya aplicado.", trx.getReferencia());
         }
+    }
+
+    // Sin la fila local nadie captura ni libera la retención; si el proceso cae antes del rollback,
+    // RetencionesHuerfanasService la libera al no encontrar la transacción
+    private void liberarRetencionSiRevierte(Integer idCuenta, String referencia) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    serializadorCuentas.ejecutar(idCuenta, () -> cuentaCliente.liberarRetencion(referencia));
+                    log.warn("retencion.liberada_tras_rollback ref={} idCuenta={}", referencia, idCuenta);
+                } catch (Exception e) {
+                    log.error("retencion.liberacion_fallida ref={} idCuenta={} error={}", referencia, idCuenta,
+                            e.getMessage());
+                }
+            }
+        });
+    }
+
+    private BigDecimal liberarRetencion(Transaccion trx) {
+        try {
+            RetencionDTO resultado = serializadorCuentas.ejecutar(trx.getIdCuentaOrigen(),
+                    () -> cuentaCliente.liberarRetencion(trx.getReferencia()));
+            return resultado != null ? resultado.getSaldo() : null;
+        } catch (feign.FeignException.NotFound e) {
+            // Transferencia creada antes de las retenciones: se revierte el débito con un crédito
+            return procesarSaldo(trx.getIdCuentaOrigen(), trx.getMonto());
+        }
+    }
 
-        return nuevoSaldo;
+    // Determinista a partir de la Referencia: un reintento con la misma Idempotency-Key no vuelve a mover saldo
+    private static String referenciaTramo(String referencia, String tramo) {
+        return referencia + ":" + tramo;
+    }
+
+    private BusinessException errorDeCuentas(Exception e, Integer idCuenta) {
+        if (e instanceof BusinessException be) {
+            return be;
+        }
+        if (e instanceof feign.FeignException fe) {
+            if (fe.status() == 422) {
+                return new BusinessException("Fondos insuficientes en la cuenta ID: " + idCuenta);
+            }
+            if (fe.status() == 404) {
+                cuentaMetadataCache.invalidar(idCuenta);
+                return new BusinessException("No se pudo validar la cuenta ID: " + idCuenta + ". Verifique que exista.");
+            }
+            if (fe.status() >= 400 && fe.status() < 500 && fe.status() != 408 && fe.status() != 429) {
+                return new BusinessException("MS Cuentas rechazó el movimiento de la cuenta ID: " + idCuenta);
+            }
+        }
+        // Timeout o 5xx: el movimiento pudo aplicarse
+        log.error("Error conectando con MS Cuentas: {}", e.getMessage());
+        return new ResultadoInciertoException("No se pudo confirmar el movimiento de la cuenta ID: " + idCuenta
+                + ". Reintente con la misma Idempotency-Key.");
     }
 
     private TransaccionResponseDTO mapearADTO(Transaccion t, Integer idCuentaVisor) {
         BigDecimal saldoAMostrar = t.getSaldoResultante() != null ? t.getSaldoResultante() : BigDecimal.ZERO;
 
-        log.info("Mapeando Tx: {}, Visor: {}, Dest: {}, SaldoDest: {}",
-                t.getIdTransaccion(), idCuentaVisor, t.getIdCuentaDestino(), t.getSaldoResultanteDestino());
-
         if (idCuentaVisor != null &&
                 t.getIdCuentaDestino() != null &&
                 t.getIdCuentaDestino().equals(idCuentaVisor) &&
@@ -294,7 +473,7 @@ public class TransaccionServiceImpl implements TransaccionService {
 
     private Map<String, Object> obtenerDetallesCuenta(Integer idCuenta) {
         try {
-            return cuentaCliente.obtenerCuenta(idCuenta);
+            return cuentaMetadataCache.obtenerCuenta(idCuenta);
         } catch (Exception e) {
             log.warn("No se pudo obtener detalles de cuenta para ID {}: {}", idCuenta, e.getMessage());
             return null;
@@ -302,20 +481,19 @@ public class TransaccionServiceImpl implements TransaccionService {
     }
 
     private String obtenerNumeroCuenta(Integer idCuenta) {
-        try {
-            Map<String, Object> cuenta = cuentaCliente.obtenerCuenta(idCuenta);
-            if (cuenta != null && cuenta.get("numeroCuenta") != null) {
-                return cuenta.get("numeroCuenta").toString();
-            }
-        } catch (Exception e) {
-            log.warn("No se pudo obtener número de cuenta para ID {}: {}", idCuenta, e.getMessage());
+        return numeroCuentaDe(obtenerDetallesCuenta(idCuenta), idCuenta);
+    }
+
+    private String numeroCuentaDe(Map<String, Object> cuenta, Integer idCuenta) {
+        if (cuenta != null && cuenta.get("numeroCuenta") != null) {
+            return cuenta.get("numeroCuenta").toString();
         }
         return String.valueOf(idCuenta);
     }
 
     private Integer obtenerIdCuentaPorNumero(String numeroCuenta) {
         try {
-            Map<String, Object> cuenta = cuentaCliente.buscarPorNumero(numeroCuenta);
+            Map<String, Object> cuenta = cuentaMetadataCache.buscarPorNumero(numeroCuenta);
             if (cuenta != null && cuenta.get("idCuenta") != null) {
                 return Integer.valueOf(cuenta.get("idCuenta").toString());
             }
@@ -325,8 +503,9 @@ public class TransaccionServiceImpl implements TransaccionService {
         return null;
     }
 
+    // Sin transacción envolvente: el abono va con referencia antes del registro, así que un fallo al guardar
+    // se resuelve con el reintento del Switch, y la espera por el lock de la cuenta no retiene una conexión
     @Override
-    @Transactional
     public void procesarTransferenciaEntrante(String instructionId, String cuentaDestino,
             BigDecimal monto, String bancoOrigen) {
         log.info("📥 Procesando transferencia entrante desde {} a cuenta {}, monto: {}",
@@ -336,13 +515,17 @@ public class TransaccionServiceImpl implements TransaccionService {
         if (idCuentaDestino == null) {
             throw new BusinessException("Cuenta destino no encontrada en Arcbank: " + cuentaDestino);
         }
+        if (!CuentaMetadataCache.admiteMovimientos(cuentaMetadataCache.buscarPorNumero(cuentaDestino))) {
+            throw new BusinessException("Cuenta cerrada o inactiva: " + cuentaDestino);
+        }
 
         if (transaccionRepository.findByReferencia(instructionId).isPresent()) {
             log.warn("Transferencia entrante duplicada ignorada: {}", instructionId);
             return;
         }
 
-        BigDecimal nuevoSaldo = procesarSaldo(idCuentaDestino, monto);
+        // Con referencia: si el Switch reenvía tras un fallo posterior al abono, MS Cuentas no acredita de nuevo
+        BigDecimal nuevoSaldo = procesarSaldo(idCuentaDestino, monto, instructionId);
 
         Transaccion trx = Transaccion.builder()
                 .referencia(instructionId)
@@ -401,8 +584,8 @@ public class TransaccionServiceImpl implements TransaccionService {
     }
 
     private TransaccionResponseDTO procesarReversoSalida(Transaccion trx, String motivo) {
-        String numeroCuentaOrigen = obtenerNumeroCuenta(trx.getIdCuentaOrigen());
         Map<String, Object> cuentaOrigenDetalles = obtenerDetallesCuenta(trx.getIdCuentaOrigen());
+        String numeroCuentaOrigen = numeroCuentaDe(cuentaOrigenDetalles, trx.getIdCuentaOrigen());
         String nombreOrigen = "Cliente Arcbank";
         if (cuentaOrigenDetalles != null && cuentaOrigenDetalles.get("nombreTitular") != null) {
             nombreOrigen = cuentaOrigenDetalles.get("nombreTitular").toString();
@@ -422,7 +605,12 @@ public class TransaccionServiceImpl implements TransaccionService {
             throw new BusinessException("El Switch rechazó la solicitud de reverso: " + e.getMessage());
         }
 
-        procesarSaldo(trx.getIdCuentaOrigen(), trx.getMonto());
+        if ("PENDIENTE".equals(trx.getEstado())) {
+            // El Switch aún no la había confirmado: basta con liberar la retención
+            liberarRetencion(trx);
+        } else {
+            procesarSaldo(trx.getIdCuentaOrigen(), trx.getMonto());
+        }
 
         trx.setEstado("REVERSADA");
         Transaccion guardada = transaccionRepository.save(trx);
@@ -530,7 +718,13 @@ public class TransaccionServiceImpl implements TransaccionService {
             return;
         }
 
-        BigDecimal nuevoSaldo = procesarSaldo(idCuentaAfectada, montoImpacto);
+        BigDecimal nuevoSaldo;
+        if (!esReversoDeEntrada && "PENDIENTE".equals(trxOriginal.getEstado())) {
+            // Salida aún sin resolver: la retención sigue activa y el reverso la libera en lugar de acreditar
+            nuevoSaldo = liberarRetencion(trxOriginal);
+        } else {
+            nuevoSaldo = procesarSaldo(idCuentaAfectada, montoImpacto);
+        }
 
         Transaccion.TransaccionBuilder reversoBuilder = Transaccion.builder()
                 .referencia(returnInstructionId) // ✅ SOLUCION ERROR DUPLICATE KEY
@@ -587,13 +781,23 @@ public class TransaccionServiceImpl implements TransaccionService {
 
     @Override
     public Map<String, Object> validarCuentaExterna(String targetBankId, String targetAccountNumber) {
-        return switchClientService.validarCuenta(targetBankId, targetAccountNumber);
+        return consultaCuentaExternaCache.consultar(targetBankId, targetAccountNumber);
     }
 
     @Override
     public Map<String, Object> validarCuentaLocal(String numeroCuenta) {
+        // Camino rápido: índice en memoria (solo cuentas y titulares activos); si no, se consulta a los servicios
+        Optional<IndiceCuentasLocal.CuentaIndexada> indexada = indiceCuentasLocal.buscar(numeroCuenta);
+        if (indexada.isPresent()) {
+            return Map.of(
+                    "exists", true,
+                    "ownerName", indexada.get().getTitular(),
+                    "currency", "USD",
+                    "status", indexada.get().getEstado());
+        }
+
         try {
-            Map<String, Object> cuenta = cuentaCliente.buscarPorNumero(numeroCuenta);
+            Map<String, Object> cuenta = cuentaMetadataCache.buscarPorNumero(numeroCuenta);
             if (cuenta != null) {
                 String estado = "ACTIVE"; // Default
                 if (cuenta.get("estado") != null) {
@@ -610,6 +814,11 @@ public class TransaccionServiceImpl implements TransaccionService {
                             titular = cliente.get("nombreCompleto").toString();
                             log.info("🎯 Nombre del titular obtenido: {} para cuenta {}", titular, numeroCuenta);
                         }
+                        // Un titular inactivo no puede recibir fondos aunque la cuenta siga ACTIVA
+                        if (cliente != null && cliente.get("estado") != null
+                                && !"ACTIVO".equalsIgnoreCase(cliente.get("estado").toString().trim())) {
+                            estado = "INACTIVA";
+                        }
                     } catch (Exception e) {
                         log.warn("⚠️ No se pudo obtener nombre del cliente para cuenta {}: {}", numeroCuenta,
                                 e.getMessage());
@@ -0,0 +1,56 @@
+package com.arcbank.cbs.transaccion.webhook;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.arcbank.cbs.transaccion.dto.SwitchConsultaCuentaRequest;
+import com.arcbank.cbs.transaccion.service.TransaccionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConsultaCuentaHandler implements ManejadorMensajeIso<SwitchConsultaCuentaRequest> {
+
+    private final TransaccionService transaccionService;
+
+    @Override
+    public TipoMensajeIso tipo() {
+        return TipoMensajeIso.ACMT_023;
+    }
+
+    @Override
+    public Class<SwitchConsultaCuentaRequest> tipoPayload() {
+        return SwitchConsultaCuentaRequest.class;
+    }
+
+    @Override
+    public ResponseEntity<?> manejar(SwitchConsultaCuentaRequest mensaje) {
+        log.info("🔍 Webhook detectado como CONSULTA DE CUENTA (acmt.023)");
+
+        // Segun instruccion Switch: Usamos el campo 'creditor' por compatibilidad
+        String accountId = mensaje.getBody() != null && mensaje.getBody().getCreditor() != null
+                ? mensaje.getBody().getCreditor().getAccountId()
+                : null;
+
+        if (accountId == null) {
+            log.warn("Solicitud acmt.023 recibida sin 'creditor.accountId'.");
+            return ResponseEntity.ok(Map.of(
+                    "status", "FAILED",
+                    "data", Map.of("mensaje", "Formato inválido: Falta creditor.accountId")));
+        }
+
+        Map<String, Object> result = transaccionService.validarCuentaLocal(accountId);
+
+        if (Boolean.TRUE.equals(result.get("exists"))) {
+            return ResponseEntity.ok(Map.of("status", "SUCCESS", "data", result));
+        }
+        return ResponseEntity.ok(Map.of(
+                "status", "FAILED",
+                "data", Map.of("exists", false, "mensaje", "Cuenta no encontrada")));
+    }
+}
@@ -0,0 +1,43 @@
+package com.arcbank.cbs.transaccion.webhook;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.arcbank.cbs.transaccion.dto.SwitchDevolucionRequest;
+import com.arcbank.cbs.transaccion.service.TransaccionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DevolucionHandler implements ManejadorMensajeIso<SwitchDevolucionRequest> {
+
+    private final TransaccionService transaccionService;
+
+    @Override
+    public TipoMensajeIso tipo() {
+        return TipoMensajeIso.PACS_004;
+    }
+
+    @Override
+    public Class<SwitchDevolucionRequest> tipoPayload() {
+        return SwitchDevolucionRequest.class;
+    }
+
+    @Override
+    public ResponseEntity<?> manejar(SwitchDevolucionRequest request) {
+        log.info("🔄 Webhook Devolución V3.0 recibido (Confirmación Asíncrona): {}",
+                request.getBody() != null ? request.getBody().getOriginalInstructionId() : null);
+        try {
+            transaccionService.procesarDevolucionEntrante(request);
+            return ResponseEntity.ok(Map.of("status", "ACK", "message", "Devolución confirmada"));
+        } catch (Exception e) {
+            log.error("❌ Error procesando confirmación de devolución: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("status", "NACK", "error", String.valueOf(e.getMessage())));
+        }
+    }
+}
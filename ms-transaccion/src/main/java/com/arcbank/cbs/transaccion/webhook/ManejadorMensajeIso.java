@@ -0,0 +1,15 @@
+package com.arcbank.cbs.transaccion.webhook;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Procesa un tipo de mensaje ISO 20022 ya enlazado a su DTO.
+ */
+public interface ManejadorMensajeIso<T> {
+
+    TipoMensajeIso tipo();
+
+    Class<T> tipoPayload();
+
+    ResponseEntity<?> manejar(T mensaje);
+}
@@ -0,0 +1,29 @@
+package com.arcbank.cbs.transaccion.webhook;
+
+/**
+ * Mensajes ISO 20022 que el Switch envía al webhook unificado.
+ */
+public enum TipoMensajeIso {
+
+    ACMT_023("acmt.023"),
+    PACS_004("pacs.004"),
+    PACS_008("pacs.008");
+
+    private final String prefijo;
+
+    TipoMensajeIso(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    // messageNamespace llega con versión (p.ej. acmt.023.001.02); se compara por prefijo
+    public static TipoMensajeIso desdeNamespace(String namespace) {
+        if (namespace != null) {
+            for (TipoMensajeIso tipo : values()) {
+                if (namespace.startsWith(tipo.prefijo)) {
+                    return tipo;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.arcbank.cbs.transaccion.webhook;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.arcbank.cbs.transaccion.dto.SwitchTransferRequest;
+import com.arcbank.cbs.transaccion.service.TransaccionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransferenciaEntranteHandler implements ManejadorMensajeIso<SwitchTransferRequest> {
+
+    private final TransaccionService transaccionService;
+
+    @Override
+    public TipoMensajeIso tipo() {
+        return TipoMensajeIso.PACS_008;
+    }
+
+    @Override
+    public Class<SwitchTransferRequest> tipoPayload() {
+        return SwitchTransferRequest.class;
+    }
+
+    @Override
+    public ResponseEntity<?> manejar(SwitchTransferRequest request) {
+        try {
+            if (request.getHeader() == null || request.getBody() == null) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("status", "NACK", "error", "Formato inválido"));
+            }
+
+            String instructionId = request.getBody().getInstructionId();
+            log.info("📥 Webhook detectado como TRANSFERENCIA (pacs.008): {}", instructionId);
+
+            String cuentaDestino = request.getBody().getCreditor() != null
+                    ? request.getBody().getCreditor().getAccountId()
+                    : null;
+            String bancoOrigen = request.getHeader().getOriginatingBankId() != null
+                    ? request.getHeader().getOriginatingBankId()
+                    : "DESCONOCIDO";
+
+            BigDecimal monto = BigDecimal.ZERO;
+            if (request.getBody().getAmount() != null && request.getBody().getAmount().getValue() != null) {
+                monto = request.getBody().getAmount().getValue();
+            }
+
+            if (instructionId == null || cuentaDestino == null || monto.compareTo(BigDecimal.ZERO) <= 0) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("status", "NACK", "error", "Datos incompletos"));
+            }
+
+            transaccionService.procesarTransferenciaEntrante(instructionId, cuentaDestino, monto, bancoOrigen);
+
+            return ResponseEntity.ok(Map.of(
+                    "status", "ACK",
+                    "message", "Acreditación exitosa en Arcbank",
+                    "instructionId", instructionId));
+
+        } catch (Exception e) {
+            log.error("❌ Error procesando abono: {}", e.getMessage());
+
+            if (e.getMessage() != null && e.getMessage().contains("Cuenta destino no encontrada")) {
+                return ResponseEntity.status(422).body(Map.of(
+                        "codigo", "AC01",
+                        "mensaje", "La cuenta destino no existe en nuestros registros"));
+            }
+
+            if (e.getMessage() != null && e.getMessage().contains("Cuenta cerrada")) {
+                return ResponseEntity.status(422).body(Map.of(
+                        "codigo", "AC04",
+                        "mensaje", "Cuenta cerrada o inactiva"));
+            }
+
+            return ResponseEntity.status(422)
+                    .body(Map.of("status", "NACK", "error", String.valueOf(e.getMessage())));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.arcbank.cbs.transaccion.webhook;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Despacho del webhook unificado en una sola pasada: el cuerpo se lee con el parser de streaming,
+ * los tokens se guardan en un TokenBuffer mientras se detecta el tipo de mensaje y luego se enlazan
+ * directamente al DTO del manejador, sin pasar por Map ni convertValue.
+ */
+@Slf4j
+@Component
+public class WebhookDispatcher {
+
+    private final ObjectMapper objectMapper;
+    private final Map<TipoMensajeIso, ManejadorMensajeIso<?>> manejadores = new EnumMap<>(TipoMensajeIso.class);
+
+    public WebhookDispatcher(ObjectMapper objectMapper, List<ManejadorMensajeIso<?>> manejadores) {
+        this.objectMapper = objectMapper;
+        for (ManejadorMensajeIso<?> manejador : manejadores) {
+            if (this.manejadores.put(manejador.tipo(), manejador) != null) {
+                throw new IllegalStateException("Manejador duplicado para " + manejador.tipo());
+            }
+        }
+    }
+
+    public ResponseEntity<?> despachar(byte[] cuerpo) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(cuerpo);
+                TokenBuffer buffer = new TokenBuffer(parser)) {
+            TipoMensajeIso tipo = leerYClasificar(parser, buffer);
+            ManejadorMensajeIso<?> manejador = manejadores.get(tipo);
+            if (manejador == null) {
+                throw new IllegalStateException("Sin manejador para el mensaje " + tipo);
+            }
+            log.debug("webhook.despacho tipo={}", tipo);
+            return enlazarYManejar(manejador, buffer);
+        }
+    }
+
+    private <T> ResponseEntity<?> enlazarYManejar(ManejadorMensajeIso<T> manejador, TokenBuffer buffer)
+            throws IOException {
+        try (JsonParser tokens = buffer.asParser(objectMapper)) {
+            T mensaje = objectMapper.readValue(tokens, manejador.tipoPayload());
+            return manejador.manejar(mensaje);
+        }
+    }
+
+    /**
+     * Copia el documento al buffer y detecta el tipo: header.messageNamespace si existe; si no, la presencia
+     * de body.originalInstructionId / body.returnReason indica pacs.004 y, por descarte, pacs.008.
+     */
+    static TipoMensajeIso leerYClasificar(JsonParser parser, TokenBuffer buffer) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("El payload del webhook debe ser un objeto JSON");
+        }
+        buffer.copyCurrentEvent(parser);
+
+        String namespace = null;
+        boolean campoDevolucion = false;
+        boolean esperandoNamespace = false;
+
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            buffer.copyCurrentEvent(parser);
+
+            if (token == JsonToken.FIELD_NAME) {
+                String seccion = seccion(parser.getParsingContext());
+                String campo = parser.currentName();
+                esperandoNamespace = "header".equals(seccion) && "messageNamespace".equals(campo);
+                if ("body".equals(seccion)
+                        && ("originalInstructionId".equals(campo) || "returnReason".equals(campo))) {
+                    campoDevolucion = true;
+                }
+            } else if (esperandoNamespace) {
+                if (token == JsonToken.VALUE_STRING) {
+                    namespace = parser.getText();
+                }
+                esperandoNamespace = false;
+            }
+        }
+
+        TipoMensajeIso tipo = TipoMensajeIso.desdeNamespace(namespace);
+        if (tipo != null) {
+            return tipo;
+        }
+        return campoDevolucion ? TipoMensajeIso.PACS_004 : TipoMensajeIso.PACS_008;
+    }
+
+    // Nombre de la sección de primer nivel (header/body) que contiene al campo actual, o null
+    private static String seccion(JsonStreamContext contexto) {
+        JsonStreamContext padre = contexto.getParent();
+        if (padre == null || padre.getParent() == null || !padre.getParent().inRoot()) {
+            return null;
+        }
+        return padre.getCurrentName();
+    }
+}
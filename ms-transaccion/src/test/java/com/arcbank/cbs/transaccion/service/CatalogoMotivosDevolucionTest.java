@@ -0,0 +1,82 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.arcbank.cbs.transaccion.client.SwitchClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CatalogoMotivosDevolucionTest {
+
+    private static final List<Map<String, String>> MOTIVOS = List.of(
+            Map.of("code", "AC03", "description", "Cuenta inválida"),
+            Map.of("code", "AM04", "description", "Fondos insuficientes"));
+
+    private SwitchClient switchClient;
+    private TaskScheduler taskScheduler;
+    private CatalogoMotivosDevolucion catalogo;
+
+    @BeforeEach
+    void setUp() {
+        switchClient = mock(SwitchClient.class);
+        taskScheduler = mock(TaskScheduler.class);
+        catalogo = new CatalogoMotivosDevolucion(switchClient, new ObjectMapper(), taskScheduler);
+        ReflectionTestUtils.setField(catalogo, "reintentoInicialMs", 10L);
+        ReflectionTestUtils.setField(catalogo, "reintentoMaxMs", 100L);
+    }
+
+    @Test
+    void sinCopiaReintentaConBackoffCortoHastaCargar() {
+        when(switchClient.obtenerMotivosDevolucion())
+                .thenThrow(new RuntimeException("Switch caído"))
+                .thenReturn(List.of())
+                .thenReturn(List.of())
+                .thenReturn(MOTIVOS);
+
+        catalogo.refrescar();
+        // El refresco periódico mientras hay un reintento en espera no programa otro
+        catalogo.refrescar();
+        ejecutarProgramada(1);
+        ejecutarProgramada(2);
+
+        assertTrue(catalogo.esCodigoValido("AM04"));
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void etagDependeDelContenidoYNoDeLaInstancia() {
+        catalogo.cargar(MOTIVOS);
+        String etag = catalogo.getEtag();
+
+        CatalogoMotivosDevolucion otraReplica = new CatalogoMotivosDevolucion(switchClient, new ObjectMapper(),
+                taskScheduler);
+        otraReplica.cargar(List.copyOf(MOTIVOS));
+        assertEquals(etag, otraReplica.getEtag());
+
+        otraReplica.cargar(List.of(Map.of("code", "AC03", "description", "Cuenta cerrada")));
+        assertNotEquals(etag, otraReplica.getEtag());
+    }
+
+    // Ejecuta la última tarea programada; n es el número de programaciones esperadas hasta ahora
+    private void ejecutarProgramada(int n) {
+        ArgumentCaptor<Runnable> tarea = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(n)).schedule(tarea.capture(), any(Instant.class));
+        tarea.getValue().run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.arcbank.cbs.transaccion.model.SwitchOutbox;
+import com.arcbank.cbs.transaccion.repository.SwitchOutboxRepository;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConciliacionServiceTest {
+
+    private static final String REF = "REF-CONC-1";
+
+    private SwitchOutboxRepository outboxRepository;
+    private SwitchClientService switchClientService;
+    private TransaccionService transaccionService;
+    private ConciliacionService service;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(SwitchOutboxRepository.class);
+        switchClientService = mock(SwitchClientService.class);
+        transaccionService = mock(TransaccionService.class);
+        service = new ConciliacionService(mock(TransaccionRepository.class), outboxRepository, switchClientService,
+                transaccionService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "consultasPorSegundo", 100.0);
+        service.inicializar();
+    }
+
+    @Test
+    void failedEnElSwitchRevierteConSuMotivo() {
+        when(switchClientService.obtenerEstado(REF))
+                .thenReturn(Map.of("status", "FAILED", "error", "AC01 - Cuenta inexistente"));
+
+        service.conciliarUna(REF);
+
+        verify(transaccionService).resolverTransferenciaSalida(REF, false, "AC01 - Cuenta inexistente");
+    }
+
+    @Test
+    void desconocidaEnElSwitchConOutboxAgotadoSeRevierte() {
+        when(switchClientService.obtenerEstado(REF)).thenThrow(noEncontrada());
+        when(outboxRepository.findByReferencia(REF)).thenReturn(Optional.of(outbox("AGOTADO")));
+
+        service.conciliarUna(REF);
+
+        verify(transaccionService).resolverTransferenciaSalida(REF, false, "Transferencia no entregada al Switch");
+    }
+
+    @Test
+    void desconocidaEnElSwitchPeroEnviadaSigueEsperando() {
+        when(switchClientService.obtenerEstado(REF)).thenThrow(noEncontrada());
+        when(outboxRepository.findByReferencia(REF)).thenReturn(Optional.of(outbox("ENVIADO")));
+
+        service.conciliarUna(REF);
+
+        verify(transaccionService, never()).resolverTransferenciaSalida(eq(REF), anyBoolean(), any());
+    }
+
+    private static SwitchOutbox outbox(String estado) {
+        return SwitchOutbox.builder().referencia(REF).estado(estado).build();
+    }
+
+    private static FeignException noEncontrada() {
+        return FeignException.errorStatus("consultarEstado", Response.builder()
+                .status(404)
+                .reason("Not Found")
+                .request(Request.create(Request.HttpMethod.GET, "/api/v2/switch/transfers/" + REF, Map.of(), null,
+                        StandardCharsets.UTF_8, null))
+                .headers(Map.of())
+                .build());
+    }
+}
@@ -0,0 +1,74 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.arcbank.cbs.transaccion.event.TransferenciaEnviadaEvent;
+
+class ConfirmacionSwitchServiceTest {
+
+    private static final String REF = "REF-CONF-1";
+
+    private SwitchClientService switchClientService;
+    private TransaccionService transaccionService;
+    private TaskScheduler taskScheduler;
+    private ConfirmacionSwitchService service;
+
+    @BeforeEach
+    void setUp() {
+        switchClientService = mock(SwitchClientService.class);
+        transaccionService = mock(TransaccionService.class);
+        taskScheduler = mock(TaskScheduler.class);
+        service = new ConfirmacionSwitchService(switchClientService, transaccionService, taskScheduler);
+        ReflectionTestUtils.setField(service, "intentosMax", 3);
+        ReflectionTestUtils.setField(service, "retardoInicialMs", 10L);
+        ReflectionTestUtils.setField(service, "retardoMaxMs", 100L);
+    }
+
+    @Test
+    void rejectedEsFinalYRevierteSinSeguirConsultando() {
+        when(switchClientService.consultarEstado(REF))
+                .thenReturn(Map.of("status", "REJECTED", "error", "AC04 - Cuenta cerrada"));
+
+        service.onTransferenciaEnviada(new TransferenciaEnviadaEvent(REF));
+        ejecutarProgramada(1);
+
+        verify(transaccionService).resolverTransferenciaSalida(REF, false, "AC04 - Cuenta cerrada");
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void estadoNoTerminalReprogramaHastaAgotarIntentos() {
+        when(switchClientService.consultarEstado(REF)).thenReturn(Map.of("status", "PROCESSING"));
+
+        service.onTransferenciaEnviada(new TransferenciaEnviadaEvent(REF));
+        for (int i = 1; i <= 3; i++) {
+            ejecutarProgramada(i);
+        }
+
+        verify(transaccionService, never()).resolverTransferenciaSalida(eq(REF), anyBoolean(), any());
+        verify(taskScheduler, times(3)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    // Ejecuta la última tarea programada; n es el número de programaciones esperadas hasta ahora
+    private void ejecutarProgramada(int n) {
+        ArgumentCaptor<Runnable> tarea = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(n)).schedule(tarea.capture(), any(Instant.class));
+        tarea.getValue().run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConsultaCuentaExternaCacheTest {
+
+    private SwitchClientService switchClientService;
+    private ConsultaCuentaExternaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        switchClientService = mock(SwitchClientService.class);
+        cache = new ConsultaCuentaExternaCache(switchClientService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttlPositivoMs", 300_000L);
+        ReflectionTestUtils.setField(cache, "ttlNegativoMs", 30_000L);
+        ReflectionTestUtils.setField(cache, "maxEntradas", 100L);
+        cache.inicializar();
+    }
+
+    @Test
+    void cuentaInexistenteSeGuardaComoNegativa() {
+        when(switchClientService.validarCuenta("BANTEC", "200000000002")).thenThrow(estado(404));
+
+        assertEquals(ConsultaCuentaExternaCache.CUENTA_NO_ENCONTRADA, cache.consultar("BANTEC", "200000000002"));
+        assertEquals(ConsultaCuentaExternaCache.CUENTA_NO_ENCONTRADA, cache.consultar("bantec", "200000000002"));
+
+        verify(switchClientService, times(1)).validarCuenta("BANTEC", "200000000002");
+    }
+
+    @Test
+    void errorDelSwitchNoSeGuarda() {
+        when(switchClientService.validarCuenta("BANTEC", "200000000002"))
+                .thenThrow(new RuntimeException("Error validando cuenta: timeout"));
+
+        assertThrows(RuntimeException.class, () -> cache.consultar("BANTEC", "200000000002"));
+        assertThrows(RuntimeException.class, () -> cache.consultar("BANTEC", "200000000002"));
+
+        verify(switchClientService, times(2)).validarCuenta("BANTEC", "200000000002");
+    }
+
+    private static FeignException estado(int status) {
+        Response respuesta = Response.builder()
+                .status(status)
+                .reason("HTTP " + status)
+                .request(Request.create(Request.HttpMethod.POST, "/api/v2/switch/accounts/lookup", Map.of(), null,
+                        StandardCharsets.UTF_8, null))
+                .headers(Map.of())
+                .build();
+        return FeignException.errorStatus("validarCuentaExterna", respuesta);
+    }
+}
@@ -0,0 +1,86 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.arcbank.cbs.transaccion.client.CuentaCliente;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CuentaMetadataCacheTest {
+
+    private static final String NUMERO = "100000000001";
+
+    private final AtomicLong reloj = new AtomicLong();
+    private CuentaCliente cuentaCliente;
+    private CuentaMetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cuentaCliente = mock(CuentaCliente.class);
+        cache = new CuentaMetadataCache(cuentaCliente, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttlMs", 300000L);
+        ReflectionTestUtils.setField(cache, "estadoTtlMs", 5000L);
+        ReflectionTestUtils.setField(cache, "maxEntradas", 100L);
+        cache.ticker = reloj::get;
+        cache.inicializar();
+    }
+
+    @Test
+    void elEstadoVenceAntesQueLosMetadatos() {
+        when(cuentaCliente.buscarPorNumero(NUMERO))
+                .thenReturn(cuenta("ACTIVA", "100.00"))
+                .thenReturn(cuenta("BLOQUEADA", "100.00"));
+
+        Map<String, Object> primera = cache.buscarPorNumero(NUMERO);
+        assertEquals("ACTIVA", primera.get("estado"));
+        assertNull(primera.get("saldoActual"));
+
+        avanzar(1000);
+        assertEquals("ACTIVA", cache.buscarPorNumero(NUMERO).get("estado"));
+        verify(cuentaCliente, times(1)).buscarPorNumero(NUMERO);
+
+        avanzar(5000);
+        Map<String, Object> bloqueada = cache.buscarPorNumero(NUMERO);
+        assertEquals("BLOQUEADA", bloqueada.get("estado"));
+        assertFalse(CuentaMetadataCache.admiteMovimientos(bloqueada));
+        verify(cuentaCliente, times(2)).buscarPorNumero(NUMERO);
+    }
+
+    @Test
+    void elLoteVuelveAConsultarSoloLasCuentasConEstadoVencido() {
+        when(cuentaCliente.buscarPorNumeros(List.of(NUMERO)))
+                .thenReturn(Map.of(NUMERO, cuenta("ACTIVA", "5.00")))
+                .thenReturn(Map.of(NUMERO, cuenta("CERRADA", "0.00")));
+
+        assertEquals("ACTIVA", cache.buscarPorNumeros(List.of(NUMERO)).get(NUMERO).get("estado"));
+        avanzar(6000);
+        assertEquals("CERRADA", cache.buscarPorNumeros(List.of(NUMERO)).get(NUMERO).get("estado"));
+        // La búsqueda por ID también ve el estado nuevo sin otra llamada
+        assertEquals("CERRADA", cache.obtenerCuenta(7).get("estado"));
+        verify(cuentaCliente, times(2)).buscarPorNumeros(List.of(NUMERO));
+    }
+
+    private void avanzar(long ms) {
+        reloj.addAndGet(TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    private static Map<String, Object> cuenta(String estado, String saldo) {
+        return Map.of("idCuenta", 7, "numeroCuenta", NUMERO, "idCliente", 3, "estado", estado,
+                "saldoActual", saldo);
+    }
+}
@@ -0,0 +1,153 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.arcbank.cbs.transaccion.dto.TransaccionRequestDTO;
+import com.arcbank.cbs.transaccion.dto.TransaccionResponseDTO;
+import com.arcbank.cbs.transaccion.exception.BusinessException;
+import com.arcbank.cbs.transaccion.exception.ResultadoInciertoException;
+import com.arcbank.cbs.transaccion.exception.SolicitudEnCursoException;
+import com.arcbank.cbs.transaccion.model.SolicitudIdempotente;
+import com.arcbank.cbs.transaccion.model.Transaccion;
+import com.arcbank.cbs.transaccion.repository.SolicitudIdempotenteRepository;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Simula la carrera entre réplicas: la memoria está vacía y el reclamo persistente ya existe.
+ */
+class IdempotenciaServiceTest {
+
+    private static final String CLAVE = "pago-42";
+
+    private TransaccionRepository transaccionRepository;
+    private SolicitudIdempotenteRepository solicitudRepository;
+    private TransaccionService transaccionService;
+    private IdempotenciaService service;
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository = mock(TransaccionRepository.class);
+        solicitudRepository = mock(SolicitudIdempotenteRepository.class);
+        transaccionService = mock(TransaccionService.class);
+        service = new IdempotenciaService(transaccionRepository, solicitudRepository, transaccionService,
+                new ObjectMapper());
+        ReflectionTestUtils.setField(service, "ttlMs", 60000L);
+        ReflectionTestUtils.setField(service, "maxEntradas", 100);
+        when(transaccionRepository.findByReferencia(any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void reclamoAjenoEnCursoNoEjecutaLaOperacion() {
+        TransaccionRequestDTO request = retiro("100.00");
+        reclamadaPorOtraReplica(request);
+
+        assertThrows(SolicitudEnCursoException.class, () -> service.ejecutar(CLAVE, request, operacion()));
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void reclamoAjenoResueltoDevuelveLaTransaccionSinEjecutar() {
+        TransaccionRequestDTO request = retiro("100.00");
+        reclamadaPorOtraReplica(request);
+        String referencia = IdempotenciaService.referenciaPara(CLAVE);
+        when(transaccionRepository.findByReferencia(referencia)).thenReturn(Optional.of(new Transaccion()));
+        when(transaccionService.obtenerPorReferencia(referencia)).thenReturn(respuesta("COMPLETADA"));
+
+        IdempotenciaService.ResultadoIdempotente resultado = service.ejecutar(CLAVE, request, operacion());
+
+        assertTrue(resultado.isRepetida());
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void reclamoAjenoConOtroCuerpoSeRechaza() {
+        reclamadaPorOtraReplica(retiro("100.00"));
+
+        assertThrows(BusinessException.class, () -> service.ejecutar(CLAVE, retiro("250.00"), operacion()));
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void falloDeLaOperacionLiberaElReclamo() {
+        Supplier<TransaccionResponseDTO> fallida = () -> {
+            throw new BusinessException("Fondos insuficientes");
+        };
+
+        assertThrows(BusinessException.class, () -> service.ejecutar(CLAVE, retiro("100.00"), fallida));
+        verify(solicitudRepository).eliminarPorReferencia(IdempotenciaService.referenciaPara(CLAVE));
+
+        IdempotenciaService.ResultadoIdempotente reintento = service.ejecutar(CLAVE, retiro("100.00"), operacion());
+        assertFalse(reintento.isRepetida());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void resultadoInciertoConservaElReclamo() {
+        Supplier<TransaccionResponseDTO> sinConfirmar = () -> {
+            throw new ResultadoInciertoException("No se pudo confirmar el movimiento de la cuenta ID: 7");
+        };
+
+        assertThrows(ResultadoInciertoException.class, () -> service.ejecutar(CLAVE, retiro("100.00"), sinConfirmar));
+        verify(solicitudRepository, never()).eliminarPorReferencia(any());
+    }
+
+    @Test
+    void huellaIgnoraEscalaDelMontoPeroNoSuValor() {
+        assertEquals(service.huella(retiro("100")), service.huella(retiro("100.00")));
+        assertNotEquals(service.huella(retiro("100.00")), service.huella(retiro("100.01")));
+    }
+
+    private void reclamadaPorOtraReplica(TransaccionRequestDTO cuerpo) {
+        cuerpo.setReferencia(IdempotenciaService.referenciaPara(CLAVE));
+        SolicitudIdempotente existente = SolicitudIdempotente.builder()
+                .referencia(cuerpo.getReferencia())
+                .huella(service.huella(cuerpo))
+                .build();
+        when(solicitudRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("UX"));
+        when(solicitudRepository.findByReferencia(cuerpo.getReferencia())).thenReturn(Optional.of(existente));
+    }
+
+    private Supplier<TransaccionResponseDTO> operacion() {
+        return () -> {
+            ejecuciones.incrementAndGet();
+            return respuesta("COMPLETADA");
+        };
+    }
+
+    private static TransaccionRequestDTO retiro(String monto) {
+        return TransaccionRequestDTO.builder()
+                .tipoOperacion("RETIRO")
+                .idCuentaOrigen(7)
+                .monto(new BigDecimal(monto))
+                .canal("WEB")
+                .build();
+    }
+
+    private static TransaccionResponseDTO respuesta(String estado) {
+        return TransaccionResponseDTO.builder()
+                .referencia(IdempotenciaService.referenciaPara(CLAVE))
+                .estado(estado)
+                .build();
+    }
+}
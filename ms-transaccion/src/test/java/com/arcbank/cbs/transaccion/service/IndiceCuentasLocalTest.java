@@ -0,0 +1,74 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.arcbank.cbs.transaccion.client.ClienteCliente;
+import com.arcbank.cbs.transaccion.client.CuentaCliente;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IndiceCuentasLocalTest {
+
+    private CuentaCliente cuentaCliente;
+    private ClienteCliente clienteCliente;
+    private TaskScheduler taskScheduler;
+    private IndiceCuentasLocal indice;
+
+    @BeforeEach
+    void setUp() {
+        cuentaCliente = mock(CuentaCliente.class);
+        clienteCliente = mock(ClienteCliente.class);
+        taskScheduler = mock(TaskScheduler.class);
+        indice = new IndiceCuentasLocal(cuentaCliente, clienteCliente, new SimpleMeterRegistry(), taskScheduler);
+        ReflectionTestUtils.setField(indice, "tamanioPagina", 100);
+        ReflectionTestUtils.setField(indice, "reintentoInicialMs", 10L);
+        ReflectionTestUtils.setField(indice, "reintentoMaxMs", 100L);
+        indice.inicializar();
+        when(clienteCliente.resumenClientes(anyInt(), anyInt()))
+                .thenReturn(List.of(Map.of("idCliente", 3, "nombreCompleto", "Ana Pérez", "estado", "ACTIVO")));
+    }
+
+    @Test
+    void sinCopiaInicialReintentaConBackoffCortoHastaConstruirla() {
+        when(cuentaCliente.resumenCuentas(anyInt(), anyInt()))
+                .thenThrow(new RuntimeException("MS Cuentas caído"))
+                .thenThrow(new RuntimeException("MS Cuentas caído"))
+                .thenThrow(new RuntimeException("MS Cuentas caído"))
+                .thenReturn(List.of(Map.of("idCuenta", 7, "numeroCuenta", "100000000123", "idCliente", 3,
+                        "estado", "ACTIVA")));
+
+        indice.reconstruir();
+        // La reconstrucción periódica mientras hay un reintento en espera no programa otro
+        indice.reconstruir();
+        ejecutarProgramada(1);
+        ejecutarProgramada(2);
+
+        assertTrue(indice.buscar("100000000123").isPresent());
+        assertEquals("Ana Pérez", indice.buscar("100000000123").get().getTitular());
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    // Ejecuta la última tarea programada; n es el número de programaciones esperadas hasta ahora
+    private void ejecutarProgramada(int n) {
+        ArgumentCaptor<Runnable> tarea = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(n)).schedule(tarea.capture(), any(Instant.class));
+        tarea.getValue().run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.arcbank.cbs.transaccion.client.CuentaCliente;
+import com.arcbank.cbs.transaccion.dto.MovimientoAplicadoDTO;
+import com.arcbank.cbs.transaccion.dto.MovimientoDTO;
+import com.arcbank.cbs.transaccion.dto.SwitchTransferRequest;
+import com.arcbank.cbs.transaccion.model.Transaccion;
+import com.arcbank.cbs.transaccion.repository.TransaccionLoteRepository;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
+
+class RecepcionLoteServiceTest {
+
+    private static final String CUENTA = "100000000123";
+    private static final int ID_CUENTA = 7;
+
+    private TransaccionRepository transaccionRepository;
+    private TransaccionLoteRepository transaccionLoteRepository;
+    private CuentaCliente cuentaCliente;
+    private RecepcionLoteService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        transaccionRepository = mock(TransaccionRepository.class);
+        transaccionLoteRepository = mock(TransaccionLoteRepository.class);
+        cuentaCliente = mock(CuentaCliente.class);
+        CuentaMetadataCache cuentaMetadataCache = mock(CuentaMetadataCache.class);
+        SerializadorCuentas serializadorCuentas = mock(SerializadorCuentas.class);
+
+        when(transaccionRepository.findReferenciasExistentes(any())).thenReturn(List.of());
+        when(cuentaMetadataCache.buscarPorNumeros(any()))
+                .thenReturn(Map.of(CUENTA, Map.of("idCuenta", ID_CUENTA, "estado", "ACTIVA")));
+        when(transaccionLoteRepository.insertarIgnorandoDuplicadas(any())).thenAnswer(inv -> {
+            boolean[] insertadas = new boolean[((List<?>) inv.getArgument(0)).size()];
+            Arrays.fill(insertadas, true);
+            return insertadas;
+        });
+        when(serializadorCuentas.ejecutar(anyInt(), any(Supplier.class)))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(1)).get());
+
+        service = new RecepcionLoteService(transaccionRepository, transaccionLoteRepository, cuentaMetadataCache,
+                cuentaCliente, serializadorCuentas, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void duplicadaEnElLoteRecibeElResultadoDeLaPrimera() {
+        when(cuentaCliente.aplicarMovimientos(eq(ID_CUENTA), any()))
+                .thenThrow(new RuntimeException("Read timed out"));
+
+        List<Map<String, Object>> resultados = service.procesar(
+                List.of(abono("ref-1", "10.00"), abono("ref-1", "10.00")));
+
+        assertEquals("NACK", resultados.get(0).get("status"));
+        assertEquals("MS03", resultados.get(0).get("codigo"));
+        assertEquals(resultados.get(0), resultados.get(1));
+    }
+
+    @Test
+    void falloTecnicoNoRegistraYElReintentoNoAcreditaDosVeces() {
+        when(cuentaCliente.aplicarMovimientos(eq(ID_CUENTA), any()))
+                .thenThrow(new RuntimeException("Read timed out"))
+                .thenReturn(List.of(new MovimientoAplicadoDTO("ref-1", new BigDecimal("10.00"),
+                        new BigDecimal("510.00"), true)));
+
+        List<Map<String, Object>> primero = service.procesar(List.of(abono("ref-1", "10.00")));
+        assertEquals("MS03", primero.get(0).get("codigo"));
+        verify(transaccionLoteRepository, never()).insertarIgnorandoDuplicadas(any());
+
+        // El Switch reintenta: MS Cuentas reconoce la referencia y devuelve el saldo ya registrado
+        List<Map<String, Object>> reintento = service.procesar(List.of(abono("ref-1", "10.00")));
+        assertEquals("ACK", reintento.get(0).get("status"));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaccion>> filas = ArgumentCaptor.forClass(List.class);
+        verify(transaccionLoteRepository).insertarIgnorandoDuplicadas(filas.capture());
+        assertEquals(0, new BigDecimal("510.00").compareTo(filas.getValue().get(0).getSaldoResultante()));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MovimientoDTO>> enviados = ArgumentCaptor.forClass(List.class);
+        verify(cuentaCliente, times(2)).aplicarMovimientos(eq(ID_CUENTA), enviados.capture());
+        enviados.getAllValues().forEach(m -> assertEquals("ref-1", m.get(0).getReferencia()));
+    }
+
+    @Test
+    void respuestaSinTodasLasReferenciasSeTrataComoFalloTecnico() {
+        when(cuentaCliente.aplicarMovimientos(eq(ID_CUENTA), any()))
+                .thenReturn(List.of(new MovimientoAplicadoDTO("ref-1", new BigDecimal("10.00"),
+                        new BigDecimal("510.00"), false)));
+
+        List<Map<String, Object>> resultados = service.procesar(
+                List.of(abono("ref-1", "10.00"), abono("ref-2", "5.00")));
+
+        assertEquals("MS03", resultados.get(0).get("codigo"));
+        assertEquals("MS03", resultados.get(1).get("codigo"));
+        verify(transaccionLoteRepository, never()).insertarIgnorandoDuplicadas(any());
+    }
+
+    @Test
+    void falloAlRegistrarTrasAcreditarRespondeMs03() {
+        when(cuentaCliente.aplicarMovimientos(eq(ID_CUENTA), any()))
+                .thenReturn(List.of(new MovimientoAplicadoDTO("ref-1", new BigDecimal("10.00"),
+                        new BigDecimal("510.00"), false)));
+        when(transaccionLoteRepository.insertarIgnorandoDuplicadas(any()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"));
+
+        List<Map<String, Object>> resultados = service.procesar(List.of(abono("ref-1", "10.00")));
+
+        assertEquals("MS03", resultados.get(0).get("codigo"));
+    }
+
+    private static SwitchTransferRequest abono(String referencia, String monto) {
+        return SwitchTransferRequest.builder()
+                .header(SwitchTransferRequest.Header.builder().originatingBankId("BANTEC").build())
+                .body(SwitchTransferRequest.Body.builder()
+                        .instructionId(referencia)
+                        .amount(SwitchTransferRequest.Amount.builder().currency("USD")
+                                .value(new BigDecimal(monto)).build())
+                        .creditor(SwitchTransferRequest.Party.builder().accountId(CUENTA).build())
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.arcbank.cbs.transaccion.client.CuentaCliente;
+import com.arcbank.cbs.transaccion.dto.RetencionActivaDTO;
+import com.arcbank.cbs.transaccion.repository.TransaccionRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RetencionesHuerfanasServiceTest {
+
+    private static final LocalDateTime CREADA = LocalDateTime.of(2026, 1, 10, 8, 0);
+
+    private CuentaCliente cuentaCliente;
+    private TransaccionRepository transaccionRepository;
+    private RetencionesHuerfanasService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cuentaCliente = mock(CuentaCliente.class);
+        transaccionRepository = mock(TransaccionRepository.class);
+        SerializadorCuentas serializadorCuentas = mock(SerializadorCuentas.class);
+        when(serializadorCuentas.ejecutar(anyInt(), any(Supplier.class)))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(1)).get());
+
+        service = new RetencionesHuerfanasService(cuentaCliente, transaccionRepository, serializadorCuentas,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "edadMinimaMs", 900_000L);
+        ReflectionTestUtils.setField(service, "tamanioPagina", 2);
+        ReflectionTestUtils.setField(service, "maxPorCiclo", 100);
+    }
+
+    @Test
+    void unaPaginaLlenaDeRetencionesRegistradasNoOcultaLasHuerfanasPosteriores() {
+        RetencionActivaDTO registrada1 = retencion(1, "registrada-1", 0);
+        RetencionActivaDTO registrada2 = retencion(2, "registrada-2", 1);
+        RetencionActivaDTO huerfana = retencion(3, "huerfana", 2);
+        when(cuentaCliente.retencionesActivas(anyString(), eq(LocalDateTime.of(1970, 1, 1, 0, 0).toString()),
+                eq(0), eq(2))).thenReturn(List.of(registrada1, registrada2));
+        when(cuentaCliente.retencionesActivas(anyString(), eq(registrada2.getFechaCreacion().toString()),
+                eq(2), eq(2))).thenReturn(List.of(huerfana));
+        when(transaccionRepository.findReferenciasExistentes(List.of("registrada-1", "registrada-2")))
+                .thenReturn(List.of("registrada-1", "registrada-2"));
+        when(transaccionRepository.findReferenciasExistentes(List.of("huerfana"))).thenReturn(List.of());
+
+        assertEquals(1, service.liberarHuerfanas());
+
+        verify(cuentaCliente).liberarRetencion("huerfana");
+        verify(cuentaCliente, never()).liberarRetencion("registrada-1");
+        verify(cuentaCliente, never()).liberarRetencion("registrada-2");
+    }
+
+    @Test
+    void fallaAlLiberarUnaNoDetieneElRestoDeLaPagina() {
+        when(cuentaCliente.retencionesActivas(anyString(), anyString(), eq(0), eq(2)))
+                .thenReturn(List.of(retencion(1, "ya-capturada", 0), retencion(2, "huerfana", 1)));
+        when(transaccionRepository.findReferenciasExistentes(any())).thenReturn(List.of());
+        when(cuentaCliente.liberarRetencion("ya-capturada")).thenThrow(new RuntimeException("409 Conflict"));
+
+        assertEquals(1, service.liberarHuerfanas());
+        verify(cuentaCliente).liberarRetencion("huerfana");
+    }
+
+    private static RetencionActivaDTO retencion(int id, String referencia, int minutos) {
+        return new RetencionActivaDTO(id, 7, referencia, new BigDecimal("25.00"), CREADA.plusMinutes(minutos));
+    }
+}
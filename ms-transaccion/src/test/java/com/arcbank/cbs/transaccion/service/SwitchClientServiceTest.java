@@ -0,0 +1,110 @@
+package com.arcbank.cbs.transaccion.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.arcbank.cbs.transaccion.client.SwitchClient;
+import com.arcbank.cbs.transaccion.config.MuestreoLog;
+import com.arcbank.cbs.transaccion.dto.TxRequest;
+import com.arcbank.cbs.transaccion.exception.SwitchRechazoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Solo un 4xx con código ISO de negocio revierte la transferencia; el resto lo reintenta el outbox.
+ */
+class SwitchClientServiceTest {
+
+    private SwitchClient switchClient;
+    private SwitchClientService service;
+
+    @BeforeEach
+    void setUp() {
+        switchClient = mock(SwitchClient.class);
+        service = new SwitchClientService(switchClient, new ObjectMapper(), mock(MuestreoLog.class),
+                mock(CatalogoMotivosDevolucion.class));
+    }
+
+    @Test
+    void credencialesRechazadasSonErrorTecnico() {
+        responder(401, "{\"error\":\"Token expirado\"}");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.enviarTransferencia(envio()));
+        assertFalse(e instanceof SwitchRechazoException);
+    }
+
+    @Test
+    void rutaNoEncontradaEsErrorTecnicoAunqueCiteUnCodigo() {
+        responder(404, "{\"error\":\"AC01 endpoint not found\"}");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.enviarTransferencia(envio()));
+        assertFalse(e instanceof SwitchRechazoException);
+    }
+
+    @Test
+    void cuatrocientosSinCodigoDeNegocioEsErrorTecnico() {
+        responder(400, "{\"error\":\"Bad Request\"}");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.enviarTransferencia(envio()));
+        assertFalse(e instanceof SwitchRechazoException);
+    }
+
+    @Test
+    void codigoDeNegocioEsRechazoDefinitivo() {
+        responder(422, "{\"code\":\"AC04\",\"message\":\"Cuenta cerrada\"}");
+
+        SwitchRechazoException e = assertThrows(SwitchRechazoException.class,
+                () -> service.enviarTransferencia(envio()));
+        assertEquals("AC04", e.getIsoCode());
+    }
+
+    @Test
+    void cuentaExternaInexistentePropagaNotFound() {
+        ReflectionTestUtils.setField(service, "bancoCodigo", "ARCBANK");
+        when(switchClient.validarCuentaExterna(any()))
+                .thenThrow(FeignException.errorStatus("validarCuentaExterna", respuesta(404, "{}")));
+
+        assertThrows(FeignException.NotFound.class, () -> service.validarCuenta("BANTEC", "200000000002"));
+    }
+
+    private void responder(int status, String cuerpo) {
+        when(switchClient.enviarTransferencia(any()))
+                .thenThrow(FeignException.errorStatus("enviarTransferencia", respuesta(status, cuerpo)));
+    }
+
+    private static Response respuesta(int status, String cuerpo) {
+        return Response.builder()
+                .status(status)
+                .reason("HTTP " + status)
+                .request(Request.create(Request.HttpMethod.POST, "/api/v2/switch/transfers", Map.of(), null,
+                        StandardCharsets.UTF_8, null))
+                .headers(Map.of())
+                .body(cuerpo, StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private static TxRequest envio() {
+        return TxRequest.builder()
+                .referenceId("REF-SW-1")
+                .debtorAccount("100000000001")
+                .creditorAccount("200000000002")
+                .targetBankId("BANTEC")
+                .amount(new BigDecimal("25.00"))
+                .build();
+    }
+}